@@ -0,0 +1,89 @@
+package io.brachu.johann.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CliRunnerBenchmark {
+
+    private static final ProcessWaitStrategy WAIT_STRATEGY = new TimedProcessWaitStrategy(1, TimeUnit.MINUTES);
+
+    private ProcessOutputTransfer outputTransfer;
+    private String[] versionCmd;
+    private String[] psCmd;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path script = FakeCompose.create("2.20.0", 8);
+        outputTransfer = new ProcessOutputTransfer(16);
+        versionCmd = new String[] { script.toString(), "version", "--short" };
+        psCmd = new String[] { script.toString(), "--ansi", "never", "-f", "-", "-p", FakeCompose.PROJECT_NAME, "ps", "--format", "json", "--all" };
+    }
+
+    @TearDown
+    public void tearDown() {
+        outputTransfer.close();
+    }
+
+    @Benchmark
+    public byte[] bareProcessBuilder() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(versionCmd).start();
+        process.getOutputStream().close();
+        try (InputStream input = process.getInputStream()) {
+            byte[] output = input.readAllBytes();
+            process.waitFor();
+            return output;
+        }
+    }
+
+    @Benchmark
+    public String version() throws Exception {
+        return runner(versionCmd).exec();
+    }
+
+    @Benchmark
+    public String status() throws Exception {
+        return runner(psCmd).exec();
+    }
+
+    @Benchmark
+    public String statusAsync() throws Exception {
+        return runner(psCmd).execAsync().get();
+    }
+
+    private CliRunner runner(String[] cmd) {
+        return new CliRunner(cmd)
+                .outputTransfer(outputTransfer)
+                .outputSinkFactory(StreamingProcessOutputSink::create)
+                .onProcessStart(CliRunnerBenchmark::closeInput)
+                .waitStrategy(WAIT_STRATEGY);
+    }
+
+    private static void closeInput(Process process) {
+        try {
+            process.getOutputStream().close();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
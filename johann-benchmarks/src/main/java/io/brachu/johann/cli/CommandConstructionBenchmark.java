@@ -0,0 +1,61 @@
+package io.brachu.johann.cli;
+
+import java.util.concurrent.TimeUnit;
+
+import io.brachu.johann.DownConfig;
+import io.brachu.johann.LogsConfig;
+import io.brachu.johann.UpConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandConstructionBenchmark {
+
+    private final String[] cmdPrefix = { "docker-compose", "--ansi", "never", "-f", "-", "-p", FakeCompose.PROJECT_NAME };
+    private final String[] upCommand = { "up", "-d" };
+    private final String[] downCommand = { "down" };
+    private final UpConfig upConfig = UpConfig.defaults().withForceBuild(true);
+    private final DownConfig downConfig = DownConfig.defaults();
+    private final LogsConfig logsConfig = LogsConfig.defaults().withTail(100).withServices("postgresql", "rabbitmq");
+
+    @Benchmark
+    public String[] concat() {
+        return DockerComposeCliExecutor.concat(cmdPrefix, upCommand);
+    }
+
+    @Benchmark
+    public String[] arraycopyBaseline() {
+        String[] result = new String[cmdPrefix.length + upCommand.length];
+        System.arraycopy(cmdPrefix, 0, result, 0, cmdPrefix.length);
+        System.arraycopy(upCommand, 0, result, cmdPrefix.length, upCommand.length);
+        return result;
+    }
+
+    @Benchmark
+    public String[] upCmd() {
+        return DockerComposeCliExecutor.concat(DockerComposeCliExecutor.concat(cmdPrefix, upCommand), upConfig.toCmd());
+    }
+
+    @Benchmark
+    public String[] downCmd() {
+        return DockerComposeCliExecutor.concat(DockerComposeCliExecutor.concat(cmdPrefix, downCommand), downConfig.toCmd());
+    }
+
+    @Benchmark
+    public String[] logsCmd() {
+        return logsConfig.toCmd();
+    }
+
+}
@@ -0,0 +1,64 @@
+package io.brachu.johann.cli;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+
+final class FakeCompose {
+
+    static final String PROJECT_NAME = "bench";
+
+    private FakeCompose() {
+    }
+
+    static Path create(String version, int containers) throws IOException {
+        Path directory = Files.createTempDirectory("johann-fake-compose");
+        Files.writeString(directory.resolve("ps.json"), psOutput(containers));
+        Files.writeString(directory.resolve("ids.txt"), String.join("\n", containerIds(containers)) + "\n");
+
+        Path script = directory.resolve("docker-compose");
+        Files.writeString(script, "#!/bin/sh\n"
+                + "case \"$*\" in\n"
+                + "  *\"version --short\"*) echo \"" + version + "\"; exit 0;;\n"
+                + "esac\n"
+                + "cat > /dev/null\n"
+                + "case \"$*\" in\n"
+                + "  *\" ps --format json --all\"*) cat \"" + directory.resolve("ps.json") + "\";;\n"
+                + "  *\" ps -q\"*) cat \"" + directory.resolve("ids.txt") + "\";;\n"
+                + "  *\" port \"*) echo \"0.0.0.0:32768\";;\n"
+                + "  *\" config --services\"*) echo \"postgresql\"; echo \"rabbitmq\";;\n"
+                + "esac\n", StandardCharsets.UTF_8);
+        Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-xr-x"));
+        return script;
+    }
+
+    static String psOutput(int containers) {
+        StringBuilder output = new StringBuilder();
+        List<String> ids = containerIds(containers);
+        for (int i = 0; i < containers; ++i) {
+            output.append("{\"ID\":\"").append(ids.get(i)).append("\",")
+                    .append("\"Name\":\"").append(PROJECT_NAME).append("-service").append(i).append("-1\",")
+                    .append("\"Service\":\"service").append(i).append("\",")
+                    .append("\"State\":\"running\",\"Health\":\"healthy\",\"ExitCode\":0,")
+                    .append("\"Publishers\":[{\"URL\":\"0.0.0.0\",\"TargetPort\":5432,\"PublishedPort\":").append(32768 + i)
+                    .append(",\"Protocol\":\"tcp\"},{\"URL\":\"::\",\"TargetPort\":5432,\"PublishedPort\":").append(32768 + i)
+                    .append(",\"Protocol\":\"tcp\"}],")
+                    .append("\"Labels\":\"com.docker.compose.project=").append(PROJECT_NAME)
+                    .append(",com.docker.compose.service=service").append(i).append("\"}\n");
+        }
+        return output.toString();
+    }
+
+    static List<String> containerIds(int containers) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < containers; ++i) {
+            ids.add(String.format("%064x", i + 1));
+        }
+        return ids;
+    }
+
+}
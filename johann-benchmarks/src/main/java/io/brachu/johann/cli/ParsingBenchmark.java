@@ -0,0 +1,72 @@
+package io.brachu.johann.cli;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.PortBinding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+
+    @Param({ "1", "20" })
+    private int containers;
+
+    private ComposeStatusParser statusParser;
+    private LogLineParser logLineParser;
+    private String psOutput;
+    private String logLine;
+
+    @Setup
+    public void setUp() {
+        statusParser = new ComposeStatusParser(URI.create("unix:///var/run/docker.sock"));
+        logLineParser = new LogLineParser(FakeCompose.PROJECT_NAME);
+        psOutput = FakeCompose.psOutput(containers);
+        logLine = FakeCompose.PROJECT_NAME + "-postgresql-1  | database system is ready to accept connections";
+    }
+
+    @Benchmark
+    public ClusterStatus psStatus() {
+        return statusParser.parse(psOutput);
+    }
+
+    @Benchmark
+    public boolean psStatusHealthy() {
+        return statusParser.parse(psOutput).isHealthyOrRunning();
+    }
+
+    @Benchmark
+    public String portBinding() {
+        return new PortBinding("0.0.0.0:32768").getPort();
+    }
+
+    @Benchmark
+    public String portBindingIpv6() {
+        return new PortBinding("[::]:32768").getPort();
+    }
+
+    @Benchmark
+    public void logLine(Blackhole blackhole) {
+        int separatorIndex = logLineParser.separatorIndex(logLine);
+        blackhole.consume(logLineParser.serviceName(logLine, separatorIndex));
+        blackhole.consume(logLineParser.message(logLine, separatorIndex));
+    }
+
+}
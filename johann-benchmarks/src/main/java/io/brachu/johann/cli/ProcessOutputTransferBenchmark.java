@@ -0,0 +1,73 @@
+package io.brachu.johann.cli;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessOutputTransferBenchmark {
+
+    private static final int LINES = 10_000;
+
+    @Param({ "80", "1000" })
+    private int lineLength;
+
+    private ProcessOutputTransfer outputTransfer;
+    private LogLineParser logLineParser;
+    private byte[] output;
+
+    @Setup
+    public void setUp() {
+        outputTransfer = new ProcessOutputTransfer(16);
+        logLineParser = new LogLineParser(FakeCompose.PROJECT_NAME);
+
+        String prefix = FakeCompose.PROJECT_NAME + "-postgresql-1  | ";
+        String line = prefix + StringUtils.repeat('x', Math.max(lineLength - prefix.length(), 0)) + "\n";
+        output = StringUtils.repeat(line, LINES).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        outputTransfer.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void lineParsingSink(Blackhole blackhole) {
+        StreamingProcessOutputSink.lineParsing(blackhole::consume).create(new StubProcess(output), outputTransfer).transferred().join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public String bufferingSink() throws IOException {
+        return StreamingProcessOutputSink.create(new StubProcess(output), outputTransfer).standardOutput();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void logListenerSink(Blackhole blackhole) {
+        LogListenerSink.create(new StubProcess(output), outputTransfer, LogFollowingListener.silent(logLineParser, blackhole::consume)).transferred().join();
+    }
+
+}
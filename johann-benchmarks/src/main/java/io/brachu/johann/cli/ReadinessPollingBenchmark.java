@@ -0,0 +1,83 @@
+package io.brachu.johann.cli;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.github.dockerjava.core.DefaultDockerClientConfig;
+import com.github.dockerjava.core.DockerClientConfig;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.DockerApiConfig;
+import io.brachu.johann.metrics.JohannMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadinessPollingBenchmark {
+
+    @Param({ "1", "8" })
+    private int containers;
+
+    @Param({ "1", "8" })
+    private int inspectParallelism;
+
+    private StubEngineApi engineApi;
+    private DockerComposeCliExecutor composeExecutor;
+    private List<ContainerId> containerIds;
+
+    @Setup
+    public void setUp() throws IOException {
+        engineApi = StubEngineApi.start();
+        DockerClientConfig config = DefaultDockerClientConfig.createDefaultConfigBuilder()
+                .withDockerHost(engineApi.uri().toString())
+                .withDockerTlsVerify(false)
+                .build();
+        DockerApiConfig apiConfig = DockerApiConfig.defaults();
+
+        Path script = FakeCompose.create("2.20.0", containers);
+        composeExecutor = new DockerComposeCliExecutor(script.toString(), "services: {}", null, FakeCompose.PROJECT_NAME, Map.of(),
+                DockerClientRegistry.shared().acquire(config, apiConfig), URI.create("unix:///var/run/docker.sock"), inspectParallelism, null, JohannMetrics.NOOP);
+        containerIds = FakeCompose.containerIds(containers).stream().map(ContainerId::new).collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        composeExecutor.close();
+        engineApi.close();
+    }
+
+    @Benchmark
+    public boolean composeStatus() {
+        return composeExecutor.status().isHealthyOrRunning();
+    }
+
+    @Benchmark
+    public boolean composePsAndInspect() {
+        return composeExecutor.healthyOrRunning(composeExecutor.ps());
+    }
+
+    @Benchmark
+    public boolean inspect() {
+        return composeExecutor.healthyOrRunning(containerIds);
+    }
+
+}
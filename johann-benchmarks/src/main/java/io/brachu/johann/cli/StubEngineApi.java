@@ -0,0 +1,79 @@
+package io.brachu.johann.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+final class StubEngineApi implements Closeable {
+
+    private static final Pattern INSPECT_PATH = Pattern.compile(".*/containers/([0-9a-f]+)/json");
+    private static final int THREADS = 8;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private StubEngineApi(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    static StubEngineApi start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS, JohannExecutors.daemonThreadFactory("johann-stub-engine-api"));
+        server.setExecutor(executor);
+        server.createContext("/", StubEngineApi::handle);
+        server.start();
+        return new StubEngineApi(server, executor);
+    }
+
+    URI uri() {
+        return URI.create("tcp://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        Matcher inspect = INSPECT_PATH.matcher(path);
+        if (inspect.matches()) {
+            respond(exchange, 200, inspectResponse(inspect.group(1)));
+        } else if (path.endsWith("/_ping")) {
+            respond(exchange, 200, "OK");
+        } else {
+            respond(exchange, 404, "{\"message\":\"page not found\"}");
+        }
+    }
+
+    private static String inspectResponse(String containerId) {
+        return "{\"Id\":\"" + containerId + "\",\"Name\":\"/" + FakeCompose.PROJECT_NAME + "-service-1\","
+                + "\"State\":{\"Status\":\"running\",\"Running\":true,\"ExitCode\":0,\"Health\":{\"Status\":\"healthy\"}},"
+                + "\"Config\":{\"Labels\":{\"com.docker.compose.project\":\"" + FakeCompose.PROJECT_NAME + "\",\"com.docker.compose.service\":\"service\"}},"
+                + "\"NetworkSettings\":{\"Ports\":{\"5432/tcp\":[{\"HostIp\":\"0.0.0.0\",\"HostPort\":\"32768\"}]},"
+                + "\"Networks\":{\"bench_default\":{\"IPAddress\":\"172.18.0.2\"}}}}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package io.brachu.johann.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+final class StubProcess extends Process {
+
+    private final InputStream standardOutput;
+    private final InputStream errorOutput;
+
+    StubProcess(byte[] standardOutput) {
+        this.standardOutput = new ByteArrayInputStream(standardOutput);
+        errorOutput = InputStream.nullInputStream();
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return OutputStream.nullOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return standardOutput;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return errorOutput;
+    }
+
+    @Override
+    public int waitFor() {
+        return 0;
+    }
+
+    @Override
+    public int exitValue() {
+        return 0;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+}
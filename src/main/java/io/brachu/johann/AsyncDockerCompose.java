@@ -0,0 +1,25 @@
+package io.brachu.johann;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncDockerCompose {
+
+    CompletableFuture<Void> up();
+
+    CompletableFuture<Void> up(UpConfig config);
+
+    CompletableFuture<Void> pull();
+
+    CompletableFuture<PrefetchResult> prefetch();
+
+    CompletableFuture<PrefetchResult> prefetch(PrefetchConfig config);
+
+    CompletableFuture<Void> stopAll();
+
+    CompletableFuture<Void> stop(String... serviceNames);
+
+    CompletableFuture<Void> down();
+
+    CompletableFuture<Void> down(DownConfig config);
+
+}
@@ -0,0 +1,21 @@
+package io.brachu.johann;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+public interface ClusterLogs {
+
+    LogSubscription subscribe(String serviceName, Consumer<LogLine> subscriber);
+
+    List<LogLine> recent(String serviceName);
+
+    List<LogLine> grep(String serviceName, Pattern pattern);
+
+    CompletableFuture<LogLine> match(String serviceName, Pattern pattern);
+
+    LogLine await(String serviceName, Pattern pattern, long time, TimeUnit unit);
+
+}
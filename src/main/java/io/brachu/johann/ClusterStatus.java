@@ -0,0 +1,50 @@
+package io.brachu.johann;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ClusterStatus {
+
+    private final List<ContainerStatus> containers;
+    private final Map<String, ServiceStatus> services;
+
+    public ClusterStatus(List<ContainerStatus> containers) {
+        this.containers = List.copyOf(containers);
+
+        Map<String, List<ContainerStatus>> grouped = new LinkedHashMap<>();
+        containers.forEach(container -> grouped.computeIfAbsent(container.getServiceName(), key -> new ArrayList<>()).add(container));
+
+        Map<String, ServiceStatus> services = new LinkedHashMap<>();
+        grouped.forEach((serviceName, serviceContainers) -> services.put(serviceName, new ServiceStatus(serviceName, serviceContainers)));
+        this.services = Collections.unmodifiableMap(services);
+    }
+
+    public List<ContainerStatus> getContainers() {
+        return containers;
+    }
+
+    public Map<String, ServiceStatus> getServices() {
+        return services;
+    }
+
+    public ServiceStatus service(String serviceName) {
+        return services.getOrDefault(serviceName, new ServiceStatus(serviceName, List.of()));
+    }
+
+    public List<ContainerId> containerIds() {
+        return containers.stream().map(ContainerStatus::getContainerId).collect(Collectors.toList());
+    }
+
+    public boolean isUp() {
+        return !containers.isEmpty();
+    }
+
+    public boolean isHealthyOrRunning() {
+        return containers.stream().allMatch(ContainerStatus::isHealthyOrRunning);
+    }
+
+}
@@ -0,0 +1,8 @@
+package io.brachu.johann;
+
+public enum ComposeBackend {
+
+    CLI,
+    ENGINE_API
+
+}
@@ -0,0 +1,105 @@
+package io.brachu.johann;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.brachu.johann.exception.DockerComposeException;
+
+public class ComposeModel {
+
+    private static final String DEFAULT_NETWORK = "default";
+
+    private final String projectName;
+    private final Map<String, ComposeService> services;
+    private final Map<String, String> networks;
+    private final Map<String, String> volumes;
+
+    public ComposeModel(String projectName, List<ComposeService> services, Map<String, String> networks, Map<String, String> volumes) {
+        this.projectName = projectName;
+        Map<String, ComposeService> byName = new LinkedHashMap<>();
+        services.forEach(service -> byName.put(service.getName(), service));
+        this.services = Collections.unmodifiableMap(byName);
+        this.networks = Map.copyOf(networks);
+        this.volumes = Map.copyOf(volumes);
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public List<ComposeService> getServices() {
+        return List.copyOf(services.values());
+    }
+
+    public List<String> serviceNames() {
+        return List.copyOf(services.keySet());
+    }
+
+    public boolean hasService(String serviceName) {
+        return services.containsKey(serviceName);
+    }
+
+    public ComposeService service(String serviceName) {
+        ComposeService service = services.get(serviceName);
+        if (service == null) {
+            throw new DockerComposeException("No such service: '" + serviceName + "'. Services defined in compose file: " + services.keySet() + ".");
+        }
+        return service;
+    }
+
+    public ComposePort port(String serviceName, Protocol protocol, int target) {
+        ComposeService service = service(serviceName);
+        return service.getPorts().stream()
+                .filter(port -> port.getProtocol() == protocol && port.getTarget() == target)
+                .findFirst()
+                .orElseThrow(() -> new DockerComposeException("Service '" + serviceName + "' does not publish " + target + "/" + protocol + " port. "
+                        + "Published ports: " + service.getPorts() + "."));
+    }
+
+    public Map<String, String> getNetworks() {
+        return networks;
+    }
+
+    public String networkName(String network) {
+        return networks.getOrDefault(network, projectName.toLowerCase() + "_" + network);
+    }
+
+    public String defaultNetworkName() {
+        return networkName(DEFAULT_NETWORK);
+    }
+
+    public Map<String, String> getVolumes() {
+        return volumes;
+    }
+
+    public List<String> startupOrder() {
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String serviceName : services.keySet()) {
+            visit(serviceName, ordered, new LinkedHashSet<>());
+        }
+        return new ArrayList<>(ordered);
+    }
+
+    private void visit(String serviceName, Set<String> ordered, Set<String> visiting) {
+        if (ordered.contains(serviceName)) {
+            return;
+        }
+        if (!visiting.add(serviceName)) {
+            throw new DockerComposeException("Dependency cycle between services: " + visiting + ".");
+        }
+        ComposeService service = services.get(serviceName);
+        if (service != null) {
+            for (String dependency : service.getDependsOn().keySet()) {
+                visit(dependency, ordered, visiting);
+            }
+        }
+        visiting.remove(serviceName);
+        ordered.add(serviceName);
+    }
+
+}
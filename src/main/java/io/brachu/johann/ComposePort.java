@@ -0,0 +1,36 @@
+package io.brachu.johann;
+
+public class ComposePort {
+
+    private final int target;
+    private final int published;
+    private final Protocol protocol;
+
+    public ComposePort(int target, int published, Protocol protocol) {
+        this.target = target;
+        this.published = published;
+        this.protocol = protocol;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public int getPublished() {
+        return published;
+    }
+
+    public boolean isPublishedRandomly() {
+        return published == 0;
+    }
+
+    public Protocol getProtocol() {
+        return protocol;
+    }
+
+    @Override
+    public String toString() {
+        return ServiceEndpoints.portKey(protocol, target);
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.brachu.johann;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ComposeService {
+
+    private final String name;
+    private final String image;
+    private final boolean buildable;
+    private final List<ComposePort> ports;
+    private final boolean healthcheck;
+    private final Map<String, String> dependsOn;
+    private final List<String> networks;
+    private final int replicas;
+
+    public ComposeService(String name, String image, boolean buildable, List<ComposePort> ports, boolean healthcheck, Map<String, String> dependsOn,
+            List<String> networks, int replicas) {
+
+        this.name = name;
+        this.image = image;
+        this.buildable = buildable;
+        this.ports = List.copyOf(ports);
+        this.healthcheck = healthcheck;
+        this.dependsOn = Collections.unmodifiableMap(new LinkedHashMap<>(dependsOn));
+        this.networks = List.copyOf(networks);
+        this.replicas = replicas;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public boolean isBuildable() {
+        return buildable;
+    }
+
+    public List<ComposePort> getPorts() {
+        return ports;
+    }
+
+    public boolean publishes(Protocol protocol, int target) {
+        return ports.stream().anyMatch(port -> port.getProtocol() == protocol && port.getTarget() == target);
+    }
+
+    public boolean hasHealthcheck() {
+        return healthcheck;
+    }
+
+    public Map<String, String> getDependsOn() {
+        return dependsOn;
+    }
+
+    public List<String> getNetworks() {
+        return networks;
+    }
+
+    public int getReplicas() {
+        return replicas;
+    }
+
+}
@@ -0,0 +1,71 @@
+package io.brachu.johann;
+
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+public class ContainerStatus {
+
+    private final ContainerId containerId;
+    private final String name;
+    private final String serviceName;
+    private final String state;
+    private final String health;
+    private final int exitCode;
+    private final Map<String, ContainerPort> ports;
+    private final Map<String, String> labels;
+
+    public ContainerStatus(ContainerId containerId, String name, String serviceName, String state, String health, int exitCode,
+            Map<String, ContainerPort> ports, Map<String, String> labels) {
+
+        this.containerId = containerId;
+        this.name = name;
+        this.serviceName = serviceName;
+        this.state = state;
+        this.health = StringUtils.defaultString(health);
+        this.exitCode = exitCode;
+        this.ports = Map.copyOf(ports);
+        this.labels = Map.copyOf(labels);
+    }
+
+    public ContainerId getContainerId() {
+        return containerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getHealth() {
+        return health;
+    }
+
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    public Map<String, ContainerPort> getPorts() {
+        return ports;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public boolean isRunning() {
+        return "running".equals(state);
+    }
+
+    public boolean isHealthyOrRunning() {
+        return isRunning() && (health.isEmpty() || "healthy".equals(health));
+    }
+
+}
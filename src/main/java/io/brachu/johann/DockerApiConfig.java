@@ -0,0 +1,61 @@
+package io.brachu.johann;
+
+import java.time.Duration;
+
+import org.apache.commons.lang3.Validate;
+
+public final class DockerApiConfig {
+
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_RESPONSE_TIMEOUT = Duration.ofSeconds(10);
+    private static final int DEFAULT_MAX_CONNECTIONS = 32;
+    private static final DockerApiConfig DEFAULT_INSTANCE = new DockerApiConfig();
+
+    private final Duration connectTimeout;
+    private final Duration responseTimeout;
+    private final int maxConnections;
+
+    private DockerApiConfig() {
+        connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        responseTimeout = DEFAULT_RESPONSE_TIMEOUT;
+        maxConnections = DEFAULT_MAX_CONNECTIONS;
+    }
+
+    private DockerApiConfig(Duration connectTimeout, Duration responseTimeout, int maxConnections) {
+        Validate.isTrue(connectTimeout != null && !connectTimeout.isNegative() && !connectTimeout.isZero(), "connectTimeout must be positive");
+        Validate.isTrue(responseTimeout != null && !responseTimeout.isNegative() && !responseTimeout.isZero(), "responseTimeout must be positive");
+        Validate.isTrue(maxConnections > 0, "maxConnections must be positive");
+        this.connectTimeout = connectTimeout;
+        this.responseTimeout = responseTimeout;
+        this.maxConnections = maxConnections;
+    }
+
+    public static DockerApiConfig defaults() {
+        return DEFAULT_INSTANCE;
+    }
+
+    public DockerApiConfig withConnectTimeout(Duration connectTimeout) {
+        return new DockerApiConfig(connectTimeout, responseTimeout, maxConnections);
+    }
+
+    public DockerApiConfig withResponseTimeout(Duration responseTimeout) {
+        return new DockerApiConfig(connectTimeout, responseTimeout, maxConnections);
+    }
+
+    public DockerApiConfig withMaxConnections(int maxConnections) {
+        return new DockerApiConfig(connectTimeout, responseTimeout, maxConnections);
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+}
@@ -3,11 +3,17 @@ package io.brachu.johann;
 import java.io.Closeable;
 import java.io.File;
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 import io.brachu.johann.cli.DockerComposeCliBuilder;
+import io.brachu.johann.executor.ComposeExecutor;
+import io.brachu.johann.metrics.JohannMetrics;
 
 public interface DockerCompose extends Closeable {
 
@@ -19,10 +25,18 @@ public interface DockerCompose extends Closeable {
 
     void down(DownConfig config);
 
+    void pull();
+
+    PrefetchResult prefetch();
+
+    PrefetchResult prefetch(PrefetchConfig config);
+
     void kill();
 
     boolean isUp();
 
+    void refresh();
+
     String containerIp(String serviceName);
 
     String containerIp(String serviceName, String networkName);
@@ -31,12 +45,24 @@ public interface DockerCompose extends Closeable {
 
     ContainerPort port(String serviceName, Protocol protocol, int privatePort);
 
+    Map<String, ContainerPort> ports(String serviceName);
+
+    ServiceEndpoints endpoints(String serviceName);
+
+    Map<String, ServiceEndpoints> endpoints();
+
     List<ContainerId> ps();
 
     List<ContainerId> ps(String serviceName);
 
+    ClusterStatus status();
+
+    ComposeModel model();
+
     void waitForCluster(long time, TimeUnit unit);
 
+    void waitForCluster(WaitPolicy policy);
+
     void startAll();
 
     void start(String serviceName);
@@ -49,14 +75,30 @@ public interface DockerCompose extends Closeable {
 
     void stop(String... serviceNames);
 
-    void followLogs();
+    LogFollower followLogs();
+
+    LogFollower followLogs(LogsConfig config);
+
+    LogFollower followLogs(PrintStream out, PrintStream err);
+
+    LogFollower followLogs(LogsConfig config, PrintStream out, PrintStream err);
+
+    LogFollower captureLogs(LogCaptureConfig config);
+
+    ClusterLogs logs();
 
-    void followLogs(PrintStream out, PrintStream err);
+    LogLine waitForLog(String serviceName, Pattern pattern, long time, TimeUnit unit);
 
     void waitForService(String serviceName, long time, TimeUnit unit);
 
+    void waitForService(String serviceName, WaitPolicy policy);
+
+    CompletableFuture<Void> serviceReady(String serviceName);
+
     String getProjectName();
 
+    AsyncDockerCompose async();
+
     static Builder builder() {
         return builder("docker-compose");
     }
@@ -97,7 +139,7 @@ public interface DockerCompose extends Closeable {
 
         }
 
-        interface Env extends Finish {
+        interface Env extends Options {
 
             Env env(String key, String value);
 
@@ -105,6 +147,28 @@ public interface DockerCompose extends Closeable {
 
         }
 
+        interface Options extends Finish {
+
+            Options clusterStateTtl(long time, TimeUnit unit);
+
+            Options inspectParallelism(int parallelism);
+
+            Options backend(ComposeBackend backend);
+
+            Options reuse();
+
+            Options metrics(JohannMetrics metrics);
+
+            Options executor(Function<String, ComposeExecutor> executorFactory);
+
+            Options record(Path file);
+
+            Options dockerApi(DockerApiConfig config);
+
+            Options probe(ReadinessProbe probe);
+
+        }
+
         interface Finish {
 
             DockerCompose build();
@@ -16,6 +16,7 @@ public final class DownConfig {
     private final boolean removeVolumes;
     private final boolean removeOrphans;
     private final int timeoutSeconds;
+    private final boolean force;
 
     private DownConfig() {
         killBeforeDown = false;
@@ -23,15 +24,19 @@ public final class DownConfig {
         removeVolumes = true;
         removeOrphans = false;
         timeoutSeconds = DEFAULT_TIMEOUT;
+        force = false;
     }
 
-    private DownConfig(boolean killBeforeDown, RemoveImagesMode removeImages, boolean removeVolumes, boolean removeOrphans, int timeoutSeconds) {
+    private DownConfig(boolean killBeforeDown, RemoveImagesMode removeImages, boolean removeVolumes, boolean removeOrphans, int timeoutSeconds,
+            boolean force) {
+
         Validate.isTrue(timeoutSeconds > 0, "timeoutSeconds <= 0");
         this.killBeforeDown = killBeforeDown;
         this.removeImages = removeImages;
         this.removeVolumes = removeVolumes;
         this.removeOrphans = removeOrphans;
         this.timeoutSeconds = timeoutSeconds;
+        this.force = force;
     }
 
     public static DownConfig defaults() {
@@ -39,23 +44,31 @@ public final class DownConfig {
     }
 
     public DownConfig withKillBeforeDown() {
-        return new DownConfig(true, removeImages, removeVolumes, removeOrphans, timeoutSeconds);
+        return new DownConfig(true, removeImages, removeVolumes, removeOrphans, timeoutSeconds, force);
     }
 
     public DownConfig withRemoveImages(RemoveImagesMode mode) {
-        return new DownConfig(killBeforeDown, mode, removeVolumes, removeOrphans, timeoutSeconds);
+        return new DownConfig(killBeforeDown, mode, removeVolumes, removeOrphans, timeoutSeconds, force);
     }
 
     public DownConfig withRemoveVolumes(boolean removeVolumes) {
-        return new DownConfig(killBeforeDown, removeImages, removeVolumes, removeOrphans, timeoutSeconds);
+        return new DownConfig(killBeforeDown, removeImages, removeVolumes, removeOrphans, timeoutSeconds, force);
     }
 
     public DownConfig withRemoveOrphans(boolean removeOrphans) {
-        return new DownConfig(killBeforeDown, removeImages, removeVolumes, removeOrphans, timeoutSeconds);
+        return new DownConfig(killBeforeDown, removeImages, removeVolumes, removeOrphans, timeoutSeconds, force);
     }
 
     public DownConfig withTimeoutSeconds(int timeoutSeconds) {
-        return new DownConfig(killBeforeDown, removeImages, removeVolumes, removeOrphans, timeoutSeconds);
+        return new DownConfig(killBeforeDown, removeImages, removeVolumes, removeOrphans, timeoutSeconds, force);
+    }
+
+    public DownConfig withForce() {
+        return new DownConfig(killBeforeDown, removeImages, removeVolumes, removeOrphans, timeoutSeconds, true);
+    }
+
+    public boolean isForce() {
+        return force;
     }
 
     public String[] toCmd() {
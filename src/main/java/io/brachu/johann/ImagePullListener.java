@@ -0,0 +1,7 @@
+package io.brachu.johann;
+
+public interface ImagePullListener {
+
+    void onProgress(ImagePullProgress progress);
+
+}
@@ -0,0 +1,38 @@
+package io.brachu.johann;
+
+public class ImagePullProgress {
+
+    private final String image;
+    private final String status;
+    private final long currentBytes;
+    private final long totalBytes;
+
+    public ImagePullProgress(String image, String status, long currentBytes, long totalBytes) {
+        this.image = image;
+        this.status = status;
+        this.currentBytes = currentBytes;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    @Override
+    public String toString() {
+        return image + ": " + status + " " + currentBytes + "/" + totalBytes + " bytes";
+    }
+
+}
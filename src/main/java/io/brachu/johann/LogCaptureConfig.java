@@ -0,0 +1,96 @@
+package io.brachu.johann;
+
+import java.nio.file.Path;
+
+import org.apache.commons.lang3.Validate;
+
+public final class LogCaptureConfig {
+
+    private static final long DEFAULT_MAX_FILE_SIZE = 64L * 1024 * 1024;
+    private static final int DEFAULT_MAX_ROTATED_FILES = 5;
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    private final Path directory;
+    private final LogsConfig logs;
+    private final long maxFileSize;
+    private final int maxRotatedFiles;
+    private final boolean gzip;
+    private final int queueCapacity;
+    private final LogOverflowPolicy overflowPolicy;
+
+    private LogCaptureConfig(Path directory, LogsConfig logs, long maxFileSize, int maxRotatedFiles, boolean gzip, int queueCapacity,
+            LogOverflowPolicy overflowPolicy) {
+
+        Validate.notNull(directory, "directory == null");
+        Validate.notNull(logs, "logs == null");
+        Validate.isTrue(maxFileSize > 0, "maxFileSize <= 0");
+        Validate.isTrue(maxRotatedFiles >= 0, "maxRotatedFiles < 0");
+        Validate.isTrue(queueCapacity > 0, "queueCapacity <= 0");
+        Validate.notNull(overflowPolicy, "overflowPolicy == null");
+        this.directory = directory;
+        this.logs = logs;
+        this.maxFileSize = maxFileSize;
+        this.maxRotatedFiles = maxRotatedFiles;
+        this.gzip = gzip;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public static LogCaptureConfig toDirectory(Path directory) {
+        return new LogCaptureConfig(directory, LogsConfig.defaults(), DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_ROTATED_FILES, false, DEFAULT_QUEUE_CAPACITY,
+                LogOverflowPolicy.BLOCK);
+    }
+
+    public LogCaptureConfig withLogs(LogsConfig logs) {
+        return new LogCaptureConfig(directory, logs, maxFileSize, maxRotatedFiles, gzip, queueCapacity, overflowPolicy);
+    }
+
+    public LogCaptureConfig withMaxFileSize(long maxFileSize) {
+        return new LogCaptureConfig(directory, logs, maxFileSize, maxRotatedFiles, gzip, queueCapacity, overflowPolicy);
+    }
+
+    public LogCaptureConfig withMaxRotatedFiles(int maxRotatedFiles) {
+        return new LogCaptureConfig(directory, logs, maxFileSize, maxRotatedFiles, gzip, queueCapacity, overflowPolicy);
+    }
+
+    public LogCaptureConfig withGzip(boolean gzip) {
+        return new LogCaptureConfig(directory, logs, maxFileSize, maxRotatedFiles, gzip, queueCapacity, overflowPolicy);
+    }
+
+    public LogCaptureConfig withQueueCapacity(int queueCapacity) {
+        return new LogCaptureConfig(directory, logs, maxFileSize, maxRotatedFiles, gzip, queueCapacity, overflowPolicy);
+    }
+
+    public LogCaptureConfig withOverflowPolicy(LogOverflowPolicy overflowPolicy) {
+        return new LogCaptureConfig(directory, logs, maxFileSize, maxRotatedFiles, gzip, queueCapacity, overflowPolicy);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public LogsConfig getLogs() {
+        return logs;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public int getMaxRotatedFiles() {
+        return maxRotatedFiles;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public LogOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+}
@@ -0,0 +1,15 @@
+package io.brachu.johann;
+
+import java.io.Closeable;
+import java.util.List;
+
+public interface LogFollower extends Closeable {
+
+    List<String> recentLines(String serviceName);
+
+    boolean isRunning();
+
+    @Override
+    void close();
+
+}
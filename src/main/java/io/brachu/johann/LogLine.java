@@ -0,0 +1,34 @@
+package io.brachu.johann;
+
+import java.time.Instant;
+
+public final class LogLine {
+
+    private final String serviceName;
+    private final String message;
+    private final Instant receivedAt;
+
+    public LogLine(String serviceName, String message, Instant receivedAt) {
+        this.serviceName = serviceName;
+        this.message = message;
+        this.receivedAt = receivedAt;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Instant getReceivedAt() {
+        return receivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return serviceName + " | " + message;
+    }
+
+}
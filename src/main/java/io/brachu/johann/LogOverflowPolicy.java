@@ -0,0 +1,8 @@
+package io.brachu.johann;
+
+public enum LogOverflowPolicy {
+
+    BLOCK,
+    DROP
+
+}
@@ -0,0 +1,11 @@
+package io.brachu.johann;
+
+import java.io.Closeable;
+
+@FunctionalInterface
+public interface LogSubscription extends Closeable {
+
+    @Override
+    void close();
+
+}
@@ -0,0 +1,133 @@
+package io.brachu.johann;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.Validate;
+
+public final class LogsConfig {
+
+    private static final LogsConfig DEFAULT_INSTANCE = new LogsConfig();
+    private static final int ALL_LINES = -1;
+    private static final int DEFAULT_BUFFER_SIZE = 1000;
+
+    private final String since;
+    private final String until;
+    private final int tail;
+    private final List<String> services;
+    private final boolean timestamps;
+    private final int bufferSize;
+
+    private LogsConfig() {
+        since = null;
+        until = null;
+        tail = ALL_LINES;
+        services = List.of();
+        timestamps = false;
+        bufferSize = DEFAULT_BUFFER_SIZE;
+    }
+
+    private LogsConfig(String since, String until, int tail, List<String> services, boolean timestamps, int bufferSize) {
+        Validate.isTrue(tail >= ALL_LINES, "tail < -1");
+        Validate.isTrue(bufferSize >= 0, "bufferSize < 0");
+        this.since = since;
+        this.until = until;
+        this.tail = tail;
+        this.services = List.copyOf(services);
+        this.timestamps = timestamps;
+        this.bufferSize = bufferSize;
+    }
+
+    public static LogsConfig defaults() {
+        return DEFAULT_INSTANCE;
+    }
+
+    public LogsConfig withSince(String since) {
+        Validate.notBlank(since, "since is null or blank");
+        return new LogsConfig(since, until, tail, services, timestamps, bufferSize);
+    }
+
+    public LogsConfig withSince(Instant since) {
+        return withSince(since.toString());
+    }
+
+    public LogsConfig withUntil(String until) {
+        Validate.notBlank(until, "until is null or blank");
+        return new LogsConfig(since, until, tail, services, timestamps, bufferSize);
+    }
+
+    public LogsConfig withUntil(Instant until) {
+        return withUntil(until.toString());
+    }
+
+    public LogsConfig withTail(int tail) {
+        return new LogsConfig(since, until, tail, services, timestamps, bufferSize);
+    }
+
+    public LogsConfig withServices(String... services) {
+        return new LogsConfig(since, until, tail, Arrays.asList(services), timestamps, bufferSize);
+    }
+
+    public LogsConfig withTimestamps(boolean timestamps) {
+        return new LogsConfig(since, until, tail, services, timestamps, bufferSize);
+    }
+
+    public LogsConfig withBufferSize(int bufferSize) {
+        return new LogsConfig(since, until, tail, services, timestamps, bufferSize);
+    }
+
+    public String getSince() {
+        return since;
+    }
+
+    public String getUntil() {
+        return until;
+    }
+
+    public int getTail() {
+        return tail;
+    }
+
+    public List<String> getServices() {
+        return services;
+    }
+
+    public boolean isTimestamps() {
+        return timestamps;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public String[] toCmd() {
+        List<String> cliString = new ArrayList<>();
+
+        if (since != null) {
+            cliString.add("--since");
+            cliString.add(since);
+        }
+
+        if (until != null) {
+            cliString.add("--until");
+            cliString.add(until);
+        }
+
+        if (tail != ALL_LINES) {
+            cliString.add("--tail");
+            cliString.add(String.valueOf(tail));
+        }
+
+        if (timestamps) {
+            cliString.add("--timestamps");
+        }
+
+        cliString.addAll(services);
+
+        return cliString.toArray(ArrayUtils.EMPTY_STRING_ARRAY);
+    }
+
+}
@@ -8,9 +8,9 @@ public class PortBinding {
     private final String port;
 
     public PortBinding(String binding) {
-        String[] split = binding.split(":", 2);
-        Validate.isTrue(split.length == 2, "Invalid port binding: %s", binding);
-        port = split[1];
+        int separator = binding.lastIndexOf(':');
+        Validate.isTrue(separator >= 0, "Invalid port binding: %s", binding);
+        port = binding.substring(separator + 1);
     }
 
     public static boolean isBound(String binding) {
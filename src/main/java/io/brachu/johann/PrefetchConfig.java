@@ -0,0 +1,47 @@
+package io.brachu.johann;
+
+import org.apache.commons.lang3.Validate;
+
+public final class PrefetchConfig {
+
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final ImagePullListener NOOP_LISTENER = progress -> {
+    };
+    private static final PrefetchConfig DEFAULT_INSTANCE = new PrefetchConfig();
+
+    private final int parallelism;
+    private final ImagePullListener listener;
+
+    private PrefetchConfig() {
+        parallelism = DEFAULT_PARALLELISM;
+        listener = NOOP_LISTENER;
+    }
+
+    private PrefetchConfig(int parallelism, ImagePullListener listener) {
+        Validate.isTrue(parallelism > 0, "parallelism must be positive");
+        Validate.notNull(listener, "listener == null");
+        this.parallelism = parallelism;
+        this.listener = listener;
+    }
+
+    public static PrefetchConfig defaults() {
+        return DEFAULT_INSTANCE;
+    }
+
+    public PrefetchConfig withParallelism(int parallelism) {
+        return new PrefetchConfig(parallelism, listener);
+    }
+
+    public PrefetchConfig withListener(ImagePullListener listener) {
+        return new PrefetchConfig(parallelism, listener);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public ImagePullListener getListener() {
+        return listener;
+    }
+
+}
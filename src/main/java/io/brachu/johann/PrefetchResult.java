@@ -0,0 +1,30 @@
+package io.brachu.johann;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PrefetchResult {
+
+    private final List<String> present;
+    private final Map<String, Long> pulled;
+
+    public PrefetchResult(List<String> present, Map<String, Long> pulled) {
+        this.present = List.copyOf(present);
+        this.pulled = Collections.unmodifiableMap(new LinkedHashMap<>(pulled));
+    }
+
+    public List<String> getPresent() {
+        return present;
+    }
+
+    public Map<String, Long> getPulled() {
+        return pulled;
+    }
+
+    public long getPulledBytes() {
+        return pulled.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+}
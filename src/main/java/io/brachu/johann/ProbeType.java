@@ -0,0 +1,10 @@
+package io.brachu.johann;
+
+public enum ProbeType {
+
+    TCP,
+    HTTP,
+    CUSTOM,
+    LOG
+
+}
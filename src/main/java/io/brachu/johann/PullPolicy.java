@@ -0,0 +1,21 @@
+package io.brachu.johann;
+
+public enum PullPolicy {
+
+    ALWAYS("always"),
+    MISSING("missing"),
+    NEVER("never"),
+    BUILD("build");
+
+    private final String policy;
+
+    PullPolicy(String policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public String toString() {
+        return policy;
+    }
+
+}
@@ -0,0 +1,114 @@
+package io.brachu.johann;
+
+import java.time.Duration;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.Validate;
+
+public final class ReadinessProbe {
+
+    private static final Duration DEFAULT_ATTEMPT_TIMEOUT = Duration.ofSeconds(1);
+    private static final IntPredicate SUCCESSFUL_STATUS = status -> status >= 200 && status < 400;
+
+    private final ProbeType type;
+    private final String serviceName;
+    private final int privatePort;
+    private final String path;
+    private final IntPredicate expectedStatus;
+    private final Predicate<ContainerPort> predicate;
+    private final Pattern logPattern;
+    private final Duration attemptTimeout;
+
+    private ReadinessProbe(ProbeType type, String serviceName, int privatePort, String path, IntPredicate expectedStatus, Predicate<ContainerPort> predicate,
+            Pattern logPattern, Duration attemptTimeout) {
+
+        Validate.notBlank(serviceName, "serviceName is null or blank");
+        Validate.isTrue(type == ProbeType.LOG || privatePort > 0, "privatePort must be positive");
+        Validate.notNull(expectedStatus, "expectedStatus == null");
+        Validate.isTrue(attemptTimeout != null && !attemptTimeout.isNegative() && !attemptTimeout.isZero(), "attemptTimeout must be positive");
+        this.type = type;
+        this.serviceName = serviceName;
+        this.privatePort = privatePort;
+        this.path = path;
+        this.expectedStatus = expectedStatus;
+        this.predicate = predicate;
+        this.logPattern = logPattern;
+        this.attemptTimeout = attemptTimeout;
+    }
+
+    public static ReadinessProbe tcp(String serviceName, int privatePort) {
+        return new ReadinessProbe(ProbeType.TCP, serviceName, privatePort, null, SUCCESSFUL_STATUS, null, null, DEFAULT_ATTEMPT_TIMEOUT);
+    }
+
+    public static ReadinessProbe http(String serviceName, int privatePort, String path) {
+        Validate.isTrue(path != null && path.startsWith("/"), "path must start with '/'");
+        return new ReadinessProbe(ProbeType.HTTP, serviceName, privatePort, path, SUCCESSFUL_STATUS, null, null, DEFAULT_ATTEMPT_TIMEOUT);
+    }
+
+    public static ReadinessProbe custom(String serviceName, int privatePort, Predicate<ContainerPort> predicate) {
+        Validate.notNull(predicate, "predicate == null");
+        return new ReadinessProbe(ProbeType.CUSTOM, serviceName, privatePort, null, SUCCESSFUL_STATUS, predicate, null, DEFAULT_ATTEMPT_TIMEOUT);
+    }
+
+    public static ReadinessProbe log(String serviceName, Pattern logPattern) {
+        Validate.notNull(logPattern, "logPattern == null");
+        return new ReadinessProbe(ProbeType.LOG, serviceName, 0, null, SUCCESSFUL_STATUS, null, logPattern, DEFAULT_ATTEMPT_TIMEOUT);
+    }
+
+    public ReadinessProbe withExpectedStatus(int status) {
+        return withExpectedStatus(actual -> actual == status);
+    }
+
+    public ReadinessProbe withExpectedStatus(IntPredicate expectedStatus) {
+        Validate.validState(type == ProbeType.HTTP, "Expected status can only be set for HTTP probes");
+        return new ReadinessProbe(type, serviceName, privatePort, path, expectedStatus, predicate, logPattern, attemptTimeout);
+    }
+
+    public ReadinessProbe withAttemptTimeout(Duration attemptTimeout) {
+        return new ReadinessProbe(type, serviceName, privatePort, path, expectedStatus, predicate, logPattern, attemptTimeout);
+    }
+
+    public ProbeType getType() {
+        return type;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public int getPrivatePort() {
+        return privatePort;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isExpectedStatus(int status) {
+        return expectedStatus.test(status);
+    }
+
+    public boolean test(ContainerPort port) {
+        Validate.validState(type == ProbeType.CUSTOM, "Only custom probes can be tested directly");
+        return predicate.test(port);
+    }
+
+    public Pattern getLogPattern() {
+        return logPattern;
+    }
+
+    public Duration getAttemptTimeout() {
+        return attemptTimeout;
+    }
+
+    @Override
+    public String toString() {
+        if (type == ProbeType.LOG) {
+            return type + " probe of " + serviceName + " matching '" + logPattern + "'";
+        }
+        return type + " probe of " + serviceName + ":" + privatePort + (path != null ? path : "");
+    }
+
+}
@@ -0,0 +1,64 @@
+package io.brachu.johann;
+
+import java.util.Map;
+
+import io.brachu.johann.exception.DockerComposeException;
+
+public class ServiceEndpoints {
+
+    private final String serviceName;
+    private final ContainerId containerId;
+    private final Map<String, ContainerPort> ports;
+    private final Map<String, String> ips;
+
+    public ServiceEndpoints(String serviceName, ContainerId containerId, Map<String, ContainerPort> ports, Map<String, String> ips) {
+        this.serviceName = serviceName;
+        this.containerId = containerId;
+        this.ports = Map.copyOf(ports);
+        this.ips = Map.copyOf(ips);
+    }
+
+    public static String portKey(Protocol protocol, int privatePort) {
+        return privatePort + "/" + protocol;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public ContainerId getContainerId() {
+        return containerId;
+    }
+
+    public Map<String, ContainerPort> getPorts() {
+        return ports;
+    }
+
+    public Map<String, String> getIps() {
+        return ips;
+    }
+
+    public ContainerPort port(int privatePort) {
+        return port(Protocol.TCP, privatePort);
+    }
+
+    public ContainerPort port(Protocol protocol, int privatePort) {
+        ContainerPort port = ports.get(portKey(protocol, privatePort));
+        if (port != null) {
+            return port;
+        } else {
+            throw new DockerComposeException("No host port is bound to '" + serviceName + "' container's " + privatePort + " " + protocol + " port.");
+        }
+    }
+
+    public String ip(String networkName) {
+        String ip = ips.get(networkName);
+        if (ip != null) {
+            return ip;
+        } else {
+            throw new DockerComposeException("Service " + serviceName + " is not bound to " + networkName + " network. "
+                    + "Have you provided a correct network name?");
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package io.brachu.johann;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import io.brachu.johann.exception.DockerComposeException;
+
+public class ServiceStatus {
+
+    private final String serviceName;
+    private final List<ContainerStatus> containers;
+
+    public ServiceStatus(String serviceName, List<ContainerStatus> containers) {
+        this.serviceName = serviceName;
+        this.containers = List.copyOf(containers);
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public List<ContainerStatus> getContainers() {
+        return containers;
+    }
+
+    public List<ContainerId> containerIds() {
+        return containers.stream().map(ContainerStatus::getContainerId).collect(Collectors.toList());
+    }
+
+    public boolean isHealthyOrRunning() {
+        return containers.stream().allMatch(ContainerStatus::isHealthyOrRunning);
+    }
+
+    public ContainerPort port(int privatePort) {
+        return port(Protocol.TCP, privatePort);
+    }
+
+    public ContainerPort port(Protocol protocol, int privatePort) {
+        String key = ServiceEndpoints.portKey(protocol, privatePort);
+        return containers.stream()
+                .map(container -> container.getPorts().get(key))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElseThrow(() -> new DockerComposeException("No host port is bound to '" + serviceName + "' container's " + privatePort + " " + protocol
+                        + " port."));
+    }
+
+}
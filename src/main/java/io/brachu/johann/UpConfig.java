@@ -1,22 +1,54 @@
 package io.brachu.johann;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.Validate;
 
 public final class UpConfig {
 
     private static final UpConfig DEFAULT_INSTANCE = new UpConfig();
 
     private final boolean forceBuild;
+    private final boolean noBuild;
+    private final boolean noRecreate;
+    private final boolean noDeps;
+    private final boolean quietPull;
+    private final PullPolicy pullPolicy;
+    private final boolean wait;
+    private final int waitTimeoutSeconds;
+    private final Map<String, Integer> scale;
 
     private UpConfig() {
         forceBuild = false;
+        noBuild = false;
+        noRecreate = false;
+        noDeps = false;
+        quietPull = false;
+        pullPolicy = null;
+        wait = false;
+        waitTimeoutSeconds = 0;
+        scale = Map.of();
     }
 
-    private UpConfig(boolean forceBuild) {
+    private UpConfig(boolean forceBuild, boolean noBuild, boolean noRecreate, boolean noDeps, boolean quietPull, PullPolicy pullPolicy, boolean wait,
+            int waitTimeoutSeconds, Map<String, Integer> scale) {
+
+        Validate.isTrue(!(forceBuild && noBuild), "forceBuild and noBuild cannot be used together");
+        Validate.isTrue(waitTimeoutSeconds >= 0, "waitTimeoutSeconds < 0");
         this.forceBuild = forceBuild;
+        this.noBuild = noBuild;
+        this.noRecreate = noRecreate;
+        this.noDeps = noDeps;
+        this.quietPull = quietPull;
+        this.pullPolicy = pullPolicy;
+        this.wait = wait;
+        this.waitTimeoutSeconds = waitTimeoutSeconds;
+        this.scale = Collections.unmodifiableMap(scale);
     }
 
     public static UpConfig defaults() {
@@ -24,7 +56,53 @@ public final class UpConfig {
     }
 
     public UpConfig withForceBuild(boolean forceBuild) {
-        return new UpConfig(forceBuild);
+        return new UpConfig(forceBuild, noBuild, noRecreate, noDeps, quietPull, pullPolicy, wait, waitTimeoutSeconds, scale);
+    }
+
+    public UpConfig withNoBuild(boolean noBuild) {
+        return new UpConfig(forceBuild, noBuild, noRecreate, noDeps, quietPull, pullPolicy, wait, waitTimeoutSeconds, scale);
+    }
+
+    public UpConfig withNoRecreate(boolean noRecreate) {
+        return new UpConfig(forceBuild, noBuild, noRecreate, noDeps, quietPull, pullPolicy, wait, waitTimeoutSeconds, scale);
+    }
+
+    public UpConfig withNoDeps(boolean noDeps) {
+        return new UpConfig(forceBuild, noBuild, noRecreate, noDeps, quietPull, pullPolicy, wait, waitTimeoutSeconds, scale);
+    }
+
+    public UpConfig withQuietPull(boolean quietPull) {
+        return new UpConfig(forceBuild, noBuild, noRecreate, noDeps, quietPull, pullPolicy, wait, waitTimeoutSeconds, scale);
+    }
+
+    public UpConfig withPullPolicy(PullPolicy pullPolicy) {
+        Validate.notNull(pullPolicy, "pullPolicy == null");
+        return new UpConfig(forceBuild, noBuild, noRecreate, noDeps, quietPull, pullPolicy, wait, waitTimeoutSeconds, scale);
+    }
+
+    public UpConfig withWait(boolean wait) {
+        return new UpConfig(forceBuild, noBuild, noRecreate, noDeps, quietPull, pullPolicy, wait, wait ? waitTimeoutSeconds : 0, scale);
+    }
+
+    public UpConfig withWaitTimeoutSeconds(int waitTimeoutSeconds) {
+        Validate.isTrue(waitTimeoutSeconds > 0, "waitTimeoutSeconds <= 0");
+        return new UpConfig(forceBuild, noBuild, noRecreate, noDeps, quietPull, pullPolicy, true, waitTimeoutSeconds, scale);
+    }
+
+    public UpConfig withScale(String serviceName, int replicas) {
+        Validate.notBlank(serviceName, "serviceName is null or blank");
+        Validate.isTrue(replicas >= 0, "replicas < 0");
+        Map<String, Integer> newScale = new LinkedHashMap<>(scale);
+        newScale.put(serviceName, replicas);
+        return new UpConfig(forceBuild, noBuild, noRecreate, noDeps, quietPull, pullPolicy, wait, waitTimeoutSeconds, newScale);
+    }
+
+    public boolean isWait() {
+        return wait;
+    }
+
+    public Map<String, Integer> getScale() {
+        return scale;
     }
 
     public String[] toCmd() {
@@ -34,6 +112,41 @@ public final class UpConfig {
             cliString.add("--build");
         }
 
+        if (noBuild) {
+            cliString.add("--no-build");
+        }
+
+        if (noRecreate) {
+            cliString.add("--no-recreate");
+        }
+
+        if (noDeps) {
+            cliString.add("--no-deps");
+        }
+
+        if (quietPull) {
+            cliString.add("--quiet-pull");
+        }
+
+        if (pullPolicy != null) {
+            cliString.add("--pull");
+            cliString.add(pullPolicy.toString());
+        }
+
+        if (wait) {
+            cliString.add("--wait");
+        }
+
+        if (waitTimeoutSeconds > 0) {
+            cliString.add("--wait-timeout");
+            cliString.add(String.valueOf(waitTimeoutSeconds));
+        }
+
+        scale.forEach((serviceName, replicas) -> {
+            cliString.add("--scale");
+            cliString.add(serviceName + "=" + replicas);
+        });
+
         return cliString.toArray(ArrayUtils.EMPTY_STRING_ARRAY);
     }
 
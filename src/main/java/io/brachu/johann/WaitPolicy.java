@@ -0,0 +1,97 @@
+package io.brachu.johann;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+
+public final class WaitPolicy {
+
+    private static final Duration DEFAULT_INITIAL_INTERVAL = Duration.ofMillis(10);
+    private static final double DEFAULT_MULTIPLIER = 2.0;
+    private static final double DEFAULT_JITTER = 0.2;
+    private static final Duration DEFAULT_MAX_INTERVAL = Duration.ofSeconds(1);
+
+    private final long time;
+    private final TimeUnit unit;
+    private final Duration initialInterval;
+    private final double multiplier;
+    private final double jitter;
+    private final Duration maxInterval;
+
+    private WaitPolicy(long time, TimeUnit unit, Duration initialInterval, double multiplier, double jitter, Duration maxInterval) {
+        Validate.isTrue(time > 0, "Time to wait must be positive");
+        Validate.notNull(unit, "unit == null");
+        Validate.isTrue(initialInterval != null && !initialInterval.isNegative() && !initialInterval.isZero(), "initialInterval must be positive");
+        Validate.isTrue(multiplier >= 1.0, "multiplier < 1");
+        Validate.isTrue(jitter >= 0.0 && jitter < 1.0, "jitter must be within [0, 1)");
+        Validate.isTrue(maxInterval != null && maxInterval.compareTo(initialInterval) >= 0, "maxInterval must not be shorter than initialInterval");
+        this.time = time;
+        this.unit = unit;
+        this.initialInterval = initialInterval;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.maxInterval = maxInterval;
+    }
+
+    public static WaitPolicy within(long time, TimeUnit unit) {
+        return new WaitPolicy(time, unit, DEFAULT_INITIAL_INTERVAL, DEFAULT_MULTIPLIER, DEFAULT_JITTER, DEFAULT_MAX_INTERVAL);
+    }
+
+    public static WaitPolicy within(Duration timeout) {
+        return within(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public WaitPolicy withTimeout(long time, TimeUnit unit) {
+        return new WaitPolicy(time, unit, initialInterval, multiplier, jitter, maxInterval);
+    }
+
+    public WaitPolicy withInitialInterval(Duration initialInterval) {
+        return new WaitPolicy(time, unit, initialInterval, multiplier, jitter, maxInterval);
+    }
+
+    public WaitPolicy withMultiplier(double multiplier) {
+        return new WaitPolicy(time, unit, initialInterval, multiplier, jitter, maxInterval);
+    }
+
+    public WaitPolicy withJitter(double jitter) {
+        return new WaitPolicy(time, unit, initialInterval, multiplier, jitter, maxInterval);
+    }
+
+    public WaitPolicy withMaxInterval(Duration maxInterval) {
+        return new WaitPolicy(time, unit, initialInterval, multiplier, jitter, maxInterval);
+    }
+
+    public WaitPolicy withFixedInterval(Duration interval) {
+        return new WaitPolicy(time, unit, interval, 1.0, 0.0, interval);
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public TimeUnit getUnit() {
+        return unit;
+    }
+
+    public long getTimeoutNanos() {
+        return unit.toNanos(time);
+    }
+
+    public Duration getInitialInterval() {
+        return initialInterval;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public Duration getMaxInterval() {
+        return maxInterval;
+    }
+
+}
@@ -0,0 +1,138 @@
+package io.brachu.johann.cli;
+
+import java.io.Closeable;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.brachu.johann.AsyncDockerCompose;
+import io.brachu.johann.DownConfig;
+import io.brachu.johann.PrefetchConfig;
+import io.brachu.johann.PrefetchResult;
+import io.brachu.johann.UpConfig;
+import io.brachu.johann.executor.ComposeExecutor;
+import org.apache.commons.lang3.Validate;
+
+final class AsyncDockerComposeCli implements AsyncDockerCompose, Closeable {
+
+    private static final String REUSE_CHECK_THREAD_NAME = "johann-reuse-check";
+
+    private final ComposeExecutor composeExecutor;
+    private final BiConsumer<Instant, String[]> onStateChange;
+    private final Consumer<String> serviceValidator;
+    private final BooleanSupplier reusable;
+    private final Function<UpConfig, CompletableFuture<Void>> upper;
+    private final boolean reuseMode;
+    private final Function<PrefetchConfig, CompletableFuture<PrefetchResult>> prefetcher;
+    private final ExecutorService reuseCheckExecutor;
+
+    AsyncDockerComposeCli(ComposeExecutor composeExecutor, BiConsumer<Instant, String[]> onStateChange, Consumer<String> serviceValidator,
+            BooleanSupplier reusable, Function<UpConfig, CompletableFuture<Void>> upper, boolean reuseMode,
+            Function<PrefetchConfig, CompletableFuture<PrefetchResult>> prefetcher) {
+        this.composeExecutor = composeExecutor;
+        this.onStateChange = onStateChange;
+        this.serviceValidator = serviceValidator;
+        this.reusable = reusable;
+        this.upper = upper;
+        this.reuseMode = reuseMode;
+        this.prefetcher = prefetcher;
+        reuseCheckExecutor = reuseMode ? JohannExecutors.newBoundedExecutor(REUSE_CHECK_THREAD_NAME, 1) : null;
+    }
+
+    @Override
+    public CompletableFuture<Void> up() {
+        return up(UpConfig.defaults());
+    }
+
+    @Override
+    public CompletableFuture<Void> up(UpConfig config) {
+        if (!reuseMode) {
+            return upper.apply(config);
+        }
+        CompletableFuture<Void> up = new CompletableFuture<>();
+        CompletableFuture<Boolean> reuse = CompletableFuture.supplyAsync(reusable::getAsBoolean, reuseCheckExecutor);
+        reuse.whenComplete((reused, ex) -> {
+            if (ex != null) {
+                up.completeExceptionally(unwrap(ex));
+            } else if (reused) {
+                up.complete(null);
+            } else if (!up.isDone()) {
+                CompletableFuture<Void> execution = upper.apply(config);
+                Futures.propagateCancellation(execution, up);
+                execution.whenComplete((result, upEx) -> {
+                    if (upEx != null) {
+                        up.completeExceptionally(unwrap(upEx));
+                    } else {
+                        up.complete(null);
+                    }
+                });
+            }
+        });
+        return Futures.propagateCancellation(reuse, up);
+    }
+
+    @Override
+    public CompletableFuture<Void> pull() {
+        return composeExecutor.pullAsync();
+    }
+
+    @Override
+    public CompletableFuture<PrefetchResult> prefetch() {
+        return prefetch(PrefetchConfig.defaults());
+    }
+
+    @Override
+    public CompletableFuture<PrefetchResult> prefetch(PrefetchConfig config) {
+        Validate.notNull(config, "config == null");
+        return prefetcher.apply(config);
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAll() {
+        Instant changedAt = Instant.now();
+        return changingState(changedAt, composeExecutor.stopAllAsync());
+    }
+
+    @Override
+    public CompletableFuture<Void> stop(String... serviceNames) {
+        Arrays.stream(serviceNames).forEach(serviceValidator);
+        Instant changedAt = Instant.now();
+        return changingState(changedAt, composeExecutor.stopAsync(serviceNames), serviceNames);
+    }
+
+    @Override
+    public CompletableFuture<Void> down() {
+        return down(DownConfig.defaults());
+    }
+
+    @Override
+    public CompletableFuture<Void> down(DownConfig config) {
+        if (reuseMode && !config.isForce()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Instant changedAt = Instant.now();
+        return changingState(changedAt, composeExecutor.downAsync(config));
+    }
+
+    @Override
+    public void close() {
+        if (reuseCheckExecutor != null) {
+            reuseCheckExecutor.shutdown();
+        }
+    }
+
+    private CompletableFuture<Void> changingState(Instant changedAt, CompletableFuture<Void> execution, String... serviceNames) {
+        return Futures.propagateCancellation(execution, execution.whenComplete((result, ex) -> onStateChange.accept(changedAt, serviceNames)));
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+}
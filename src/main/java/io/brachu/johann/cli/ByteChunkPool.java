@@ -0,0 +1,45 @@
+package io.brachu.johann.cli;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.Validate;
+
+final class ByteChunkPool {
+
+    static final ByteChunkPool SHARED = new ByteChunkPool(8 * 1024, 64);
+
+    private final int chunkSize;
+    private final int maxPooledChunks;
+
+    private final Queue<byte[]> chunks;
+    private final AtomicInteger pooledChunks;
+
+    ByteChunkPool(int chunkSize, int maxPooledChunks) {
+        Validate.isTrue(chunkSize > 0, "chunkSize <= 0");
+        Validate.isTrue(maxPooledChunks >= 0, "maxPooledChunks < 0");
+        this.chunkSize = chunkSize;
+        this.maxPooledChunks = maxPooledChunks;
+        chunks = new ConcurrentLinkedQueue<>();
+        pooledChunks = new AtomicInteger();
+    }
+
+    byte[] acquire() {
+        byte[] chunk = chunks.poll();
+        if (chunk != null) {
+            pooledChunks.decrementAndGet();
+            return chunk;
+        }
+        return new byte[chunkSize];
+    }
+
+    void release(byte[] chunk) {
+        if (chunk.length == chunkSize && pooledChunks.incrementAndGet() <= maxPooledChunks) {
+            chunks.offer(chunk);
+        } else if (chunk.length == chunkSize) {
+            pooledChunks.decrementAndGet();
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package io.brachu.johann.cli;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import io.brachu.johann.LogFollower;
+import io.brachu.johann.LogLine;
+import io.brachu.johann.executor.LogStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class CliLogFollower implements LogFollower {
+
+    private static final Logger log = LoggerFactory.getLogger(CliLogFollower.class);
+
+    private static final long FLUSH_TIMEOUT_SECONDS = 30;
+
+    private final LogStream stream;
+    private final LogStore store;
+    private final CompletableFuture<Void> flushed;
+
+    CliLogFollower(LogStream stream, LogStore store) {
+        this(stream, store, CompletableFuture.completedFuture(null));
+    }
+
+    CliLogFollower(LogStream stream, LogStore store, CompletableFuture<Void> flushed) {
+        this.stream = stream;
+        this.store = store;
+        this.flushed = flushed;
+    }
+
+    @Override
+    public List<String> recentLines(String serviceName) {
+        return store.recent(serviceName).stream().map(LogLine::getMessage).collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream.isAlive();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+        awaitFlush();
+    }
+
+    private void awaitFlush() {
+        try {
+            flushed.get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            log.warn("Captured logs have not been fully flushed to disk", ex);
+        }
+    }
+
+}
@@ -2,13 +2,19 @@ package io.brachu.johann.cli;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import io.brachu.johann.cli.exception.NonZeroExitCodeException;
+import io.brachu.johann.metrics.CommandEvent;
+import io.brachu.johann.metrics.JohannMetrics;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,7 +26,8 @@ final class CliRunner {
     private File workDir;
     private Map<String, String> env;
 
-    private ProcessOutputSinkFactory outputSinkFactory = process -> {
+    private ProcessOutputTransfer outputTransfer;
+    private ProcessOutputSinkFactory outputSinkFactory = (process, transfer) -> {
         throw new IllegalStateException("ProcessOutputSinkFactory has not been set");
     };
     private Consumer<Process> onProcessStart = process -> {
@@ -29,6 +36,9 @@ final class CliRunner {
     private ProcessWaitStrategy waitStrategy = process -> {
         throw new IllegalStateException("Process wait strategy has not been set");
     };
+    private JohannMetrics metrics = JohannMetrics.NOOP;
+    private String projectName;
+    private String commandName;
 
     CliRunner(String[] cmd) {
         this.cmd = cmd;
@@ -45,6 +55,11 @@ final class CliRunner {
         return this;
     }
 
+    CliRunner outputTransfer(ProcessOutputTransfer outputTransfer) {
+        this.outputTransfer = outputTransfer;
+        return this;
+    }
+
     CliRunner outputSinkFactory(ProcessOutputSinkFactory outputSinkFactory) {
         this.outputSinkFactory = outputSinkFactory;
         return this;
@@ -60,24 +75,56 @@ final class CliRunner {
         return this;
     }
 
+    CliRunner metrics(JohannMetrics metrics, String projectName, String commandName) {
+        this.metrics = metrics;
+        this.projectName = projectName;
+        this.commandName = commandName;
+        return this;
+    }
+
     String exec() throws InterruptedException, IOException, NonZeroExitCodeException, TimeoutException {
-        log(cmd, env);
+        long start = System.nanoTime();
         Process process = startProcess();
-        ProcessOutputSink outputSink = outputSinkFactory.create(process);
+        ProcessOutputSink outputSink = startOutputTransfer(process);
         onProcessStart.accept(process);
 
+        int exitCode = CommandEvent.NO_EXIT_CODE;
         try {
-            return waitForProcess(process, outputSink);
+            exitCode = waitStrategy.waitFor(process);
+            return result(exitCode, outputSink);
         } catch (InterruptedException | TimeoutException ex) {
             process.destroy();
             throw ex;
+        } finally {
+            recordCommand(start, exitCode, outputSink);
         }
     }
 
-    private String waitForProcess(Process process, ProcessOutputSink outputSink)
-            throws InterruptedException, IOException, NonZeroExitCodeException, TimeoutException {
+    CompletableFuture<String> execAsync() throws IOException {
+        long start = System.nanoTime();
+        Process process = startProcess();
+        ProcessOutputSink outputSink = startOutputTransfer(process);
+        onProcessStart.accept(process);
+
+        CompletableFuture<String> result = process.onExit()
+                .thenCombine(outputSink.transferred(), (exited, transferred) -> exited.exitValue())
+                .thenApply(exitCode -> {
+                    try {
+                        return result(exitCode, outputSink);
+                    } catch (IOException | NonZeroExitCodeException ex) {
+                        throw new CompletionException(ex);
+                    }
+                });
+        result.whenComplete((output, ex) -> {
+            if (result.isCancelled()) {
+                destroyProcessTree(process);
+            }
+            recordCommand(start, process.isAlive() ? CommandEvent.NO_EXIT_CODE : process.exitValue(), outputSink);
+        });
+        return result;
+    }
 
-        int exitCode = waitStrategy.waitFor(process);
+    private String result(int exitCode, ProcessOutputSink outputSink) throws IOException, NonZeroExitCodeException {
         if (exitCode == 0) {
             return outputSink.standardOutput();
         } else {
@@ -86,7 +133,34 @@ final class CliRunner {
         }
     }
 
+    private void recordCommand(long start, int exitCode, ProcessOutputSink outputSink) {
+        if (commandName != null) {
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            metrics.commandExecuted(new CommandEvent(projectName, commandName, duration, exitCode, outputSink.outputBytes()));
+        }
+    }
+
+    private ProcessOutputSink startOutputTransfer(Process process) {
+        ProcessOutputSink outputSink;
+        try {
+            outputSink = outputSinkFactory.create(process, outputTransfer);
+        } catch (RuntimeException ex) {
+            destroyProcessTree(process);
+            throw ex;
+        }
+        metrics.outputTransferStarted(outputTransfer.activeTransfers());
+        return outputSink;
+    }
+
+    private void destroyProcessTree(Process process) {
+        log.debug("Destroying process tree of cancelled command: {}", String.join(" ", cmd));
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+    }
+
     private Process startProcess() throws IOException {
+        log(cmd, env);
+        Validate.validState(outputTransfer != null, "ProcessOutputTransfer has not been set");
         ProcessBuilder bp = new ProcessBuilder(cmd);
         bp.directory(workDir);
         bp.environment().putAll(env);
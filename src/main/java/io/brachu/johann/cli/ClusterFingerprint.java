@@ -0,0 +1,65 @@
+package io.brachu.johann.cli;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.exception.DockerComposeException;
+
+final class ClusterFingerprint {
+
+    static final String LABEL = "io.brachu.johann.fingerprint";
+
+    private static final int HASH_LENGTH = 16;
+
+    private final String hash;
+
+    private ClusterFingerprint(String hash) {
+        this.hash = hash;
+    }
+
+    static ClusterFingerprint of(String composeFileContent, Map<String, String> env) {
+        StringBuilder content = new StringBuilder(composeFileContent).append('\n');
+        new TreeMap<>(env).forEach((key, value) -> content.append(key).append('=').append(value).append('\n'));
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; hex.length() < HASH_LENGTH; ++i) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return new ClusterFingerprint(hex.toString());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new DockerComposeException("Unable to compute fingerprint of compose cluster.", ex);
+        }
+    }
+
+    String hash() {
+        return hash;
+    }
+
+    String projectName() {
+        return "johann-" + hash;
+    }
+
+    boolean isStampedOn(ClusterStatus status, Collection<String> serviceNames) {
+        return status.isUp()
+                && status.getServices().keySet().containsAll(serviceNames)
+                && status.getContainers().stream().allMatch(container -> hash.equals(container.getLabels().get(LABEL)));
+    }
+
+    String labelOverride(Collection<String> serviceNames) {
+        StringBuilder override = new StringBuilder("services:\n");
+        for (String serviceName : serviceNames) {
+            override.append("  ").append(serviceName).append(":\n")
+                    .append("    labels:\n")
+                    .append("      ").append(LABEL).append(": \"").append(hash).append("\"\n");
+        }
+        return override.toString();
+    }
+
+}
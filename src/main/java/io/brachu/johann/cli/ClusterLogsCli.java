@@ -0,0 +1,211 @@
+package io.brachu.johann.cli;
+
+import java.io.Closeable;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import io.brachu.johann.ClusterLogs;
+import io.brachu.johann.LogLine;
+import io.brachu.johann.LogSubscription;
+import io.brachu.johann.LogsConfig;
+import io.brachu.johann.exception.DockerComposeException;
+import io.brachu.johann.exception.JohannTimeoutException;
+import io.brachu.johann.executor.ComposeExecutor;
+import io.brachu.johann.executor.LogListener;
+import io.brachu.johann.executor.LogStream;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class ClusterLogsCli implements ClusterLogs, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterLogsCli.class);
+
+    private static final long HISTORY_TIMEOUT_SECONDS = 10;
+
+    private final ComposeExecutor composeExecutor;
+    private final LogLineParser parser;
+    private final LogStore store;
+
+    private final Map<String, LogStream> followers;
+    private final Map<String, Instant> lastLoggedAt;
+    private final Map<String, Instant> resetAt;
+    private final Map<String, Long> generations;
+
+    private Instant since;
+
+    ClusterLogsCli(ComposeExecutor composeExecutor, String projectName) {
+        this.composeExecutor = composeExecutor;
+        parser = new LogLineParser(projectName);
+        store = new LogStore(LogsConfig.defaults().getBufferSize());
+        followers = new HashMap<>();
+        lastLoggedAt = new ConcurrentHashMap<>();
+        resetAt = new HashMap<>();
+        generations = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public LogSubscription subscribe(String serviceName, Consumer<LogLine> subscriber) {
+        Validate.notNull(subscriber, "subscriber == null");
+        LogSubscription subscription = store.subscribe(serviceName, subscriber);
+        ensureFollowing(serviceName);
+        return subscription;
+    }
+
+    @Override
+    public List<LogLine> recent(String serviceName) {
+        ensureFollowing(serviceName);
+        return store.recent(serviceName);
+    }
+
+    @Override
+    public List<LogLine> grep(String serviceName, Pattern pattern) {
+        return recent(serviceName).stream().filter(line -> pattern.matcher(line.getMessage()).find()).collect(Collectors.toList());
+    }
+
+    @Override
+    public CompletableFuture<LogLine> match(String serviceName, Pattern pattern) {
+        Validate.notNull(pattern, "pattern == null");
+        CompletableFuture<LogLine> match = new CompletableFuture<>();
+        LogSubscription subscription = subscribe(serviceName, line -> {
+            if (!match.isDone() && pattern.matcher(line.getMessage()).find()) {
+                match.complete(line);
+            }
+        });
+        match.whenComplete((line, ex) -> subscription.close());
+        if (!match.isDone()) {
+            grep(serviceName, pattern).stream().findFirst().ifPresent(match::complete);
+        }
+        return match;
+    }
+
+    @Override
+    public LogLine await(String serviceName, Pattern pattern, long time, TimeUnit unit) {
+        CompletableFuture<LogLine> match = match(serviceName, pattern);
+        try {
+            return match.get(time, unit);
+        } catch (TimeoutException ex) {
+            throw new JohannTimeoutException("Timed out while waiting for '" + pattern + "' in logs of " + serviceName + " service.", time, unit, ex);
+        } catch (ExecutionException ex) {
+            throw new DockerComposeException("Unexpected exception while waiting for '" + pattern + "' in logs of " + serviceName + " service.",
+                    ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while waiting for '" + pattern + "' in logs of " + serviceName + " service.", ex);
+        } finally {
+            match.cancel(false);
+        }
+    }
+
+    synchronized void reset(Instant changedAt, String... serviceNames) {
+        Set<String> affected = new HashSet<>(Arrays.asList(serviceNames));
+        if (affected.isEmpty()) {
+            since = changedAt;
+            resetAt.clear();
+            affected.addAll(followers.keySet());
+            affected.addAll(lastLoggedAt.keySet());
+            store.clear();
+        } else {
+            affected.forEach(serviceName -> resetAt.put(serviceName, changedAt));
+        }
+
+        for (String serviceName : affected) {
+            LogStream follower = followers.remove(serviceName);
+            if (follower != null) {
+                follower.close();
+            }
+            lastLoggedAt.remove(serviceName);
+            generations.merge(serviceName, 1L, Long::sum);
+            store.clear(serviceName);
+        }
+
+        store.subscribedServices().stream().filter(affected::contains).forEach(this::ensureFollowing);
+    }
+
+    @Override
+    public synchronized void close() {
+        followers.values().forEach(LogStream::close);
+        followers.clear();
+    }
+
+    private synchronized void ensureFollowing(String serviceName) {
+        LogStream follower = followers.get(serviceName);
+        if (follower == null) {
+            // lines printed so far are read up front, so that the first recent or grep call on a service does not come back empty
+            readHistory(serviceName);
+        }
+        if (follower == null || !follower.isAlive()) {
+            followers.put(serviceName, composeExecutor.followLogs(logsConfig(serviceName), follower(serviceName)));
+        }
+    }
+
+    private void readHistory(String serviceName) {
+        LogStream history = composeExecutor.followLogs(logsConfig(serviceName).withUntil(Instant.now()), follower(serviceName));
+        try {
+            history.finished().get(HISTORY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException | ExecutionException ex) {
+            log.warn("Unable to read logs of " + serviceName + " service printed so far, following them from now on", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while reading logs of " + serviceName + " service.", ex);
+        } finally {
+            history.close();
+        }
+    }
+
+    private LogsConfig logsConfig(String serviceName) {
+        Instant followSince = followSince(serviceName);
+        LogsConfig config = LogsConfig.defaults().withServices(serviceName).withTimestamps(true);
+        return followSince != null ? config.withSince(followSince) : config;
+    }
+
+    private Instant followSince(String serviceName) {
+        // timestamps printed by the daemon are used rather than the local clock, so a restarted follower neither skips nor repeats lines
+        Instant lastLogged = lastLoggedAt.get(serviceName);
+        return lastLogged != null ? lastLogged.plusNanos(1) : resetAt.getOrDefault(serviceName, since);
+    }
+
+    private LogListener follower(String serviceName) {
+        long followerGeneration = generations.getOrDefault(serviceName, 0L);
+        return new LogListener() {
+
+            @Override
+            public void onLine(String line) {
+                accept(serviceName, followerGeneration, line);
+            }
+
+            @Override
+            public void onErrorLine(String line) {
+            }
+
+        };
+    }
+
+    private void accept(String serviceName, long followerGeneration, String line) {
+        if (followerGeneration != generations.getOrDefault(serviceName, 0L)) {
+            return;
+        }
+        int separatorIndex = parser.separatorIndex(line);
+        String message = parser.message(line, separatorIndex);
+        Instant loggedAt = parser.timestamp(message);
+        if (loggedAt != null) {
+            lastLoggedAt.put(serviceName, loggedAt);
+            message = parser.withoutTimestamp(message);
+        }
+        store.accept(new LogLine(parser.serviceName(line, separatorIndex), message, Instant.now()));
+    }
+
+}
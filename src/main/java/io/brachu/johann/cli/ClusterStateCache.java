@@ -0,0 +1,79 @@
+package io.brachu.johann.cli;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.executor.ComposeExecutor;
+
+final class ClusterStateCache {
+
+    private final ComposeExecutor composeExecutor;
+    private final long ttlNanos;
+
+    private final Map<String, Entry<List<ContainerId>>> services;
+    private Entry<List<ContainerId>> cluster;
+    private Entry<ClusterStatus> status;
+
+    ClusterStateCache(ComposeExecutor composeExecutor, long ttlNanos) {
+        this.composeExecutor = composeExecutor;
+        this.ttlNanos = ttlNanos;
+        services = new HashMap<>();
+    }
+
+    synchronized ClusterStatus status() {
+        if (!isFresh(status)) {
+            status = new Entry<>(composeExecutor.status());
+        }
+        return status.value;
+    }
+
+    synchronized List<ContainerId> containerIds() {
+        if (composeExecutor.supportsStatus()) {
+            return status().containerIds();
+        }
+
+        if (!isFresh(cluster)) {
+            cluster = new Entry<>(List.copyOf(composeExecutor.ps()));
+        }
+        return cluster.value;
+    }
+
+    synchronized List<ContainerId> containerIds(String serviceName) {
+        if (composeExecutor.supportsStatus()) {
+            return status().service(serviceName).containerIds();
+        }
+
+        Entry<List<ContainerId>> entry = services.get(serviceName);
+        if (!isFresh(entry)) {
+            entry = new Entry<>(List.copyOf(composeExecutor.ps(serviceName)));
+            services.put(serviceName, entry);
+        }
+        return entry.value;
+    }
+
+    synchronized void invalidate() {
+        cluster = null;
+        status = null;
+        services.clear();
+    }
+
+    private boolean isFresh(Entry<?> entry) {
+        return entry != null && System.nanoTime() - entry.loadedAt < ttlNanos;
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+        private final long loadedAt;
+
+        private Entry(T value) {
+            this.value = value;
+            loadedAt = System.nanoTime();
+        }
+
+    }
+
+}
@@ -0,0 +1,12 @@
+package io.brachu.johann.cli;
+
+final class ComposeLabels {
+
+    static final String PROJECT = "com.docker.compose.project";
+    static final String SERVICE = "com.docker.compose.service";
+    static final String ONE_OFF = "com.docker.compose.oneoff";
+
+    private ComposeLabels() {
+    }
+
+}
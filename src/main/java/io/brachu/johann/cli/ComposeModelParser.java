@@ -0,0 +1,98 @@
+package io.brachu.johann.cli;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.brachu.johann.ComposeModel;
+import io.brachu.johann.ComposePort;
+import io.brachu.johann.ComposeService;
+import io.brachu.johann.Protocol;
+import io.brachu.johann.exception.DockerComposeException;
+
+final class ComposeModelParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ComposeModelParser() {
+    }
+
+    static ComposeModel parse(String projectName, String output) {
+        try {
+            JsonNode root = MAPPER.readTree(output);
+            List<ComposeService> services = new ArrayList<>();
+            Iterator<Map.Entry<String, JsonNode>> entries = root.path("services").fields();
+            while (entries.hasNext()) {
+                Map.Entry<String, JsonNode> entry = entries.next();
+                services.add(toService(entry.getKey(), entry.getValue()));
+            }
+            return new ComposeModel(projectName, services, toNames(root.path("networks")), toNames(root.path("volumes")));
+        } catch (IOException | RuntimeException ex) {
+            throw new DockerComposeException("Unable to parse JSON output of docker-compose config command.", ex);
+        }
+    }
+
+    private static ComposeService toService(String name, JsonNode node) {
+        JsonNode healthcheck = node.path("healthcheck");
+        boolean hasHealthcheck = healthcheck.isObject() && !healthcheck.path("disable").asBoolean() && !isNoneTest(healthcheck.path("test"));
+        return new ComposeService(
+                name,
+                node.path("image").asText(null),
+                node.has("build"),
+                toPorts(node.path("ports")),
+                hasHealthcheck,
+                toDependsOn(node.path("depends_on")),
+                toKeys(node.path("networks")),
+                node.path("deploy").path("replicas").asInt(node.path("scale").asInt(1)));
+    }
+
+    private static boolean isNoneTest(JsonNode test) {
+        return test.isArray() && test.size() > 0 && "NONE".equals(test.get(0).asText());
+    }
+
+    private static List<ComposePort> toPorts(JsonNode ports) {
+        List<ComposePort> result = new ArrayList<>();
+        for (JsonNode port : ports) {
+            Protocol protocol = "udp".equalsIgnoreCase(port.path("protocol").asText("tcp")) ? Protocol.UDP : Protocol.TCP;
+            result.add(new ComposePort(port.path("target").asInt(), port.path("published").asInt(0), protocol));
+        }
+        return result;
+    }
+
+    private static Map<String, String> toDependsOn(JsonNode dependsOn) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (dependsOn.isArray()) {
+            dependsOn.forEach(service -> result.put(service.asText(), "service_started"));
+        } else {
+            dependsOn.fields().forEachRemaining(entry -> result.put(entry.getKey(), entry.getValue().path("condition").asText("service_started")));
+        }
+        return result;
+    }
+
+    private static List<String> toKeys(JsonNode node) {
+        List<String> keys = new ArrayList<>();
+        if (node.isArray()) {
+            node.forEach(key -> keys.add(key.asText()));
+        } else {
+            node.fieldNames().forEachRemaining(keys::add);
+        }
+        return keys;
+    }
+
+    private static Map<String, String> toNames(JsonNode node) {
+        Map<String, String> names = new LinkedHashMap<>();
+        node.fields().forEachRemaining(entry -> {
+            String name = entry.getValue().path("name").asText(null);
+            if (name != null) {
+                names.put(entry.getKey(), name);
+            }
+        });
+        return names;
+    }
+
+}
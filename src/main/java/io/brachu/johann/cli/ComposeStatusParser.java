@@ -0,0 +1,93 @@
+package io.brachu.johann.cli;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.ContainerPort;
+import io.brachu.johann.ContainerStatus;
+import io.brachu.johann.PortBinding;
+import io.brachu.johann.exception.DockerComposeException;
+import org.apache.commons.lang3.StringUtils;
+
+final class ComposeStatusParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final URI dockerHost;
+
+    ComposeStatusParser(URI dockerHost) {
+        this.dockerHost = dockerHost;
+    }
+
+    ClusterStatus parse(String output) {
+        List<ContainerStatus> containers = new ArrayList<>();
+
+        try (MappingIterator<JsonNode> nodes = MAPPER.readerFor(JsonNode.class).readValues(output)) {
+            while (nodes.hasNext()) {
+                JsonNode node = nodes.next();
+                if (node.isArray()) {
+                    node.forEach(container -> containers.add(toContainerStatus(container)));
+                } else if (node.isObject()) {
+                    containers.add(toContainerStatus(node));
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            throw new DockerComposeException("Unable to parse JSON output of docker-compose ps command.", ex);
+        }
+
+        return new ClusterStatus(containers);
+    }
+
+    private ContainerStatus toContainerStatus(JsonNode node) {
+        return new ContainerStatus(
+                new ContainerId(node.path("ID").asText()),
+                node.path("Name").asText(),
+                node.path("Service").asText(),
+                node.path("State").asText(),
+                node.path("Health").asText(),
+                node.path("ExitCode").asInt(),
+                toPorts(node.path("Publishers")),
+                toLabels(node.path("Labels").asText()));
+    }
+
+    private Map<String, String> toLabels(String labels) {
+        Map<String, String> result = new HashMap<>();
+        for (String label : StringUtils.split(labels, ',')) {
+            int separator = label.indexOf('=');
+            if (separator > 0) {
+                result.put(label.substring(0, separator), label.substring(separator + 1));
+            }
+        }
+        return result;
+    }
+
+    private Map<String, ContainerPort> toPorts(JsonNode publishers) {
+        Map<String, ContainerPort> ports = new HashMap<>();
+
+        for (JsonNode publisher : publishers) {
+            int publishedPort = publisher.path("PublishedPort").asInt();
+            if (publishedPort > 0) {
+                String url = publisher.path("URL").asText();
+                String key = publisher.path("TargetPort").asInt() + "/" + publisher.path("Protocol").asText("tcp");
+                ContainerPort port = new ContainerPort(dockerHost, new PortBinding(url + ":" + publishedPort));
+                if (!url.contains(":")) {
+                    ports.put(key, port);
+                } else {
+                    ports.putIfAbsent(key, port);
+                }
+            }
+        }
+
+        return ports;
+    }
+
+}
@@ -0,0 +1,44 @@
+package io.brachu.johann.cli;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class ComposeVersion {
+
+    private static final Pattern VERSION_PATTERN = Pattern.compile("v?(\\d+)\\.(\\d+)(?:\\.(\\d+))?.*");
+    private static final ComposeVersion UNKNOWN = new ComposeVersion(0, 0, 0);
+
+    private final int major;
+    private final int minor;
+    private final int patch;
+
+    private ComposeVersion(int major, int minor, int patch) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+    }
+
+    static ComposeVersion parse(String version) {
+        Matcher matcher = VERSION_PATTERN.matcher(version.trim());
+        if (matcher.matches()) {
+            int patch = matcher.group(3) != null ? Integer.parseInt(matcher.group(3)) : 0;
+            return new ComposeVersion(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), patch);
+        } else {
+            return UNKNOWN;
+        }
+    }
+
+    boolean supportsJsonFormat() {
+        return major >= 2;
+    }
+
+    boolean supportsWait() {
+        return major > 2 || major == 2 && (minor > 1 || minor == 1 && patch >= 1);
+    }
+
+    @Override
+    public String toString() {
+        return major + "." + minor + "." + patch;
+    }
+
+}
@@ -0,0 +1,120 @@
+package io.brachu.johann.cli;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import com.github.dockerjava.api.command.HealthState;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.exception.DockerComposeException;
+import io.brachu.johann.metrics.JohannMetrics;
+
+final class ContainerInspector implements Closeable {
+
+    private static final String THREAD_NAME = "johann-container-inspector";
+
+    private final DockerClientLease dockerClient;
+    private final ExecutorService executor;
+    private final JohannMetrics metrics;
+
+    ContainerInspector(DockerClientLease dockerClient, int parallelism, JohannMetrics metrics) {
+        this.dockerClient = dockerClient;
+        this.metrics = metrics;
+        executor = JohannExecutors.newBoundedExecutor(THREAD_NAME, parallelism);
+    }
+
+    InspectContainerResponse inspect(ContainerId containerId) {
+        long start = System.nanoTime();
+        try {
+            return dockerClient.get().inspectContainerCmd(containerId.toString()).exec();
+        } finally {
+            metrics.containerInspected(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    boolean allMatch(List<ContainerId> containerIds, Predicate<InspectContainerResponse> predicate) {
+        if (containerIds.size() == 1) {
+            return predicate.test(inspect(containerIds.get(0)));
+        }
+
+        CompletionService<Boolean> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Boolean>> futures = new ArrayList<>(containerIds.size());
+
+        try {
+            for (ContainerId containerId : containerIds) {
+                futures.add(completion.submit(() -> predicate.test(inspect(containerId))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                if (!completion.take().get()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (CancellationException ex) {
+            throw new DockerComposeException("Container inspection has been cancelled because the inspector has been closed.", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while inspecting containers.", ex);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    Map<ContainerId, InspectContainerResponse> inspectAll(List<ContainerId> containerIds) {
+        Map<ContainerId, Future<InspectContainerResponse>> futures = new LinkedHashMap<>();
+        Map<ContainerId, InspectContainerResponse> responses = new LinkedHashMap<>();
+
+        try {
+            for (ContainerId containerId : containerIds) {
+                futures.put(containerId, executor.submit(() -> inspect(containerId)));
+            }
+            for (Map.Entry<ContainerId, Future<InspectContainerResponse>> entry : futures.entrySet()) {
+                responses.put(entry.getKey(), entry.getValue().get());
+            }
+            return responses;
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (CancellationException ex) {
+            throw new DockerComposeException("Container inspection has been cancelled because the inspector has been closed.", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while inspecting containers.", ex);
+        } finally {
+            futures.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    public void close() {
+        JohannExecutors.shutdownNow(executor);
+    }
+
+    static boolean healthyOrRunning(InspectContainerResponse response) {
+        String status = response.getState().getStatus();
+        HealthState health = response.getState().getHealth();
+        String healthStatus = health != null ? health.getStatus() : "unsupported";
+        return "running".equals(status) && ("healthy".equals(healthStatus) || "unsupported".equals(healthStatus));
+    }
+
+    private RuntimeException unwrap(ExecutionException ex) {
+        if (ex.getCause() instanceof RuntimeException) {
+            return (RuntimeException) ex.getCause();
+        } else {
+            return new DockerComposeException("Unexpected exception while inspecting containers.", ex.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,268 @@
+package io.brachu.johann.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.HealthState;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.api.model.EventType;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.exception.DockerClientException;
+import io.brachu.johann.exception.DockerComposeException;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class ContainerReadinessWatcher implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ContainerReadinessWatcher.class);
+
+    private static final String[] WATCHED_EVENTS = { "start", "die", "health_status" };
+    private static final int MAX_CONSECUTIVE_SUBSCRIPTION_FAILURES = 3;
+
+    private final DockerClient dockerClient;
+    private final ContainerInspector inspector;
+    private final String projectName;
+    private final Map<String, ContainerReadiness> containers;
+    private final CompletableFuture<Void> ready;
+
+    private Closeable subscription;
+    private int consecutiveFailures;
+    private boolean closed;
+
+    private ContainerReadinessWatcher(DockerClient dockerClient, ContainerInspector inspector, String projectName, List<ContainerId> containerIds) {
+        this.dockerClient = dockerClient;
+        this.inspector = inspector;
+        this.projectName = projectName;
+        containers = new HashMap<>();
+        containerIds.forEach(id -> containers.put(id.toString(), new ContainerReadiness()));
+        ready = new CompletableFuture<>();
+        ready.whenComplete((result, ex) -> close());
+    }
+
+    static ContainerReadinessWatcher watch(DockerClient dockerClient, ContainerInspector inspector, String projectName, List<ContainerId> containerIds) {
+        ContainerReadinessWatcher watcher = new ContainerReadinessWatcher(dockerClient, inspector, projectName, containerIds);
+        if (containerIds.isEmpty()) {
+            watcher.ready.complete(null);
+        } else {
+            watcher.subscribe();
+        }
+        return watcher;
+    }
+
+    CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    @Override
+    public void close() {
+        Closeable current;
+        synchronized (this) {
+            closed = true;
+            current = subscription;
+            subscription = null;
+        }
+        closeQuietly(current);
+    }
+
+    private void subscribe() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+
+        try {
+            dockerClient.eventsCmd()
+                    .withLabelFilter(Map.of(ComposeLabels.PROJECT, projectName.toLowerCase()))
+                    .withEventTypeFilter(EventType.CONTAINER)
+                    .withEventFilter(WATCHED_EVENTS)
+                    .exec(new Subscription());
+        } catch (RuntimeException ex) {
+            onSubscriptionFailure(ex);
+        }
+    }
+
+    private void onSubscriptionStarted(Closeable stream) {
+        boolean alreadyClosed;
+        synchronized (this) {
+            alreadyClosed = closed;
+            if (!closed) {
+                subscription = stream;
+                consecutiveFailures = 0;
+            }
+        }
+
+        if (alreadyClosed) {
+            closeQuietly(stream);
+        } else {
+            snapshot();
+        }
+    }
+
+    private void onSubscriptionFailure(Throwable ex) {
+        boolean resubscribe;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            subscription = null;
+            resubscribe = ++consecutiveFailures < MAX_CONSECUTIVE_SUBSCRIPTION_FAILURES;
+        }
+
+        if (resubscribe) {
+            log.debug("Docker events stream of project {} broke, resubscribing: {}", projectName, ex.getMessage());
+            subscribe();
+        } else {
+            ready.completeExceptionally(new DockerClientException("Unable to subscribe to docker events of project " + projectName + ".", ex));
+        }
+    }
+
+    private void snapshot() {
+        Map<String, Long> versions = new HashMap<>();
+        synchronized (this) {
+            containers.forEach((id, readiness) -> versions.put(id, readiness.version));
+        }
+
+        Map<ContainerId, InspectContainerResponse> responses;
+        try {
+            responses = inspector.inspectAll(versions.keySet().stream().map(ContainerId::new).collect(Collectors.toList()));
+        } catch (RuntimeException ex) {
+            ready.completeExceptionally(new DockerComposeException("Unable to inspect containers of project " + projectName + ".", ex));
+            return;
+        }
+
+        synchronized (this) {
+            responses.forEach((id, response) -> {
+                ContainerReadiness readiness = containers.get(id.toString());
+                if (readiness.version == versions.get(id.toString())) {
+                    readiness.apply(response);
+                }
+            });
+        }
+
+        evaluate();
+    }
+
+    private void onEvent(Event event) {
+        String id = event.getActor() != null ? event.getActor().getId() : event.getId();
+        String action = StringUtils.defaultString(event.getAction(), event.getStatus());
+
+        synchronized (this) {
+            ContainerReadiness readiness = containers.get(id);
+            if (readiness == null) {
+                return;
+            }
+            readiness.apply(action);
+        }
+
+        evaluate();
+    }
+
+    private void evaluate() {
+        String deadContainer = null;
+        boolean allReady = true;
+
+        synchronized (this) {
+            for (Map.Entry<String, ContainerReadiness> entry : containers.entrySet()) {
+                ContainerReadiness readiness = entry.getValue();
+                if (readiness.dead) {
+                    deadContainer = entry.getKey();
+                    break;
+                }
+                allReady &= readiness.isReady();
+            }
+        }
+
+        if (deadContainer != null) {
+            ready.completeExceptionally(new DockerComposeException("Container with id " + deadContainer + " died while waiting for it to be healthy."));
+        } else if (allReady) {
+            ready.complete(null);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ex) {
+                log.debug("Unable to close docker events stream", ex);
+            }
+        }
+    }
+
+    private static final class ContainerReadiness {
+
+        private long version;
+        private boolean running;
+        private boolean dead;
+        private String health;
+
+        private void apply(InspectContainerResponse response) {
+            InspectContainerResponse.ContainerState state = response.getState();
+            HealthState healthState = state.getHealth();
+            running = "running".equals(state.getStatus());
+            dead = "exited".equals(state.getStatus()) || "dead".equals(state.getStatus());
+            health = healthState != null ? healthState.getStatus() : null;
+        }
+
+        private void apply(String action) {
+            version++;
+            if ("start".equals(action)) {
+                running = true;
+                dead = false;
+            } else if ("die".equals(action)) {
+                running = false;
+                dead = true;
+            } else if (StringUtils.startsWith(action, "health_status:")) {
+                health = action.substring("health_status:".length()).trim();
+            }
+        }
+
+        private boolean isReady() {
+            return running && (health == null || "healthy".equals(health));
+        }
+
+    }
+
+    private final class Subscription implements ResultCallback<Event> {
+
+        private volatile Closeable stream;
+
+        @Override
+        public void onStart(Closeable stream) {
+            this.stream = stream;
+            onSubscriptionStarted(stream);
+        }
+
+        @Override
+        public void onNext(Event event) {
+            onEvent(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            onSubscriptionFailure(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            onSubscriptionFailure(new IllegalStateException("Docker events stream has ended unexpectedly."));
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(stream);
+        }
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package io.brachu.johann.cli;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.github.dockerjava.api.DockerClient;
+import org.apache.commons.lang3.Validate;
+
+final class DockerClientLease implements Closeable {
+
+    private final DockerClientRegistry registry;
+    private final SharedDockerClient client;
+    private final AtomicBoolean released;
+
+    DockerClientLease(DockerClientRegistry registry, SharedDockerClient client) {
+        this.registry = registry;
+        this.client = client;
+        released = new AtomicBoolean();
+    }
+
+    DockerClient get() {
+        Validate.validState(!released.get(), "Docker client lease has already been released");
+        return client.get();
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            registry.release(client);
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package io.brachu.johann.cli;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.core.DefaultDockerClientConfig;
+import com.github.dockerjava.core.DockerClientConfig;
+import com.github.dockerjava.core.DockerClientImpl;
+import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import com.github.dockerjava.transport.DockerHttpClient;
+import com.github.dockerjava.transport.SSLConfig;
+import io.brachu.johann.DockerApiConfig;
+
+final class DockerClientRegistry {
+
+    private static final DockerClientRegistry SHARED = new DockerClientRegistry();
+
+    private final Map<Key, SharedDockerClient> clients;
+
+    DockerClientRegistry() {
+        clients = new HashMap<>();
+    }
+
+    static DockerClientRegistry shared() {
+        return SHARED;
+    }
+
+    static DockerClientConfig defaultConfig() {
+        return DefaultDockerClientConfig.createDefaultConfigBuilder().build();
+    }
+
+    synchronized DockerClientLease acquire(DockerClientConfig config, DockerApiConfig apiConfig) {
+        Key key = new Key(config, apiConfig);
+        SharedDockerClient client = clients.computeIfAbsent(key, ignored -> new SharedDockerClient(config, apiConfig));
+        client.retain();
+        return new DockerClientLease(this, client);
+    }
+
+    synchronized int size() {
+        return clients.size();
+    }
+
+    synchronized void release(SharedDockerClient client) {
+        if (client.release()) {
+            clients.values().remove(client);
+            client.close();
+        }
+    }
+
+    static DockerClient create(DockerClientConfig config, DockerApiConfig apiConfig) {
+        DockerHttpClient httpClient = new ApacheDockerHttpClient.Builder()
+                .dockerHost(config.getDockerHost())
+                .sslConfig(config.getSSLConfig())
+                .maxConnections(apiConfig.getMaxConnections())
+                .connectionTimeout(apiConfig.getConnectTimeout())
+                .responseTimeout(apiConfig.getResponseTimeout())
+                .build();
+        return DockerClientImpl.getInstance(config, httpClient);
+    }
+
+    private static final class Key {
+
+        private final URI dockerHost;
+        private final SSLConfig sslConfig;
+        private final long connectTimeoutNanos;
+        private final long responseTimeoutNanos;
+        private final int maxConnections;
+
+        private Key(DockerClientConfig config, DockerApiConfig apiConfig) {
+            dockerHost = config.getDockerHost();
+            sslConfig = config.getSSLConfig();
+            connectTimeoutNanos = apiConfig.getConnectTimeout().toNanos();
+            responseTimeoutNanos = apiConfig.getResponseTimeout().toNanos();
+            maxConnections = apiConfig.getMaxConnections();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            Key key = (Key) other;
+            return connectTimeoutNanos == key.connectTimeoutNanos
+                    && responseTimeoutNanos == key.responseTimeoutNanos
+                    && maxConnections == key.maxConnections
+                    && Objects.equals(dockerHost, key.dockerHost)
+                    && Objects.equals(sslConfig, key.sslConfig);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dockerHost, sslConfig, connectTimeoutNanos, responseTimeoutNanos, maxConnections);
+        }
+
+    }
+
+}
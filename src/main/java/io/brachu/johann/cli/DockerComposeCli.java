@@ -1,35 +1,50 @@
 package io.brachu.johann.cli;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-
-import com.github.dockerjava.api.DockerClient;
-import com.github.dockerjava.api.command.HealthState;
-import com.github.dockerjava.api.command.InspectContainerResponse;
-import com.github.dockerjava.api.model.ContainerNetwork;
-import com.github.dockerjava.core.DefaultDockerClientConfig;
-import com.github.dockerjava.core.DockerClientConfig;
-import com.github.dockerjava.core.DockerClientImpl;
-import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
-import com.github.dockerjava.transport.DockerHttpClient;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import io.brachu.johann.AsyncDockerCompose;
+import io.brachu.johann.ClusterLogs;
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.ComposeModel;
+import io.brachu.johann.ComposeService;
 import io.brachu.johann.ContainerId;
 import io.brachu.johann.ContainerPort;
 import io.brachu.johann.DockerCompose;
 import io.brachu.johann.DownConfig;
-import io.brachu.johann.PortBinding;
+import io.brachu.johann.LogCaptureConfig;
+import io.brachu.johann.LogFollower;
+import io.brachu.johann.LogLine;
+import io.brachu.johann.LogsConfig;
+import io.brachu.johann.PrefetchConfig;
+import io.brachu.johann.PrefetchResult;
+import io.brachu.johann.ProbeType;
 import io.brachu.johann.Protocol;
+import io.brachu.johann.ReadinessProbe;
+import io.brachu.johann.ServiceEndpoints;
 import io.brachu.johann.UpConfig;
+import io.brachu.johann.WaitPolicy;
+import io.brachu.johann.exception.DockerClientException;
 import io.brachu.johann.exception.DockerComposeException;
 import io.brachu.johann.exception.JohannTimeoutException;
-import io.brachu.johann.project.ProjectNameProvider;
+import io.brachu.johann.executor.ComposeExecutor;
+import io.brachu.johann.executor.LogStream;
+import io.brachu.johann.metrics.JohannMetrics;
 import org.apache.commons.lang3.Validate;
-import org.awaitility.Awaitility;
-import org.awaitility.core.ConditionTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,15 +53,35 @@ public class DockerComposeCli implements DockerCompose {
     private static final Logger log = LoggerFactory.getLogger(DockerComposeCli.class);
 
     private final String projectName;
-    private final DockerComposeCliExecutor composeExecutor;
-    private final DockerClientConfig dockerClientConfig;
-    private final DockerClient dockerClient;
-
-    DockerComposeCli(String executablePath, File file, File workDir, ProjectNameProvider projectNameProvider, Map<String, String> env) {
-        projectName = projectNameProvider.provide();
-        composeExecutor = new DockerComposeCliExecutor(executablePath, file, workDir, projectName, env);
-        dockerClientConfig = createDockerClientConfig();
-        dockerClient = createDockerClient(dockerClientConfig);
+    private final ComposeExecutor composeExecutor;
+    private final ClusterStateCache clusterState;
+    private final Map<String, ServiceEndpoints> endpoints;
+    private final AsyncDockerComposeCli async;
+    private final ClusterFingerprint fingerprint;
+    private final ClusterLogsCli logs;
+    private final JohannMetrics metrics;
+    private final List<ReadinessProbe> probes;
+    private final ProbeSelector probeSelector;
+    private final ImagePrefetcher imagePrefetcher;
+
+    private volatile ComposeModel model;
+    private volatile boolean modelUnavailable;
+    private volatile boolean clusterWaited;
+
+    DockerComposeCli(ComposeExecutor composeExecutor, long clusterStateTtlNanos, ClusterFingerprint fingerprint, JohannMetrics metrics,
+            List<ReadinessProbe> probes) {
+        this.composeExecutor = composeExecutor;
+        this.fingerprint = fingerprint;
+        this.metrics = GuardedMetrics.guard(metrics);
+        projectName = composeExecutor.getProjectName();
+        clusterState = new ClusterStateCache(composeExecutor, clusterStateTtlNanos);
+        endpoints = new ConcurrentHashMap<>();
+        logs = new ClusterLogsCli(composeExecutor, projectName);
+        imagePrefetcher = new ImagePrefetcher(composeExecutor);
+        async = new AsyncDockerComposeCli(composeExecutor, this::invalidateState, this::validateService, this::isReusable, this::upAsync, fingerprint != null,
+                this::prefetchAsync);
+        this.probes = List.copyOf(probes);
+        probeSelector = probes.stream().anyMatch(probe -> probe.getType() != ProbeType.LOG) ? new ProbeSelector() : null;
     }
 
     @Override
@@ -56,10 +91,22 @@ public class DockerComposeCli implements DockerCompose {
 
     @Override
     public void up(UpConfig config) {
+        if (isReusable()) {
+            log.info("Reusing running cluster {} with fingerprint {}.", projectName, fingerprint.hash());
+            return;
+        }
         if (isUp()) {
             log.info("Executing 'up' command for a cluster that is already up.");
         }
-        composeExecutor.up(config);
+        UpConfig effectiveConfig = supportedUpConfig(config);
+        Instant changedAt = Instant.now();
+        boolean succeeded = false;
+        try {
+            composeExecutor.up(effectiveConfig);
+            succeeded = true;
+        } finally {
+            upCompleted(effectiveConfig, changedAt, succeeded);
+        }
     }
 
     @Override
@@ -69,10 +116,48 @@ public class DockerComposeCli implements DockerCompose {
 
     @Override
     public void down(DownConfig config) {
+        if (fingerprint != null && !config.isForce()) {
+            log.info("Leaving reusable cluster {} running. Use DownConfig.withForce() to shut it down.", projectName);
+            return;
+        }
         if (!isUp()) {
             log.info("Executing 'down' command for a cluster that is already down.");
         }
-        composeExecutor.down(config);
+        Instant changedAt = Instant.now();
+        try {
+            composeExecutor.down(config);
+        } finally {
+            invalidateState(changedAt);
+        }
+    }
+
+    @Override
+    public void pull() {
+        composeExecutor.pull();
+    }
+
+    @Override
+    public PrefetchResult prefetch() {
+        return prefetch(PrefetchConfig.defaults());
+    }
+
+    @Override
+    public PrefetchResult prefetch(PrefetchConfig config) {
+        Validate.notNull(config, "config == null");
+
+        CompletableFuture<PrefetchResult> prefetch = prefetchAsync(config);
+        try {
+            return prefetch.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new DockerComposeException("Unexpected exception while prefetching images.", ex.getCause());
+        } catch (InterruptedException ex) {
+            prefetch.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while prefetching images.", ex);
+        }
     }
 
     @Override
@@ -80,40 +165,61 @@ public class DockerComposeCli implements DockerCompose {
         if (!isUp()) {
             log.info("Executing 'kill' command for a cluster that is already down.");
         }
-        composeExecutor.kill();
+        Instant changedAt = Instant.now();
+        try {
+            composeExecutor.kill();
+        } finally {
+            invalidateState(changedAt);
+        }
     }
 
     @Override
     public boolean isUp() {
-        return !composeExecutor.ps().isEmpty();
+        return !clusterState.containerIds().isEmpty();
+    }
+
+    @Override
+    public void refresh() {
+        invalidateClusterState();
+        clusterState.containerIds();
     }
 
     @Override
     public String containerIp(String serviceName) {
-        return containerIp(serviceName, projectName.toLowerCase() + "_default");
+        ComposeModel composeModel = modelIfAvailable();
+        String networkName = composeModel != null ? composeModel.defaultNetworkName() : projectName.toLowerCase() + "_default";
+        return containerIp(serviceName, networkName);
     }
 
     @Override
     public String containerIp(String serviceName, String networkName) {
+        return endpoints(serviceName).ip(networkName);
+    }
+
+    @Override
+    public Map<String, ContainerPort> ports(String serviceName) {
+        return endpoints(serviceName).getPorts();
+    }
+
+    @Override
+    public ServiceEndpoints endpoints(String serviceName) {
+        validateService(serviceName);
         Validate.isTrue(isUp(), "Cluster is not up");
         List<ContainerId> containerIds = ps(serviceName);
         Validate.isTrue(!containerIds.isEmpty(), serviceName + " service is not present in the cluster");
+        return resolve(containerIds.get(0));
+    }
 
-        ContainerId containerId = containerIds.get(0);
-        InspectContainerResponse response = dockerClient.inspectContainerCmd(containerId.toString()).exec();
-        Map<String, ContainerNetwork> networks = response.getNetworkSettings().getNetworks();
-
-        if (networks != null) {
-            ContainerNetwork network = networks.get(networkName);
-            if (network != null) {
-                return network.getIpAddress();
-            } else {
-                throw new DockerComposeException("Service " + serviceName + "is not bound to " + networkName + " network. "
-                        + "Have you provided a correct network name?");
+    @Override
+    public Map<String, ServiceEndpoints> endpoints() {
+        Map<String, ServiceEndpoints> endpoints = new LinkedHashMap<>();
+        for (ContainerId containerId : ps()) {
+            ServiceEndpoints serviceEndpoints = resolve(containerId);
+            if (serviceEndpoints.getServiceName() != null) {
+                endpoints.putIfAbsent(serviceEndpoints.getServiceName(), serviceEndpoints);
             }
-        } else {
-            throw new DockerComposeException("Unexpected lack of networks for container with id " + containerId + ".");
         }
+        return endpoints;
     }
 
     @Override
@@ -123,42 +229,73 @@ public class DockerComposeCli implements DockerCompose {
 
     @Override
     public ContainerPort port(String serviceName, Protocol protocol, int privatePort) {
+        validateService(serviceName);
         Validate.isTrue(isUp(), "Cluster is not up");
-        PortBinding binding = composeExecutor.binding(serviceName, protocol, privatePort);
-        return new ContainerPort(dockerClientConfig.getDockerHost(), binding);
+        if (composeExecutor.supportsStatus()) {
+            return clusterState.status().service(serviceName).port(protocol, privatePort);
+        } else {
+            return composeExecutor.port(serviceName, protocol, privatePort);
+        }
+    }
+
+    @Override
+    public ClusterStatus status() {
+        if (composeExecutor.supportsStatus()) {
+            return clusterState.status();
+        } else {
+            return composeExecutor.status();
+        }
+    }
+
+    @Override
+    public ComposeModel model() {
+        if (model == null) {
+            synchronized (this) {
+                if (model == null) {
+                    model = composeExecutor.model();
+                }
+            }
+        }
+        return model;
     }
 
     @Override
     public List<ContainerId> ps() {
         Validate.isTrue(isUp(), "Cluster is not up");
-        return composeExecutor.ps();
+        return clusterState.containerIds();
     }
 
     @Override
     public List<ContainerId> ps(String serviceName) {
+        validateService(serviceName);
         Validate.isTrue(isUp(), "Cluster is not up");
-        return composeExecutor.ps(serviceName);
+        return clusterState.containerIds(serviceName);
     }
 
     @Override
     public void waitForCluster(long time, TimeUnit unit) {
+        waitForCluster(WaitPolicy.within(time, unit));
+    }
+
+    @Override
+    public void waitForCluster(WaitPolicy policy) {
         Validate.isTrue(isUp(), "Cluster is not up");
-        Validate.isTrue(unit.ordinal() >= TimeUnit.SECONDS.ordinal(), "Time unit cannot be smaller than SECONDS");
-        Validate.isTrue(time > 0, "Time to wait must be positive");
+        Validate.notNull(policy, "policy == null");
 
+        probes.forEach(probe -> validateService(probe.getServiceName()));
+        logWaitPlan();
         log.debug("Waiting for cluster to be healthy");
 
+        if (clusterWaited) {
+            log.debug("Containers have already been waited for by 'up --wait', skipping readiness polling");
+        }
+
         try {
-            Awaitility.await()
-                    .pollInterval(500, TimeUnit.MILLISECONDS)
-                    .atMost(time, unit)
-                    .until(this::containersHealthyOrRunning);
-        } catch (ConditionTimeoutException ex) {
-            down();
-            throw new JohannTimeoutException("Timed out while waiting for cluster to be healthy.", time, unit, ex);
-        } catch (Exception ex) {
-            down();
-            throw new DockerComposeException("Unexpected exception while waiting for cluster to be healthy.", ex);
+            List<ContainerId> containerIds = clusterWaited ? List.of() : ps();
+            awaitReadiness(containerIds, this::containersHealthyOrRunning, probes, policy, "cluster");
+        } catch (RuntimeException ex) {
+            down(DownConfig.defaults().withForce());
+            throw ex;
         }
 
         log.debug("Cluster appears to be healthy");
@@ -167,115 +304,387 @@ public class DockerComposeCli implements DockerCompose {
     @Override
     public void startAll() {
         Validate.isTrue(isUp(), "Cluster is not up");
-        composeExecutor.startAll();
+        Instant changedAt = Instant.now();
+        try {
+            composeExecutor.startAll();
+        } finally {
+            invalidateState(changedAt);
+        }
     }
 
     @Override
     public void start(String serviceName) {
+        validateService(serviceName);
         Validate.isTrue(isUp(), "Cluster is not up");
-        composeExecutor.start(serviceName);
+        Instant changedAt = Instant.now();
+        try {
+            composeExecutor.start(serviceName);
+        } finally {
+            invalidateState(changedAt, serviceName);
+        }
     }
 
     @Override
     public void start(String... serviceNames) {
+        Arrays.stream(serviceNames).forEach(this::validateService);
         Validate.isTrue(isUp(), "Cluster is not up");
-        composeExecutor.start(serviceNames);
+        Instant changedAt = Instant.now();
+        try {
+            composeExecutor.start(serviceNames);
+        } finally {
+            invalidateState(changedAt, serviceNames);
+        }
     }
 
     @Override
     public void stopAll() {
         Validate.isTrue(isUp(), "Cluster is not up");
-        composeExecutor.stopAll();
+        Instant changedAt = Instant.now();
+        try {
+            composeExecutor.stopAll();
+        } finally {
+            invalidateState(changedAt);
+        }
     }
 
     @Override
     public void stop(String serviceName) {
+        validateService(serviceName);
         Validate.isTrue(isUp(), "Cluster is not up");
-        composeExecutor.stop(serviceName);
+        Instant changedAt = Instant.now();
+        try {
+            composeExecutor.stop(serviceName);
+        } finally {
+            invalidateState(changedAt, serviceName);
+        }
     }
 
     @Override
     public void stop(String... serviceNames) {
+        Arrays.stream(serviceNames).forEach(this::validateService);
         Validate.isTrue(isUp(), "Cluster is not up");
-        composeExecutor.stop(serviceNames);
+        Instant changedAt = Instant.now();
+        try {
+            composeExecutor.stop(serviceNames);
+        } finally {
+            invalidateState(changedAt, serviceNames);
+        }
+    }
+
+    @Override
+    public LogFollower followLogs() {
+        return followLogs(LogsConfig.defaults());
+    }
+
+    @Override
+    public LogFollower followLogs(LogsConfig config) {
+        return followLogs(config, System.out, System.err);
     }
 
     @Override
-    public void followLogs() {
-        composeExecutor.followLogs(SystemProcessOutputSink::create);
+    public LogFollower followLogs(PrintStream out, PrintStream err) {
+        return followLogs(LogsConfig.defaults(), out, err);
     }
 
     @Override
-    public void followLogs(PrintStream out, PrintStream err) {
+    public LogFollower followLogs(LogsConfig config, PrintStream out, PrintStream err) {
+        Validate.notNull(config, "config == null");
         Validate.notNull(out, "out == null");
         Validate.notNull(err, "err == null");
-        composeExecutor.followLogs(process -> PrintStreamProcessOutputSink.create(process, out, err));
+
+        LogStore store = new LogStore(config.getBufferSize());
+        LogLineParser parser = new LogLineParser(projectName);
+        LogStream stream = composeExecutor.followLogs(config, new LogFollowingListener(out, err, parser, store));
+        return new CliLogFollower(stream, store);
     }
 
     @Override
-    public void waitForService(String serviceName, long time, TimeUnit unit) {
+    public LogFollower captureLogs(LogCaptureConfig config) {
+        Validate.notNull(config, "config == null");
+
+        LogsConfig logsConfig = config.getLogs();
+        LogStore store = new LogStore(logsConfig.getBufferSize());
+        LogLineParser parser = new LogLineParser(projectName);
+        LogFileWriter writer = LogFileWriter.start(config);
+        try {
+            LogStream stream = composeExecutor.followLogs(logsConfig, new FileLogListener(parser, store, writer));
+            stream.finished().whenComplete((result, ex) -> writer.close());
+            return new CliLogFollower(stream, store, writer.finished());
+        } catch (RuntimeException ex) {
+            writer.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public ClusterLogs logs() {
+        return logs;
+    }
+
+    @Override
+    public LogLine waitForLog(String serviceName, Pattern pattern, long time, TimeUnit unit) {
+        validateService(serviceName);
         Validate.isTrue(isUp(), "Cluster is not up");
-        Validate.isTrue(unit.ordinal() >= TimeUnit.SECONDS.ordinal(), "Time unit cannot be smaller than SECONDS");
         Validate.isTrue(time > 0, "Time to wait must be positive");
 
-        log.debug("Waiting for service " + serviceName + " to be healthy");
-
+        long start = System.nanoTime();
+        boolean matched = false;
         try {
-            Awaitility.await()
-                    .pollInterval(500, TimeUnit.MILLISECONDS)
-                    .atMost(time, unit)
-                    .until(() -> containersHealthyOrRunning(ps(serviceName)));
-        } catch (ConditionTimeoutException ex) {
-            throw new JohannTimeoutException("Timed out while waiting for cluster to be healthy.", time, unit, ex);
-        } catch (Exception ex) {
-            throw new DockerComposeException("Unexpected exception while waiting for cluster to be healthy.", ex);
+            LogLine line = logs.await(serviceName, pattern, time, unit);
+            matched = true;
+            return line;
+        } finally {
+            metrics.waitCompleted("log of service " + serviceName, Duration.ofNanos(System.nanoTime() - start), matched);
         }
+    }
 
+    @Override
+    public void waitForService(String serviceName, long time, TimeUnit unit) {
+        waitForService(serviceName, WaitPolicy.within(time, unit));
+    }
+
+    @Override
+    public void waitForService(String serviceName, WaitPolicy policy) {
+        validateService(serviceName);
+        Validate.isTrue(isUp(), "Cluster is not up");
+        Validate.notNull(policy, "policy == null");
+
+        log.debug("Waiting for service " + serviceName + " to be healthy");
+        List<ReadinessProbe> serviceProbes = probes.stream().filter(probe -> probe.getServiceName().equals(serviceName)).collect(Collectors.toList());
+        List<ContainerId> containerIds = clusterWaited ? List.of() : ps(serviceName);
+        awaitReadiness(containerIds, () -> serviceHealthyOrRunning(serviceName), serviceProbes, policy, "service " + serviceName);
         log.debug("Service " + serviceName + " appears to be healthy");
     }
 
+    @Override
+    public CompletableFuture<Void> serviceReady(String serviceName) {
+        validateService(serviceName);
+        Validate.isTrue(isUp(), "Cluster is not up");
+        return composeExecutor.ready(ps(serviceName));
+    }
+
     @Override
     public String getProjectName() {
         return composeExecutor.getProjectName();
     }
 
+    @Override
+    public AsyncDockerCompose async() {
+        return async;
+    }
+
     @Override
     public void close() throws IOException {
-        dockerClient.close();
+        if (probeSelector != null) {
+            probeSelector.close();
+        }
+        logs.close();
+        async.close();
+        composeExecutor.close();
     }
 
-    private DockerClientConfig createDockerClientConfig() {
-        return DefaultDockerClientConfig.createDefaultConfigBuilder().build();
+    private CompletableFuture<Void> upAsync(UpConfig config) {
+        UpConfig effectiveConfig = supportedUpConfig(config);
+        Instant changedAt = Instant.now();
+        CompletableFuture<Void> execution = composeExecutor.upAsync(effectiveConfig);
+        return Futures.propagateCancellation(execution, execution.whenComplete((result, ex) -> upCompleted(effectiveConfig, changedAt, ex == null)));
     }
 
-    private DockerHttpClient createDockerHttpClient(DockerClientConfig config) {
-        return new ApacheDockerHttpClient.Builder()
-                .dockerHost(config.getDockerHost())
-                .connectionTimeout(Duration.ofSeconds(1))
-                .responseTimeout(Duration.ofSeconds(10))
-                .build();
+    private UpConfig supportedUpConfig(UpConfig config) {
+        if (config.isWait() && !composeExecutor.supportsWait()) {
+            log.info("docker-compose does not support 'up --wait', cluster readiness will be polled by waitForCluster instead.");
+            return config.withWait(false);
+        }
+        return config;
     }
 
-    private DockerClient createDockerClient(DockerClientConfig config) {
-        DockerHttpClient httpClient = createDockerHttpClient(config);
-        return DockerClientImpl.getInstance(config, httpClient);
+    private void upCompleted(UpConfig config, Instant changedAt, boolean succeeded) {
+        invalidateState(changedAt);
+        clusterWaited = succeeded && config.isWait();
     }
 
-    private boolean containersHealthyOrRunning() {
-        return containersHealthyOrRunning(ps());
+    private CompletableFuture<PrefetchResult> prefetchAsync(PrefetchConfig config) {
+        return imagePrefetcher.prefetch(this::prefetchedImages, config);
+    }
+
+    private List<String> prefetchedImages() {
+        return model().getServices().stream()
+                .filter(service -> service.getImage() != null && !service.isBuildable())
+                .map(ComposeService::getImage)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private boolean isReusable() {
+        if (fingerprint == null) {
+            return false;
+        }
+        if (!composeExecutor.supportsStatus()) {
+            log.warn("Reusing clusters requires docker-compose v2. Cluster {} will be started as usual.", projectName);
+            return false;
+        }
+        ClusterStatus status = clusterState.status();
+        return status.isHealthyOrRunning() && fingerprint.isStampedOn(status, composeExecutor.services());
+    }
+
+    private void invalidateState(Instant changedAt, String... serviceNames) {
+        invalidateClusterState();
+        logs.reset(changedAt, serviceNames);
     }
 
-    private boolean containersHealthyOrRunning(List<ContainerId> containerIds) {
-        for (ContainerId id : containerIds) {
-            InspectContainerResponse response = dockerClient.inspectContainerCmd(id.toString()).exec();
-            String status = response.getState().getStatus();
-            HealthState health = response.getState().getHealth();
-            String healthStatus = health != null ? health.getStatus() : "unsupported";
-            if (!"running".equals(status) || !"healthy".equals(healthStatus) && !"unsupported".equals(healthStatus)) {
-                return false;
+    private void invalidateClusterState() {
+        clusterWaited = false;
+        clusterState.invalidate();
+        endpoints.clear();
+    }
+
+    private ComposeModel modelIfAvailable() {
+        if (modelUnavailable) {
+            return null;
+        }
+        if (!composeExecutor.supportsModel()) {
+            log.debug("Compose model of {} is unavailable, service names will not be validated locally", projectName);
+            modelUnavailable = true;
+            return null;
+        }
+        return model();
+    }
+
+    private void validateService(String serviceName) {
+        ComposeModel composeModel = modelIfAvailable();
+        if (composeModel != null) {
+            composeModel.service(serviceName);
+        }
+    }
+
+    private void logWaitPlan() {
+        ComposeModel composeModel = modelIfAvailable();
+        if (composeModel == null || !log.isDebugEnabled()) {
+            return;
+        }
+        List<String> runningOnly = composeModel.getServices().stream()
+                .filter(service -> !service.hasHealthcheck())
+                .map(ComposeService::getName)
+                .filter(serviceName -> probes.stream().noneMatch(probe -> probe.getServiceName().equals(serviceName)))
+                .collect(Collectors.toList());
+        log.debug("Startup order of {}: {}", projectName, composeModel.startupOrder());
+        if (!runningOnly.isEmpty()) {
+            log.debug("Services without healthcheck or readiness probe will be considered ready once running: {}", runningOnly);
+        }
+    }
+
+    private ServiceEndpoints resolve(ContainerId containerId) {
+        return endpoints.computeIfAbsent(containerId.toString(), id -> composeExecutor.endpoints(containerId));
+    }
+
+    private void awaitReadiness(List<ContainerId> containerIds, BooleanSupplier pollingCondition, List<ReadinessProbe> probes, WaitPolicy policy,
+            String subject) {
+
+        long start = System.nanoTime();
+        long deadline = start + policy.getTimeoutNanos();
+        boolean ready = false;
+        try {
+            if (!containerIds.isEmpty()) {
+                awaitReadiness(containerIds, pollingCondition, deadline, policy, subject);
+            }
+            awaitProbes(probes, deadline, policy, subject);
+            ready = true;
+        } finally {
+            metrics.waitCompleted(subject, Duration.ofNanos(System.nanoTime() - start), ready);
+        }
+    }
+
+    private void awaitReadiness(List<ContainerId> containerIds, BooleanSupplier pollingCondition, long deadline, WaitPolicy policy, String subject) {
+        CompletableFuture<Void> ready = composeExecutor.ready(containerIds);
+        try {
+            ready.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw timeout(policy, subject, ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof DockerClientException) {
+                log.debug("Docker events are unavailable, falling back to polling", ex.getCause());
+                poll(pollingCondition, deadline, policy, subject);
+            } else {
+                throw new DockerComposeException(ex.getCause().getMessage(), ex.getCause());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while waiting for " + subject + " to be healthy.", ex);
+        } finally {
+            ready.cancel(true);
+        }
+    }
+
+    private void awaitProbes(List<ReadinessProbe> probes, long deadline, WaitPolicy policy, String subject) {
+        if (probes.isEmpty()) {
+            return;
+        }
+
+        Map<ReadinessProbe, CompletableFuture<?>> results = new LinkedHashMap<>();
+        try {
+            for (ReadinessProbe probe : probes) {
+                results.put(probe, probe(probe, policy));
             }
+            CompletableFuture.allOf(results.values().toArray(new CompletableFuture<?>[0])).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            String pending = results.entrySet().stream()
+                    .filter(entry -> !entry.getValue().isDone())
+                    .map(entry -> entry.getKey().toString())
+                    .collect(Collectors.joining(", "));
+            throw new JohannTimeoutException("Timed out while waiting for " + subject + " to pass readiness probes: " + pending + ".", policy.getTime(),
+                    policy.getUnit(), ex);
+        } catch (ExecutionException ex) {
+            throw new DockerComposeException(ex.getCause().getMessage(), ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while waiting for " + subject + " to pass readiness probes.", ex);
+        } finally {
+            results.values().forEach(result -> result.cancel(true));
+        }
+    }
+
+    private CompletableFuture<?> probe(ReadinessProbe probe, WaitPolicy policy) {
+        if (probe.getType() == ProbeType.LOG) {
+            return logs.match(probe.getServiceName(), probe.getLogPattern());
+        } else {
+            return probeSelector.probe(probe, port(probe.getServiceName(), probe.getPrivatePort()), policy);
+        }
+    }
+
+    private void poll(BooleanSupplier condition, long deadline, WaitPolicy policy, String subject) {
+        PollingBackoff backoff = new PollingBackoff(policy);
+        try {
+            while (!condition.getAsBoolean()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw timeout(policy, subject, null);
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.min(backoff.nextDelayNanos(), remaining));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while waiting for " + subject + " to be healthy.", ex);
+        }
+    }
+
+    private JohannTimeoutException timeout(WaitPolicy policy, String subject, Throwable cause) {
+        return new JohannTimeoutException("Timed out while waiting for " + subject + " to be healthy.", policy.getTime(), policy.getUnit(), cause);
+    }
+
+    private boolean containersHealthyOrRunning() {
+        if (composeExecutor.supportsStatus()) {
+            return composeExecutor.status().isHealthyOrRunning();
+        } else {
+            return composeExecutor.healthyOrRunning(ps());
+        }
+    }
+
+    private boolean serviceHealthyOrRunning(String serviceName) {
+        if (composeExecutor.supportsStatus()) {
+            return composeExecutor.status().service(serviceName).isHealthyOrRunning();
+        } else {
+            return composeExecutor.healthyOrRunning(ps(serviceName));
         }
-        return true;
     }
 
 }
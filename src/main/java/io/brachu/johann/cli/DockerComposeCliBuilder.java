@@ -6,28 +6,61 @@ import static io.brachu.johann.cli.EnvRetriever.DOCKER_TLS_VERIFY;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
+import com.github.dockerjava.core.DockerClientConfig;
+import io.brachu.johann.ComposeBackend;
+import io.brachu.johann.DockerApiConfig;
 import io.brachu.johann.DockerCompose;
+import io.brachu.johann.ReadinessProbe;
 import io.brachu.johann.exception.ComposeFileNotFoundException;
 import io.brachu.johann.exception.DockerComposeException;
+import io.brachu.johann.executor.ComposeExecutor;
+import io.brachu.johann.executor.RecordingComposeExecutor;
+import io.brachu.johann.metrics.JohannMetrics;
 import io.brachu.johann.project.ExplicitProjectNameProvider;
 import io.brachu.johann.project.ImplicitProjectNameProvider;
 import io.brachu.johann.project.ProjectNameProvider;
+import org.apache.commons.lang3.Validate;
 
 public class DockerComposeCliBuilder implements DockerCompose.Builder {
 
+    private static final long DEFAULT_CLUSTER_STATE_TTL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int DEFAULT_INSPECT_PARALLELISM = 8;
+
     private final String executablePath;
     private File file;
     private File workDir;
     private ProjectNameProvider projectNameProvider;
     private Map<String, String> env;
+    private long clusterStateTtlNanos;
+    private int inspectParallelism;
+    private ComposeBackend backend;
+    private boolean reuse;
+    private JohannMetrics metrics;
+    private Function<String, ComposeExecutor> executorFactory;
+    private Path recordingFile;
+    private DockerApiConfig dockerApiConfig;
+    private List<ReadinessProbe> probes;
+    private boolean implicitProjectName;
 
     public DockerComposeCliBuilder(String executablePath) {
         this.executablePath = executablePath;
         projectNameProvider = new ImplicitProjectNameProvider();
         env = new LinkedHashMap<>();
+        probes = new ArrayList<>();
+        clusterStateTtlNanos = DEFAULT_CLUSTER_STATE_TTL_NANOS;
+        inspectParallelism = DEFAULT_INSPECT_PARALLELISM;
+        backend = ComposeBackend.CLI;
+        implicitProjectName = true;
+        metrics = JohannMetrics.NOOP;
+        dockerApiConfig = DockerApiConfig.defaults();
     }
 
     @Override
@@ -68,6 +101,7 @@ public class DockerComposeCliBuilder implements DockerCompose.Builder {
         @Override
         public DockerCompose.OngoingBuild.WorkDir projectName(String projectName) {
             projectNameProvider = new ExplicitProjectNameProvider(projectName);
+            implicitProjectName = false;
             return this;
         }
 
@@ -89,7 +123,7 @@ public class DockerComposeCliBuilder implements DockerCompose.Builder {
 
     }
 
-    private class Env extends Finish implements DockerCompose.OngoingBuild.Env {
+    private class Env extends Options implements DockerCompose.OngoingBuild.Env {
 
         @Override
         public DockerCompose.OngoingBuild.Env env(String key, String value) {
@@ -105,6 +139,72 @@ public class DockerComposeCliBuilder implements DockerCompose.Builder {
 
     }
 
+    private class Options extends Finish implements DockerCompose.OngoingBuild.Options {
+
+        @Override
+        public DockerCompose.OngoingBuild.Options clusterStateTtl(long time, TimeUnit unit) {
+            Validate.isTrue(time >= 0, "Cluster state TTL cannot be negative");
+            clusterStateTtlNanos = unit.toNanos(time);
+            return this;
+        }
+
+        @Override
+        public DockerCompose.OngoingBuild.Options inspectParallelism(int parallelism) {
+            Validate.isTrue(parallelism > 0, "Inspect parallelism must be positive");
+            inspectParallelism = parallelism;
+            return this;
+        }
+
+        @Override
+        public DockerCompose.OngoingBuild.Options backend(ComposeBackend backend) {
+            Validate.notNull(backend, "backend == null");
+            DockerComposeCliBuilder.this.backend = backend;
+            return this;
+        }
+
+        @Override
+        public DockerCompose.OngoingBuild.Options reuse() {
+            reuse = true;
+            return this;
+        }
+
+        @Override
+        public DockerCompose.OngoingBuild.Options metrics(JohannMetrics metrics) {
+            Validate.notNull(metrics, "metrics == null");
+            DockerComposeCliBuilder.this.metrics = metrics;
+            return this;
+        }
+
+        @Override
+        public DockerCompose.OngoingBuild.Options executor(Function<String, ComposeExecutor> executorFactory) {
+            Validate.notNull(executorFactory, "executorFactory == null");
+            DockerComposeCliBuilder.this.executorFactory = executorFactory;
+            return this;
+        }
+
+        @Override
+        public DockerCompose.OngoingBuild.Options record(Path file) {
+            Validate.notNull(file, "file == null");
+            recordingFile = file;
+            return this;
+        }
+
+        @Override
+        public DockerCompose.OngoingBuild.Options dockerApi(DockerApiConfig config) {
+            Validate.notNull(config, "config == null");
+            dockerApiConfig = config;
+            return this;
+        }
+
+        @Override
+        public DockerCompose.OngoingBuild.Options probe(ReadinessProbe probe) {
+            Validate.notNull(probe, "probe == null");
+            probes.add(probe);
+            return this;
+        }
+
+    }
+
     private class Finish implements DockerCompose.OngoingBuild.Finish {
 
         private EnvRetriever envRetriever = new EnvRetriever();
@@ -112,7 +212,38 @@ public class DockerComposeCliBuilder implements DockerCompose.Builder {
         @Override
         public DockerCompose build() {
             importSystemEnv();
-            return new DockerComposeCli(executablePath, file, workDir, projectNameProvider, env);
+            String composeFileContent = DockerComposeCliExecutor.readComposeFile(file);
+            ClusterFingerprint fingerprint = reuse ? ClusterFingerprint.of(composeFileContent, env) : null;
+            ProjectNameProvider nameProvider = fingerprint != null && implicitProjectName
+                    ? new ImplicitProjectNameProvider(fingerprint::projectName)
+                    : projectNameProvider;
+
+            String projectName = nameProvider.provide();
+            JohannMetrics guardedMetrics = GuardedMetrics.guard(metrics);
+
+            ComposeExecutor executor = executorFactory != null
+                    ? Validate.notNull(executorFactory.apply(projectName), "Executor factory returned null")
+                    : createExecutor(composeFileContent, projectName, fingerprint, guardedMetrics);
+            if (recordingFile != null) {
+                executor = new RecordingComposeExecutor(executor, recordingFile);
+            }
+            return new DockerComposeCli(executor, clusterStateTtlNanos, fingerprint, guardedMetrics, probes);
+        }
+
+        private ComposeExecutor createExecutor(String composeFileContent, String projectName, ClusterFingerprint fingerprint, JohannMetrics metrics) {
+            DockerClientConfig config = DockerClientRegistry.defaultConfig();
+            DockerClientLease dockerClient = DockerClientRegistry.shared().acquire(config, dockerApiConfig);
+            DockerComposeCliExecutor cliExecutor = new DockerComposeCliExecutor(executablePath, composeFileContent, workDir, projectName, env,
+                    dockerClient, config.getDockerHost(), inspectParallelism, fingerprint, metrics);
+
+            switch (backend) {
+                case CLI:
+                    return cliExecutor;
+                case ENGINE_API:
+                    return new DockerEngineComposeExecutor(cliExecutor, dockerClient, config.getDockerHost(), inspectParallelism, metrics);
+                default:
+                    throw new IllegalArgumentException("Unsupported backend: " + backend);
+            }
         }
 
         private void importSystemEnv() {
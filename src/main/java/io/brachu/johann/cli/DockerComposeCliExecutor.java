@@ -4,161 +4,446 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.ComposeModel;
 import io.brachu.johann.ContainerId;
+import io.brachu.johann.ContainerPort;
 import io.brachu.johann.DownConfig;
+import io.brachu.johann.ImagePullListener;
+import io.brachu.johann.LogsConfig;
 import io.brachu.johann.PortBinding;
 import io.brachu.johann.Protocol;
+import io.brachu.johann.ServiceEndpoints;
 import io.brachu.johann.UpConfig;
 import io.brachu.johann.cli.exception.NonZeroExitCodeException;
 import io.brachu.johann.exception.DockerComposeException;
+import io.brachu.johann.executor.ComposeExecutor;
+import io.brachu.johann.executor.LogListener;
+import io.brachu.johann.executor.LogStream;
+import io.brachu.johann.metrics.JohannMetrics;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-final class DockerComposeCliExecutor {
+final class DockerComposeCliExecutor implements ComposeExecutor {
 
     private static final Logger log = LoggerFactory.getLogger(DockerComposeCliExecutor.class);
 
     private static final String[] UP_COMMAND = { "up", "-d" };
     private static final String[] DOWN_COMMAND = { "down" };
+    private static final String[] PULL_COMMAND = { "pull" };
     private static final String[] KILL_COMMAND = { "kill" };
     private static final String[] PORT_COMMAND = { "port" };
     private static final String[] PS_COMMAND = { "ps", "-q" };
     private static final String[] START_COMMAND = { "start" };
     private static final String[] STOP_COMMAND = { "stop" };
     private static final String[] FOLLOW_LOGS_COMMAND = { "logs", "-f" };
+    private static final String[] STATUS_COMMAND = { "ps", "--format", "json", "--all" };
+    private static final String[] VERSION_COMMAND = { "version", "--short" };
+    private static final String[] SERVICES_COMMAND = { "config", "--services" };
+    private static final String[] MODEL_COMMAND = { "config", "--format", "json" };
 
     private static final ProcessWaitStrategy DEFAULT_PROCESS_WAIT_STRATEGY = new TimedProcessWaitStrategy(5, TimeUnit.MINUTES);
     private static final ProcessWaitStrategy NOOP_PROCESS_WAIT_STRATEGY = process -> 0;
 
+    private final String executablePath;
     private final String projectName;
     private final String composeFileContent;
+    private final ClusterFingerprint fingerprint;
     private final File workDir;
     private final Map<String, String> env;
+    private final ComposeStatusParser statusParser;
+    private final ProcessOutputTransfer outputTransfer;
+    private final AtomicBoolean closed;
+    private final Set<Process> logFollowers;
+    private final DockerClientLease dockerClient;
+    private final URI dockerHost;
+    private final ContainerInspector containerInspector;
+    private final ImagePuller imagePuller;
+    private final EndpointResolver endpointResolver;
+    private final Set<ContainerReadinessWatcher> readinessWatchers;
+    private final JohannMetrics metrics;
 
     private final String[] upCmd;
     private final String[] downCmd;
+    private final String[] pullCmd;
     private final String[] killCmd;
     private final String[] portCmd;
     private final String[] psCmd;
     private final String[] startCmd;
     private final String[] stopCmd;
     private final String[] followLogsCmd;
+    private final String[] statusCmd;
+    private final String[] versionCmd;
+    private final String[] servicesCmd;
+    private final String[] modelCmd;
 
-    DockerComposeCliExecutor(String executablePath, File composeFile, File workDir, String projectName, Map<String, String> env) {
+    private volatile ComposeVersion version;
+    private volatile Path labelOverride;
+
+    DockerComposeCliExecutor(String executablePath, String composeFileContent, File workDir, String projectName, Map<String, String> env,
+            DockerClientLease dockerClient, URI dockerHost, int inspectParallelism, ClusterFingerprint fingerprint, JohannMetrics metrics) {
+
+        this.executablePath = executablePath;
         this.projectName = projectName;
-        composeFileContent = readComposeFile(composeFile);
+        this.composeFileContent = composeFileContent;
+        this.fingerprint = fingerprint;
         this.workDir = workDir;
         this.env = Map.copyOf(env);
+        statusParser = new ComposeStatusParser(dockerHost);
+        outputTransfer = ProcessOutputTransfer.retainShared();
+        closed = new AtomicBoolean();
+        logFollowers = ConcurrentHashMap.newKeySet();
+        this.dockerClient = dockerClient;
+        this.dockerHost = dockerHost;
+        containerInspector = new ContainerInspector(dockerClient, inspectParallelism, metrics);
+        imagePuller = new ImagePuller(dockerClient);
+        endpointResolver = new EndpointResolver(containerInspector, dockerHost);
+        readinessWatchers = ConcurrentHashMap.newKeySet();
+        this.metrics = metrics;
 
         String[] cmdPrefix = createCmdPrefix(executablePath, projectName);
         upCmd = concat(cmdPrefix, UP_COMMAND);
         downCmd = concat(cmdPrefix, DOWN_COMMAND);
+        pullCmd = concat(cmdPrefix, PULL_COMMAND);
         killCmd = concat(cmdPrefix, KILL_COMMAND);
         portCmd = concat(cmdPrefix, PORT_COMMAND);
         psCmd = concat(cmdPrefix, PS_COMMAND);
         startCmd = concat(cmdPrefix, START_COMMAND);
         stopCmd = concat(cmdPrefix, STOP_COMMAND);
         followLogsCmd = concat(cmdPrefix, FOLLOW_LOGS_COMMAND);
+        statusCmd = concat(cmdPrefix, STATUS_COMMAND);
+        versionCmd = concat(new String[] { executablePath }, VERSION_COMMAND);
+        servicesCmd = concat(cmdPrefix, SERVICES_COMMAND);
+        modelCmd = concat(cmdPrefix, MODEL_COMMAND);
+    }
+
+    static String readComposeFile(File composeFile) {
+        try (FileInputStream input = new FileInputStream(composeFile)) {
+            return IOUtils.toString(input, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new DockerComposeException("Unexpected exception while reading compose file contents.", e);
+        }
     }
 
-    String getProjectName() {
+    @Override
+    public String getProjectName() {
         return projectName;
     }
 
-    void up(UpConfig config) {
+    @Override
+    public void up(UpConfig config) {
         log.debug("Starting cluster");
-        exec(concat(upCmd, config.toCmd()), standardSink());
+        exec(upCmd(config), standardSink());
     }
 
-    void down(DownConfig config) {
+    @Override
+    public void down(DownConfig config) {
         log.debug("Shutting down cluster");
         exec(concat(downCmd, config.toCmd()), standardSink());
         log.debug("Cluster shut down");
     }
 
-    void kill() {
+    @Override
+    public void pull() {
+        log.debug("Pulling images");
+        exec(pullCmd, standardSink());
+        log.debug("Images pulled");
+    }
+
+    @Override
+    public boolean imagePresent(String image) {
+        return imagePuller.isPresent(image);
+    }
+
+    @Override
+    public long pullImage(String image, ImagePullListener listener) {
+        return imagePuller.pull(image, listener);
+    }
+
+    @Override
+    public void kill() {
         log.debug("Killing cluster");
         exec(killCmd, standardSink());
         log.debug("Cluster killed");
     }
 
-    PortBinding binding(String serviceName, Protocol protocol, int privatePort) {
+    @Override
+    public ContainerPort port(String serviceName, Protocol protocol, int privatePort) {
         String[] params = { "--protocol", protocol.toString(), serviceName, String.valueOf(privatePort) };
         String binding = StringUtils.trim(exec(concat(portCmd, params), resultSink()));
 
         if (PortBinding.isBound(binding)) {
-            return new PortBinding(binding);
+            return new ContainerPort(dockerHost, new PortBinding(binding));
         } else {
             throw new DockerComposeException("No host port is bound to '" + serviceName + "' container's " + privatePort + " " + protocol.toString()
                     + " port.");
         }
     }
 
-    List<ContainerId> ps() {
-        String[] ids = exec(psCmd, resultSink()).split(System.lineSeparator());
-        return Arrays.stream(ids).filter(StringUtils::isNotBlank).map(ContainerId::new).collect(Collectors.toList());
+    @Override
+    public List<ContainerId> ps() {
+        return ps(psCmd);
     }
 
-    List<ContainerId> ps(String serviceName) {
+    @Override
+    public List<ContainerId> ps(String serviceName) {
         String[] params = { serviceName };
-        String[] ids = exec(concat(psCmd, params), resultSink()).split(System.lineSeparator());
-        return Arrays.stream(ids).filter(StringUtils::isNotBlank).map(ContainerId::new).collect(Collectors.toList());
+        return ps(concat(psCmd, params));
+    }
+
+    private List<ContainerId> ps(String[] cmd) {
+        List<ContainerId> ids = new ArrayList<>();
+        exec(cmd, lineParsingSink(line -> {
+            if (StringUtils.isNotBlank(line)) {
+                ids.add(new ContainerId(line.trim()));
+            }
+        }));
+        return ids;
     }
 
-    void startAll() {
+    @Override
+    public void startAll() {
         log.debug("Starting all services");
         exec(startCmd, standardSink());
         log.debug("Started all services");
     }
 
-    void start(String serviceName) {
+    @Override
+    public void start(String serviceName) {
         log.debug("Starting " + serviceName + " service");
         String[] params = { serviceName };
         exec(concat(startCmd, params), standardSink());
         log.debug("Started " + serviceName + " service");
     }
 
-    void start(String... serviceNames) {
+    @Override
+    public void start(String... serviceNames) {
         String services = String.join(", ", serviceNames);
         log.debug("Starting services: " + services);
         exec(concat(startCmd, serviceNames), standardSink());
         log.debug("Started services: " + services);
     }
 
-    void stopAll() {
+    @Override
+    public void stopAll() {
         log.debug("Stopping all services");
         exec(stopCmd, standardSink());
         log.debug("Stopped all services");
     }
 
-    void stop(String serviceName) {
+    @Override
+    public void stop(String serviceName) {
         log.debug("Stopping " + serviceName + " service");
         String[] params = { serviceName };
         exec(concat(stopCmd, params), standardSink());
         log.debug("Stopped " + serviceName + " service");
     }
 
-    void stop(String... serviceNames) {
+    @Override
+    public void stop(String... serviceNames) {
         String services = String.join(", ", serviceNames);
         log.debug("Stopping services: " + services);
         exec(concat(stopCmd, serviceNames), standardSink());
         log.debug("Stopped services: " + services);
     }
 
-    void followLogs(ProcessOutputSinkFactory sinkFactory) {
-        log.debug("Following logs of all services");
-        exec(followLogsCmd, sinkFactory, NOOP_PROCESS_WAIT_STRATEGY);
+    @Override
+    public LogStream followLogs(LogsConfig config, LogListener listener) {
+        log.debug("Following logs of " + (config.getServices().isEmpty() ? "all services" : String.join(", ", config.getServices())));
+        AtomicReference<LogStream> stream = new AtomicReference<>();
+        exec(concat(followLogsCmd, config.toCmd()), (process, transfer) -> {
+            LogListenerSink sink = LogListenerSink.create(process, transfer, listener);
+            stream.set(new ProcessLogStream(process, sink.transferred()));
+            return sink;
+        }, NOOP_PROCESS_WAIT_STRATEGY, process -> {
+            logFollowers.add(process);
+            process.onExit().thenRun(() -> logFollowers.remove(process));
+            pipeComposeFile(process);
+        });
+        return stream.get();
+    }
+
+    @Override
+    public List<String> services() {
+        List<String> services = new ArrayList<>();
+        exec(servicesCmd, lineParsingSink(line -> {
+            if (StringUtils.isNotBlank(line)) {
+                services.add(line.trim());
+            }
+        }));
+        return services;
+    }
+
+    @Override
+    public ComposeModel model() {
+        if (!supportsModel()) {
+            throw new DockerComposeException("Reading compose model requires docker-compose v2 or newer, detected version: " + version() + ".");
+        }
+        return ComposeModelParser.parse(projectName, exec(modelCmd, resultSink()));
+    }
+
+    @Override
+    public boolean supportsModel() {
+        return version().supportsJsonFormat();
+    }
+
+    @Override
+    public boolean supportsStatus() {
+        return version().supportsJsonFormat();
+    }
+
+    @Override
+    public boolean supportsWait() {
+        return version().supportsWait();
+    }
+
+    @Override
+    public ClusterStatus status() {
+        if (supportsStatus()) {
+            return statusParser.parse(exec(statusCmd, resultSink()));
+        } else {
+            Map<ContainerId, InspectContainerResponse> responses = containerInspector.inspectAll(ps());
+            return new ClusterStatus(responses.entrySet().stream()
+                    .map(entry -> endpointResolver.toContainerStatus(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Override
+    public ServiceEndpoints endpoints(ContainerId containerId) {
+        return endpointResolver.resolve(containerId);
+    }
+
+    @Override
+    public boolean healthyOrRunning(List<ContainerId> containerIds) {
+        return containerInspector.allMatch(containerIds, ContainerInspector::healthyOrRunning);
+    }
+
+    @Override
+    public CompletableFuture<Void> ready(List<ContainerId> containerIds) {
+        ContainerReadinessWatcher watcher = ContainerReadinessWatcher.watch(dockerClient.get(), containerInspector, projectName, containerIds);
+        readinessWatchers.add(watcher);
+        watcher.ready().whenComplete((result, ex) -> readinessWatchers.remove(watcher));
+        return watcher.ready();
+    }
+
+    @Override
+    public CompletableFuture<Void> upAsync(UpConfig config) {
+        log.debug("Starting cluster asynchronously");
+        return execAsync(upCmd(config));
+    }
+
+    @Override
+    public CompletableFuture<Void> downAsync(DownConfig config) {
+        log.debug("Shutting down cluster asynchronously");
+        return execAsync(concat(downCmd, config.toCmd()));
+    }
+
+    @Override
+    public CompletableFuture<Void> pullAsync() {
+        log.debug("Pulling images asynchronously");
+        return execAsync(pullCmd);
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAllAsync() {
+        log.debug("Stopping all services asynchronously");
+        return execAsync(stopCmd);
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAsync(String... serviceNames) {
+        log.debug("Stopping services asynchronously: " + String.join(", ", serviceNames));
+        return execAsync(concat(stopCmd, serviceNames));
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        logFollowers.forEach(Process::destroy);
+        readinessWatchers.forEach(ContainerReadinessWatcher::close);
+        ProcessOutputTransfer.releaseShared(outputTransfer);
+        containerInspector.close();
+        dockerClient.close();
+    }
+
+    ComposeVersion version() {
+        if (version == null) {
+            synchronized (this) {
+                if (version == null) {
+                    version = detectVersion();
+                }
+            }
+        }
+        return version;
+    }
+
+    private ComposeVersion detectVersion() {
+        try {
+            ComposeVersion detected = ComposeVersion.parse(exec(versionCmd, resultSink(), DEFAULT_PROCESS_WAIT_STRATEGY, this::closeInput));
+            log.debug("Detected docker-compose version: {}", detected);
+            return detected;
+        } catch (DockerComposeException ex) {
+            log.debug("Unable to detect docker-compose version", ex);
+            return ComposeVersion.parse("");
+        }
+    }
+
+    private String[] upCmd(UpConfig config) {
+        if (fingerprint != null && version().supportsJsonFormat()) {
+            String[] labelledCmdPrefix = { executablePath, "--ansi", "never", "-f", "-", "-f", labelOverride().toString(), "-p", projectName };
+            return concat(concat(labelledCmdPrefix, UP_COMMAND), config.toCmd());
+        } else {
+            return concat(upCmd, config.toCmd());
+        }
+    }
+
+    private Path labelOverride() {
+        if (labelOverride == null) {
+            synchronized (this) {
+                if (labelOverride == null) {
+                    labelOverride = writeLabelOverride();
+                }
+            }
+        }
+        return labelOverride;
+    }
+
+    private Path writeLabelOverride() {
+        try {
+            Path override = Files.createTempFile("johann-" + fingerprint.hash() + "-", ".yml");
+            override.toFile().deleteOnExit();
+            Files.writeString(override, fingerprint.labelOverride(services()), StandardCharsets.UTF_8);
+            return override;
+        } catch (IOException e) {
+            throw new DockerComposeException("Unexpected exception while writing compose file stamping cluster fingerprint.", e);
+        }
     }
 
     private String[] createCmdPrefix(String executablePath, String projectName) {
@@ -170,15 +455,19 @@ final class DockerComposeCliExecutor {
     }
 
     private String exec(String[] cmd, ProcessOutputSinkFactory sinkFactory, ProcessWaitStrategy waitStrategy) {
+        return exec(cmd, sinkFactory, waitStrategy, this::pipeComposeFile);
+    }
+
+    private String exec(String[] cmd, ProcessOutputSinkFactory sinkFactory, ProcessWaitStrategy waitStrategy, Consumer<Process> onProcessStart) {
         String cmdConcat = String.join(" ", cmd);
         try {
-            return new CliRunner(cmd)
-                    .env(env)
-                    .workDir(workDir)
-                    .outputSinkFactory(sinkFactory)
-                    .onProcessStart(this::pipeComposeFile)
-                    .waitStrategy(waitStrategy)
-                    .exec();
+            CliRunner runner = runner(cmd, sinkFactory)
+                    .onProcessStart(onProcessStart)
+                    .waitStrategy(waitStrategy);
+            if (waitStrategy != NOOP_PROCESS_WAIT_STRATEGY) {
+                runner.metrics(metrics, projectName, commandName(cmd));
+            }
+            return runner.exec();
         } catch (IOException e) {
             throw new DockerComposeException("Unexpected I/O exception while executing '" + cmdConcat + "'.", e);
         } catch (InterruptedException e) {
@@ -186,17 +475,59 @@ final class DockerComposeCliExecutor {
         } catch (TimeoutException e) {
             throw new DockerComposeException("Timed out while waiting for '" + cmdConcat + "' to finish executing.");
         } catch (NonZeroExitCodeException e) {
-            String msg = String.format("Non-zero (%d) exit code returned from '%s'.%nOutput is:%n%s", e.getExitCode(), cmdConcat, e.getOutput());
-            throw new DockerComposeException(msg);
+            throw nonZeroExitCode(e, cmdConcat);
         }
     }
 
-    private String readComposeFile(File composeFile) {
+    private CompletableFuture<Void> execAsync(String[] cmd) {
+        String cmdConcat = String.join(" ", cmd);
+        CompletableFuture<String> execution;
         try {
-            return IOUtils.toString(new FileInputStream(composeFile), StandardCharsets.UTF_8);
+            execution = runner(cmd, standardSink())
+                    .onProcessStart(this::pipeComposeFile)
+                    .metrics(metrics, projectName, commandName(cmd))
+                    .execAsync();
         } catch (IOException e) {
-            throw new DockerComposeException("Unexpected exception while reading compose file contents.", e);
+            return CompletableFuture.failedFuture(new DockerComposeException("Unexpected I/O exception while executing '" + cmdConcat + "'.", e));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return Futures.propagateCancellation(execution, execution.handle((output, ex) -> {
+            if (ex == null) {
+                return null;
+            }
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof NonZeroExitCodeException) {
+                throw nonZeroExitCode((NonZeroExitCodeException) cause, cmdConcat);
+            } else if (cause instanceof DockerComposeException || cause instanceof CancellationException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new DockerComposeException("Unexpected exception while executing '" + cmdConcat + "'.", cause);
+            }
+        }));
+    }
+
+    private CliRunner runner(String[] cmd, ProcessOutputSinkFactory sinkFactory) {
+        return new CliRunner(cmd)
+                .env(env)
+                .workDir(workDir)
+                .outputTransfer(outputTransfer)
+                .outputSinkFactory(sinkFactory);
+    }
+
+    private String commandName(String[] cmd) {
+        for (int i = 1; i + 2 < cmd.length; ++i) {
+            if ("-p".equals(cmd[i]) && projectName.equals(cmd[i + 1])) {
+                return cmd[i + 2];
+            }
         }
+        return cmd.length > 1 ? cmd[1] : cmd[0];
+    }
+
+    private DockerComposeException nonZeroExitCode(NonZeroExitCodeException ex, String cmdConcat) {
+        String msg = String.format("Non-zero (%d) exit code returned from '%s'.%nOutput is:%n%s", ex.getExitCode(), cmdConcat, ex.getOutput());
+        return new DockerComposeException(msg);
     }
 
     private void pipeComposeFile(Process process) {
@@ -210,7 +541,15 @@ final class DockerComposeCliExecutor {
         }
     }
 
-    private String[] concat(String[] first, String[] second) {
+    private void closeInput(Process process) {
+        try {
+            process.getOutputStream().close();
+        } catch (IOException e) {
+            log.debug("Unable to close standard input of docker-compose process", e);
+        }
+    }
+
+    static String[] concat(String[] first, String[] second) {
         return Stream.concat(Arrays.stream(first), Arrays.stream(second)).toArray(String[]::new);
     }
 
@@ -218,8 +557,12 @@ final class DockerComposeCliExecutor {
         return SystemProcessOutputSink::create;
     }
 
+    private ProcessOutputSinkFactory lineParsingSink(Consumer<String> lineParser) {
+        return StreamingProcessOutputSink.lineParsing(lineParser);
+    }
+
     private ProcessOutputSinkFactory resultSink() {
-        return OnDemandProcessOutputSink::new;
+        return StreamingProcessOutputSink::create;
     }
 
 }
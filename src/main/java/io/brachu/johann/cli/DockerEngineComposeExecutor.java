@@ -0,0 +1,470 @@
+package io.brachu.johann.cli;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.exception.ConflictException;
+import com.github.dockerjava.api.exception.NotModifiedException;
+import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.ExposedPort;
+import com.github.dockerjava.api.model.InternetProtocol;
+import com.github.dockerjava.api.model.Ports;
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.ComposeModel;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.ContainerPort;
+import io.brachu.johann.ContainerStatus;
+import io.brachu.johann.DownConfig;
+import io.brachu.johann.ImagePullListener;
+import io.brachu.johann.LogsConfig;
+import io.brachu.johann.PortBinding;
+import io.brachu.johann.Protocol;
+import io.brachu.johann.ServiceEndpoints;
+import io.brachu.johann.UpConfig;
+import io.brachu.johann.exception.DockerComposeException;
+import io.brachu.johann.executor.ComposeExecutor;
+import io.brachu.johann.executor.LogListener;
+import io.brachu.johann.executor.LogStream;
+import io.brachu.johann.metrics.CommandEvent;
+import io.brachu.johann.metrics.JohannMetrics;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class DockerEngineComposeExecutor implements ComposeExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(DockerEngineComposeExecutor.class);
+
+    private static final String THREAD_NAME = "johann-engine-executor";
+    private static final int STOP_TIMEOUT_SECONDS = 10;
+    private static final Pattern EXIT_CODE_PATTERN = Pattern.compile("Exited \\((\\d+)\\).*");
+
+    private final DockerComposeCliExecutor cliExecutor;
+    private final DockerClientLease dockerClient;
+    private final URI dockerHost;
+    private final String projectLabel;
+    private final ExecutorService executor;
+    private final JohannMetrics metrics;
+
+    private volatile ComposeModel model;
+    private volatile boolean modelUnavailable;
+
+    DockerEngineComposeExecutor(DockerComposeCliExecutor cliExecutor, DockerClientLease dockerClient, URI dockerHost, int parallelism, JohannMetrics metrics) {
+        this.cliExecutor = cliExecutor;
+        this.metrics = metrics;
+        this.dockerClient = dockerClient;
+        this.dockerHost = dockerHost;
+        projectLabel = cliExecutor.getProjectName().toLowerCase();
+        executor = JohannExecutors.newBoundedExecutor(THREAD_NAME, parallelism);
+    }
+
+    @Override
+    public String getProjectName() {
+        return cliExecutor.getProjectName();
+    }
+
+    @Override
+    public void up(UpConfig config) {
+        cliExecutor.up(config);
+    }
+
+    @Override
+    public void down(DownConfig config) {
+        cliExecutor.down(config);
+    }
+
+    @Override
+    public void pull() {
+        cliExecutor.pull();
+    }
+
+    @Override
+    public boolean imagePresent(String image) {
+        return cliExecutor.imagePresent(image);
+    }
+
+    @Override
+    public long pullImage(String image, ImagePullListener listener) {
+        return cliExecutor.pullImage(image, listener);
+    }
+
+    @Override
+    public void kill() {
+        log.debug("Killing cluster");
+        timed("kill", () -> forEachContainer(containers(), this::isRunning, this::killContainer));
+        log.debug("Cluster killed");
+    }
+
+    @Override
+    public ContainerPort port(String serviceName, Protocol protocol, int privatePort) {
+        return timed("port", () -> new ContainerPort(dockerHost, findBinding(serviceName, protocol, privatePort)));
+    }
+
+    @Override
+    public List<ContainerId> ps() {
+        return timed("ps", () -> toIds(containers()));
+    }
+
+    @Override
+    public List<ContainerId> ps(String serviceName) {
+        return timed("ps", () -> toIds(containers(serviceName)));
+    }
+
+    @Override
+    public void startAll() {
+        log.debug("Starting all services");
+        timed("start", () -> startInDependencyOrder(containers()));
+        log.debug("Started all services");
+    }
+
+    @Override
+    public void start(String serviceName) {
+        log.debug("Starting " + serviceName + " service");
+        timed("start", () -> forEachContainer(containers(serviceName), container -> !isRunning(container), this::startContainer));
+        log.debug("Started " + serviceName + " service");
+    }
+
+    @Override
+    public void start(String... serviceNames) {
+        log.debug("Starting " + String.join(", ", serviceNames) + " services");
+        timed("start", () -> startInDependencyOrder(containers(serviceNames)));
+        log.debug("Started " + String.join(", ", serviceNames) + " services");
+    }
+
+    @Override
+    public void stopAll() {
+        log.debug("Stopping all services");
+        timed("stop", () -> stopInDependencyOrder(containers()));
+        log.debug("Stopped all services");
+    }
+
+    @Override
+    public void stop(String serviceName) {
+        log.debug("Stopping " + serviceName + " service");
+        timed("stop", () -> forEachContainer(containers(serviceName), this::isRunning, this::stopContainer));
+        log.debug("Stopped " + serviceName + " service");
+    }
+
+    @Override
+    public void stop(String... serviceNames) {
+        log.debug("Stopping " + String.join(", ", serviceNames) + " services");
+        timed("stop", () -> stopInDependencyOrder(containers(serviceNames)));
+        log.debug("Stopped " + String.join(", ", serviceNames) + " services");
+    }
+
+    @Override
+    public LogStream followLogs(LogsConfig config, LogListener listener) {
+        return cliExecutor.followLogs(config, listener);
+    }
+
+    @Override
+    public List<String> services() {
+        return cliExecutor.services();
+    }
+
+    @Override
+    public ComposeModel model() {
+        return cliExecutor.model();
+    }
+
+    @Override
+    public boolean supportsModel() {
+        return cliExecutor.supportsModel();
+    }
+
+    @Override
+    public boolean supportsStatus() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsWait() {
+        return cliExecutor.supportsWait();
+    }
+
+    @Override
+    public ClusterStatus status() {
+        return timed("ps", () -> new ClusterStatus(containers().stream().map(this::toContainerStatus).collect(Collectors.toList())));
+    }
+
+    @Override
+    public ServiceEndpoints endpoints(ContainerId containerId) {
+        return cliExecutor.endpoints(containerId);
+    }
+
+    @Override
+    public boolean healthyOrRunning(List<ContainerId> containerIds) {
+        return cliExecutor.healthyOrRunning(containerIds);
+    }
+
+    @Override
+    public CompletableFuture<Void> ready(List<ContainerId> containerIds) {
+        return cliExecutor.ready(containerIds);
+    }
+
+    @Override
+    public CompletableFuture<Void> upAsync(UpConfig config) {
+        return cliExecutor.upAsync(config);
+    }
+
+    @Override
+    public CompletableFuture<Void> downAsync(DownConfig config) {
+        return cliExecutor.downAsync(config);
+    }
+
+    @Override
+    public CompletableFuture<Void> pullAsync() {
+        return cliExecutor.pullAsync();
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAllAsync() {
+        return cliExecutor.stopAllAsync();
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAsync(String... serviceNames) {
+        return cliExecutor.stopAsync(serviceNames);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        cliExecutor.close();
+    }
+
+    private PortBinding findBinding(String serviceName, Protocol protocol, int privatePort) {
+        List<Container> containers = containers(serviceName);
+        if (!containers.isEmpty()) {
+            InspectContainerResponse response = dockerClient.get().inspectContainerCmd(containers.get(0).getId()).exec();
+            Ports ports = response.getNetworkSettings().getPorts();
+            ExposedPort exposedPort = new ExposedPort(privatePort, InternetProtocol.parse(protocol.toString()));
+            Ports.Binding binding = ports != null ? EndpointResolver.selectBinding(ports.getBindings().get(exposedPort)) : null;
+            if (binding != null) {
+                return EndpointResolver.toPortBinding(binding);
+            }
+        }
+        throw new DockerComposeException("No host port is bound to '" + serviceName + "' container's " + privatePort + " " + protocol + " port.");
+    }
+
+    private void timed(String command, Runnable call) {
+        timed(command, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private <T> T timed(String command, Supplier<T> call) {
+        long start = System.nanoTime();
+        int exitCode = CommandEvent.NO_EXIT_CODE;
+        try {
+            T result = call.get();
+            exitCode = 0;
+            return result;
+        } finally {
+            metrics.apiCallExecuted(new CommandEvent(getProjectName(), command, Duration.ofNanos(System.nanoTime() - start), exitCode, 0));
+        }
+    }
+
+    private List<Container> containers() {
+        return listContainers(Map.of(ComposeLabels.PROJECT, projectLabel));
+    }
+
+    private List<Container> containers(String serviceName) {
+        Map<String, String> labels = new HashMap<>();
+        labels.put(ComposeLabels.PROJECT, projectLabel);
+        labels.put(ComposeLabels.SERVICE, serviceName);
+        return listContainers(labels);
+    }
+
+    private List<Container> containers(String... serviceNames) {
+        Set<String> services = new HashSet<>(Arrays.asList(serviceNames));
+        return containers().stream().filter(container -> services.contains(serviceName(container))).collect(Collectors.toList());
+    }
+
+    private List<Container> listContainers(Map<String, String> labels) {
+        return dockerClient.get().listContainersCmd()
+                .withShowAll(true)
+                .withLabelFilter(labels)
+                .exec()
+                .stream()
+                .filter(container -> container.getLabels() == null || !"True".equalsIgnoreCase(container.getLabels().get(ComposeLabels.ONE_OFF)))
+                .collect(Collectors.toList());
+    }
+
+    private boolean isRunning(Container container) {
+        return "running".equals(container.getState());
+    }
+
+    private void startContainer(Container container) {
+        try {
+            dockerClient.get().startContainerCmd(container.getId()).exec();
+        } catch (NotModifiedException ex) {
+            // container has already been started
+        }
+    }
+
+    private void stopContainer(Container container) {
+        try {
+            dockerClient.get().stopContainerCmd(container.getId()).withTimeout(STOP_TIMEOUT_SECONDS).exec();
+        } catch (NotModifiedException ex) {
+            // container has already been stopped
+        }
+    }
+
+    private void killContainer(Container container) {
+        try {
+            dockerClient.get().killContainerCmd(container.getId()).exec();
+        } catch (ConflictException ex) {
+            // container is no longer running
+        }
+    }
+
+    private void startInDependencyOrder(List<Container> containers) {
+        inDependencyOrder(containers, container -> !isRunning(container), false, this::startContainer);
+    }
+
+    private void stopInDependencyOrder(List<Container> containers) {
+        // waves are stopped in reverse order of starting, so no service outlives a service depending on it
+        inDependencyOrder(containers, this::isRunning, true, this::stopContainer);
+    }
+
+    private void inDependencyOrder(List<Container> containers, Predicate<Container> filter, boolean reversed, Consumer<Container> action) {
+        Map<String, List<Container>> services = containers.stream()
+                .filter(filter)
+                .collect(Collectors.groupingBy(this::serviceName, LinkedHashMap::new, Collectors.toList()));
+        List<List<String>> waves = startWaves(services.keySet());
+        if (reversed) {
+            Collections.reverse(waves);
+        }
+        for (List<String> wave : waves) {
+            forEachContainer(wave.stream().flatMap(service -> services.get(service).stream()).collect(Collectors.toList()), container -> true, action);
+        }
+    }
+
+    private List<List<String>> startWaves(Set<String> serviceNames) {
+        ComposeModel model = modelIfAvailable();
+        Map<String, Set<String>> pending = new LinkedHashMap<>();
+        for (String serviceName : serviceNames) {
+            boolean known = model != null && model.hasService(serviceName);
+            pending.put(serviceName, known ? model.service(serviceName).getDependsOn().keySet() : Set.of());
+        }
+
+        List<List<String>> waves = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            List<String> wave = pending.entrySet().stream()
+                    .filter(service -> Collections.disjoint(service.getValue(), pending.keySet()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            if (wave.isEmpty()) {
+                wave = new ArrayList<>(pending.keySet());
+            }
+            wave.forEach(pending::remove);
+            waves.add(wave);
+        }
+        return waves;
+    }
+
+    private ComposeModel modelIfAvailable() {
+        if (model == null && !modelUnavailable) {
+            if (cliExecutor.supportsModel()) {
+                model = cliExecutor.model();
+            } else {
+                log.debug("Compose model of {} is unavailable, services will be started and stopped without regard to depends_on", getProjectName());
+                modelUnavailable = true;
+            }
+        }
+        return model;
+    }
+
+    private String serviceName(Container container) {
+        return container.getLabels() != null ? StringUtils.defaultString(container.getLabels().get(ComposeLabels.SERVICE)) : "";
+    }
+
+    private void forEachContainer(List<Container> containers, Predicate<Container> filter, Consumer<Container> action) {
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            containers.stream().filter(filter).forEach(container -> futures.add(executor.submit(() -> action.accept(container))));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new DockerComposeException("Unexpected exception while executing command through Docker Engine API.", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while executing command through Docker Engine API.", ex);
+        }
+    }
+
+    private ContainerStatus toContainerStatus(Container container) {
+        String status = StringUtils.defaultString(container.getStatus());
+        Matcher exitCode = EXIT_CODE_PATTERN.matcher(status);
+        String name = container.getNames() != null && container.getNames().length > 0 ? StringUtils.removeStart(container.getNames()[0], "/") : "";
+
+        return new ContainerStatus(
+                new ContainerId(container.getId()),
+                name,
+                serviceName(container),
+                container.getState(),
+                health(status),
+                exitCode.matches() ? Integer.parseInt(exitCode.group(1)) : 0,
+                ports(container),
+                container.getLabels() != null ? container.getLabels() : Map.of());
+    }
+
+    private String health(String status) {
+        if (status.contains("(healthy)")) {
+            return "healthy";
+        } else if (status.contains("(unhealthy)")) {
+            return "unhealthy";
+        } else if (status.contains("(health: starting)")) {
+            return "starting";
+        } else {
+            return "";
+        }
+    }
+
+    private Map<String, ContainerPort> ports(Container container) {
+        Map<String, ContainerPort> ports = new HashMap<>();
+        if (container.getPorts() != null) {
+            for (com.github.dockerjava.api.model.ContainerPort port : container.getPorts()) {
+                if (port.getPublicPort() != null && port.getPrivatePort() != null) {
+                    String hostIp = StringUtils.defaultString(port.getIp());
+                    String key = port.getPrivatePort() + "/" + StringUtils.defaultIfBlank(port.getType(), "tcp");
+                    ContainerPort containerPort = new ContainerPort(dockerHost, new PortBinding(hostIp + ":" + port.getPublicPort()));
+                    if (!hostIp.contains(":")) {
+                        ports.put(key, containerPort);
+                    } else {
+                        ports.putIfAbsent(key, containerPort);
+                    }
+                }
+            }
+        }
+        return ports;
+    }
+
+    private List<ContainerId> toIds(List<Container> containers) {
+        return containers.stream().map(container -> new ContainerId(container.getId())).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,116 @@
+package io.brachu.johann.cli;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.dockerjava.api.command.HealthState;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.model.ContainerNetwork;
+import com.github.dockerjava.api.model.Ports;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.ContainerPort;
+import io.brachu.johann.ContainerStatus;
+import io.brachu.johann.PortBinding;
+import io.brachu.johann.ServiceEndpoints;
+import org.apache.commons.lang3.StringUtils;
+
+final class EndpointResolver {
+
+    private final ContainerInspector containerInspector;
+    private final URI dockerHost;
+
+    EndpointResolver(ContainerInspector containerInspector, URI dockerHost) {
+        this.containerInspector = containerInspector;
+        this.dockerHost = dockerHost;
+    }
+
+    ServiceEndpoints resolve(ContainerId containerId) {
+        InspectContainerResponse response = containerInspector.inspect(containerId);
+        return new ServiceEndpoints(serviceName(response), containerId, ports(response), ips(response));
+    }
+
+    ContainerStatus toContainerStatus(ContainerId containerId, InspectContainerResponse response) {
+        InspectContainerResponse.ContainerState state = response.getState();
+        HealthState health = state.getHealth();
+        Long exitCode = state.getExitCodeLong();
+        return new ContainerStatus(
+                containerId,
+                StringUtils.removeStart(response.getName(), "/"),
+                serviceName(response),
+                state.getStatus(),
+                health != null ? health.getStatus() : "",
+                exitCode != null ? exitCode.intValue() : 0,
+                ports(response),
+                labels(response));
+    }
+
+    private String serviceName(InspectContainerResponse response) {
+        return labels(response).get(ComposeLabels.SERVICE);
+    }
+
+    private Map<String, String> labels(InspectContainerResponse response) {
+        Map<String, String> labels = response.getConfig().getLabels();
+        return labels != null ? labels : Map.of();
+    }
+
+    private Map<String, ContainerPort> ports(InspectContainerResponse response) {
+        Map<String, ContainerPort> ports = new HashMap<>();
+        Ports networkPorts = response.getNetworkSettings().getPorts();
+
+        if (networkPorts != null) {
+            networkPorts.getBindings().forEach((exposedPort, bindings) -> {
+                Ports.Binding binding = selectBinding(bindings);
+                if (binding != null) {
+                    ports.put(exposedPort.toString(), toContainerPort(binding));
+                }
+            });
+        }
+
+        return ports;
+    }
+
+    static Ports.Binding selectBinding(Ports.Binding[] bindings) {
+        Ports.Binding selected = null;
+        if (bindings != null) {
+            for (Ports.Binding binding : bindings) {
+                if (StringUtils.isNotBlank(binding.getHostPortSpec())) {
+                    if (!isIpv6(binding)) {
+                        return binding;
+                    } else if (selected == null) {
+                        selected = binding;
+                    }
+                }
+            }
+        }
+        return selected;
+    }
+
+    private static boolean isIpv6(Ports.Binding binding) {
+        return StringUtils.contains(binding.getHostIp(), ':');
+    }
+
+    static PortBinding toPortBinding(Ports.Binding binding) {
+        return new PortBinding(StringUtils.defaultString(binding.getHostIp()) + ":" + binding.getHostPortSpec());
+    }
+
+    private ContainerPort toContainerPort(Ports.Binding binding) {
+        return new ContainerPort(dockerHost, toPortBinding(binding));
+    }
+
+    private Map<String, String> ips(InspectContainerResponse response) {
+        Map<String, String> ips = new HashMap<>();
+        Map<String, ContainerNetwork> networks = response.getNetworkSettings().getNetworks();
+
+        if (networks != null) {
+            networks.forEach((name, network) -> {
+                if (StringUtils.isNotBlank(network.getIpAddress())) {
+                    ips.put(name, network.getIpAddress());
+                }
+            });
+        }
+
+        return ips;
+    }
+
+}
@@ -0,0 +1,47 @@
+package io.brachu.johann.cli;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import io.brachu.johann.LogLine;
+import io.brachu.johann.executor.LogListener;
+
+final class FileLogListener implements LogListener {
+
+    private static final String UNKNOWN_SERVICE_FILE = "docker-compose.log";
+    private static final String ERROR_FILE = "docker-compose-error.log";
+    private static final Pattern UNSAFE_FILE_NAME_CHARS = Pattern.compile("[^A-Za-z0-9._-]");
+
+    private final LogLineParser parser;
+    private final Consumer<LogLine> listener;
+    private final LogFileWriter writer;
+    private final Map<String, String> fileNames;
+
+    FileLogListener(LogLineParser parser, Consumer<LogLine> listener, LogFileWriter writer) {
+        this.parser = parser;
+        this.listener = listener;
+        this.writer = writer;
+        fileNames = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onLine(String line) {
+        int separatorIndex = parser.separatorIndex(line);
+        LogLine logLine = new LogLine(parser.serviceName(line, separatorIndex), parser.message(line, separatorIndex), Instant.now());
+        listener.accept(logLine);
+        writer.write(fileNames.computeIfAbsent(logLine.getServiceName(), FileLogListener::fileName), logLine.getMessage());
+    }
+
+    @Override
+    public void onErrorLine(String line) {
+        writer.write(ERROR_FILE, line);
+    }
+
+    private static String fileName(String serviceName) {
+        return serviceName.isEmpty() ? UNKNOWN_SERVICE_FILE : UNSAFE_FILE_NAME_CHARS.matcher(serviceName).replaceAll("_") + ".log";
+    }
+
+}
@@ -0,0 +1,19 @@
+package io.brachu.johann.cli;
+
+import java.util.concurrent.CompletableFuture;
+
+final class Futures {
+
+    private Futures() {
+    }
+
+    static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<?> source, CompletableFuture<T> dependent) {
+        dependent.whenComplete((result, ex) -> {
+            if (dependent.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return dependent;
+    }
+
+}
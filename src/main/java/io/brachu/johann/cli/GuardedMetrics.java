@@ -0,0 +1,69 @@
+package io.brachu.johann.cli;
+
+import java.time.Duration;
+
+import io.brachu.johann.metrics.CommandEvent;
+import io.brachu.johann.metrics.JohannMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class GuardedMetrics implements JohannMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(GuardedMetrics.class);
+
+    private final JohannMetrics delegate;
+
+    private GuardedMetrics(JohannMetrics delegate) {
+        this.delegate = delegate;
+    }
+
+    static JohannMetrics guard(JohannMetrics metrics) {
+        return metrics == JohannMetrics.NOOP || metrics instanceof GuardedMetrics ? metrics : new GuardedMetrics(metrics);
+    }
+
+    @Override
+    public void commandExecuted(CommandEvent event) {
+        try {
+            delegate.commandExecuted(event);
+        } catch (RuntimeException ex) {
+            log.warn("Metrics listener failed to record command " + event.getCommand(), ex);
+        }
+    }
+
+    @Override
+    public void apiCallExecuted(CommandEvent event) {
+        try {
+            delegate.apiCallExecuted(event);
+        } catch (RuntimeException ex) {
+            log.warn("Metrics listener failed to record API call " + event.getCommand(), ex);
+        }
+    }
+
+    @Override
+    public void waitCompleted(String subject, Duration duration, boolean ready) {
+        try {
+            delegate.waitCompleted(subject, duration, ready);
+        } catch (RuntimeException ex) {
+            log.warn("Metrics listener failed to record wait for " + subject, ex);
+        }
+    }
+
+    @Override
+    public void containerInspected(Duration duration) {
+        try {
+            delegate.containerInspected(duration);
+        } catch (RuntimeException ex) {
+            log.warn("Metrics listener failed to record container inspection", ex);
+        }
+    }
+
+    @Override
+    public void outputTransferStarted(int activeTransfers) {
+        try {
+            delegate.outputTransferStarted(activeTransfers);
+        } catch (RuntimeException ex) {
+            log.warn("Metrics listener failed to record output transfer", ex);
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package io.brachu.johann.cli;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.brachu.johann.PrefetchConfig;
+import io.brachu.johann.PrefetchResult;
+import io.brachu.johann.executor.ComposeExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class ImagePrefetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagePrefetcher.class);
+
+    private static final String THREAD_NAME = "johann-image-prefetch";
+    private static final long PRESENT = -1;
+
+    private final ComposeExecutor composeExecutor;
+
+    ImagePrefetcher(ComposeExecutor composeExecutor) {
+        this.composeExecutor = composeExecutor;
+    }
+
+    CompletableFuture<PrefetchResult> prefetch(Supplier<List<String>> images, PrefetchConfig config) {
+        ExecutorService executor = JohannExecutors.newBoundedExecutor(THREAD_NAME, config.getParallelism());
+        CompletableFuture<PrefetchResult> result;
+        try {
+            result = CompletableFuture.supplyAsync(images, executor).thenCompose(list -> prefetchAll(list, config, executor));
+        } catch (RuntimeException ex) {
+            executor.shutdownNow();
+            throw ex;
+        }
+        result.whenComplete((prefetched, ex) -> executor.shutdownNow());
+        return result;
+    }
+
+    private CompletableFuture<PrefetchResult> prefetchAll(List<String> images, PrefetchConfig config, ExecutorService executor) {
+        log.debug("Prefetching images: {}", images);
+        CompletableFuture<PrefetchResult> result = new CompletableFuture<>();
+        Map<String, CompletableFuture<Long>> pulls = new LinkedHashMap<>();
+        for (String image : images) {
+            pulls.put(image, CompletableFuture.supplyAsync(() -> prefetchImage(image, config), executor));
+        }
+        pulls.values().forEach(pull -> pull.whenComplete((bytes, ex) -> {
+            if (ex != null && result.completeExceptionally(ex)) {
+                // fail fast: interrupt pulls still in progress and drop the ones still waiting for a thread
+                executor.shutdownNow();
+                pulls.values().forEach(other -> other.cancel(true));
+            }
+        }));
+
+        CompletableFuture.allOf(pulls.values().toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            List<String> present = new ArrayList<>();
+            Map<String, Long> pulled = new LinkedHashMap<>();
+            pulls.forEach((image, pull) -> {
+                long bytes = pull.join();
+                if (bytes == PRESENT) {
+                    present.add(image);
+                } else {
+                    pulled.put(image, bytes);
+                }
+            });
+            result.complete(new PrefetchResult(present, pulled));
+        });
+        return result;
+    }
+
+    private long prefetchImage(String image, PrefetchConfig config) {
+        if (composeExecutor.imagePresent(image)) {
+            log.debug("Image {} is already present", image);
+            return PRESENT;
+        }
+        long start = System.nanoTime();
+        long bytes = composeExecutor.pullImage(image, config.getListener());
+        log.debug("Pulled image {} ({} bytes) in {} ms", image, bytes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return bytes;
+    }
+
+}
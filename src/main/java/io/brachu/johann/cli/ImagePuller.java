@@ -0,0 +1,132 @@
+package io.brachu.johann.cli;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.dockerjava.api.command.PullImageCmd;
+import com.github.dockerjava.api.command.PullImageResultCallback;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.PullResponseItem;
+import com.github.dockerjava.api.model.ResponseItem;
+import io.brachu.johann.ImagePullListener;
+import io.brachu.johann.ImagePullProgress;
+import io.brachu.johann.exception.DockerClientException;
+import io.brachu.johann.exception.DockerComposeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class ImagePuller {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagePuller.class);
+
+    private static final String DEFAULT_TAG = "latest";
+
+    private final DockerClientLease dockerClient;
+
+    ImagePuller(DockerClientLease dockerClient) {
+        this.dockerClient = dockerClient;
+    }
+
+    boolean isPresent(String image) {
+        try {
+            dockerClient.get().inspectImageCmd(image).exec();
+            return true;
+        } catch (NotFoundException ex) {
+            return false;
+        } catch (RuntimeException ex) {
+            throw new DockerClientException("Unable to inspect image " + image + ".", ex);
+        }
+    }
+
+    long pull(String image, ImagePullListener listener) {
+        ProgressCallback callback = new ProgressCallback(image, listener);
+        try {
+            pullCmd(image).exec(callback).awaitCompletion();
+            return callback.downloadedBytes();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while pulling image " + image + ".", ex);
+        } catch (RuntimeException ex) {
+            throw new DockerClientException("Unable to pull image " + image + ".", ex);
+        } finally {
+            closeQuietly(callback);
+        }
+    }
+
+    private PullImageCmd pullCmd(String image) {
+        int digest = image.indexOf('@');
+        if (digest >= 0) {
+            return dockerClient.get().pullImageCmd(image);
+        }
+        int tag = image.lastIndexOf(':');
+        if (tag > image.lastIndexOf('/')) {
+            return dockerClient.get().pullImageCmd(image.substring(0, tag)).withTag(image.substring(tag + 1));
+        } else {
+            return dockerClient.get().pullImageCmd(image).withTag(DEFAULT_TAG);
+        }
+    }
+
+    private static void closeQuietly(ProgressCallback callback) {
+        try {
+            callback.close();
+        } catch (Exception ex) {
+            log.trace("Unable to close pull callback", ex);
+        }
+    }
+
+    private static final class ProgressCallback extends PullImageResultCallback {
+
+        private final String image;
+        private final ImagePullListener listener;
+        private final Map<String, Long> layerCurrent;
+        private final Map<String, Long> layerTotal;
+
+        private ProgressCallback(String image, ImagePullListener listener) {
+            this.image = image;
+            this.listener = listener;
+            layerCurrent = new HashMap<>();
+            layerTotal = new HashMap<>();
+        }
+
+        @Override
+        public void onNext(PullResponseItem item) {
+            super.onNext(item);
+            if (item.getId() == null || item.getStatus() == null) {
+                return;
+            }
+
+            ImagePullProgress progress;
+            synchronized (this) {
+                ResponseItem.ProgressDetail detail = item.getProgressDetail();
+                if ("Downloading".equals(item.getStatus()) && detail != null && detail.getCurrent() != null) {
+                    layerCurrent.put(item.getId(), detail.getCurrent());
+                    if (detail.getTotal() != null && detail.getTotal() > 0) {
+                        layerTotal.put(item.getId(), detail.getTotal());
+                    }
+                } else if ("Download complete".equals(item.getStatus())) {
+                    layerCurrent.put(item.getId(), layerTotal.getOrDefault(item.getId(), layerCurrent.getOrDefault(item.getId(), 0L)));
+                }
+                progress = new ImagePullProgress(image, item.getStatus(), sum(layerCurrent), sum(layerTotal));
+            }
+            notifyListener(progress);
+        }
+
+        private synchronized long downloadedBytes() {
+            return sum(layerCurrent);
+        }
+
+        private void notifyListener(ImagePullProgress progress) {
+            try {
+                listener.onProgress(progress);
+            } catch (RuntimeException ex) {
+                log.debug("Image pull listener failed on {}", progress, ex);
+            }
+        }
+
+        private static long sum(Map<String, Long> bytes) {
+            return bytes.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+    }
+
+}
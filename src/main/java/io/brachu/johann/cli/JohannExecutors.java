@@ -0,0 +1,125 @@
+package io.brachu.johann.cli;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import io.brachu.johann.internal.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class JohannExecutors {
+
+    private static final Logger log = LoggerFactory.getLogger(JohannExecutors.class);
+
+    private static final Method VIRTUAL_THREAD_EXECUTOR_FACTORY = findVirtualThreadExecutorFactory();
+
+    private JohannExecutors() {
+    }
+
+    static ExecutorService newBoundedExecutor(String threadName, int maxThreads) {
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        if (virtualExecutor != null) {
+            return new BoundedExecutor(virtualExecutor, maxThreads);
+        }
+        return Executors.newFixedThreadPool(maxThreads, daemonThreadFactory(threadName));
+    }
+
+    static ExecutorService newVirtualThreadExecutor() {
+        if (VIRTUAL_THREAD_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR_FACTORY.invoke(null);
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                log.debug("Unable to create virtual thread executor", ex);
+            }
+        }
+        return null;
+    }
+
+    static ThreadFactory daemonThreadFactory(String threadName) {
+        return new DaemonThreadFactory(threadName);
+    }
+
+    static void shutdownNow(ExecutorService executor) {
+        // tasks which never got to run would leave their futures, and everyone waiting on them, hanging forever
+        executor.shutdownNow().forEach(JohannExecutors::cancel);
+    }
+
+    private static void cancel(Runnable task) {
+        if (task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+        }
+    }
+
+    private static Method findVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    // runs at most maxTasks tasks at once; excess tasks park their virtual threads on the semaphore, just like they would wait in a fixed pool's queue
+    private static final class BoundedExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        private BoundedExecutor(ExecutorService delegate, int maxTasks) {
+            this.delegate = delegate;
+            permits = new Semaphore(maxTasks);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    cancel(command);
+                    return;
+                }
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+
+    }
+
+}
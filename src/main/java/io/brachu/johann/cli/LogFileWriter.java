@@ -0,0 +1,208 @@
+package io.brachu.johann.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.brachu.johann.LogCaptureConfig;
+import io.brachu.johann.LogOverflowPolicy;
+import io.brachu.johann.exception.DockerComposeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class LogFileWriter implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(LogFileWriter.class);
+
+    private static final String THREAD_NAME = "johann-log-writer";
+    private static final int BATCH_SIZE = 512;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Entry END = new Entry(null, null);
+
+    private final LogCaptureConfig config;
+    private final BlockingQueue<Entry> queue;
+    private final Map<String, RotatingLogFile> files;
+    private final Map<String, ByteBuffer> buffers;
+    private final AtomicLong droppedLines;
+    private final CompletableFuture<Void> finished;
+
+    private volatile boolean closed;
+
+    private LogFileWriter(LogCaptureConfig config) {
+        this.config = config;
+        queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        files = new HashMap<>();
+        buffers = new HashMap<>();
+        droppedLines = new AtomicLong();
+        finished = new CompletableFuture<>();
+    }
+
+    static LogFileWriter start(LogCaptureConfig config) {
+        try {
+            Files.createDirectories(config.getDirectory());
+        } catch (IOException ex) {
+            throw new DockerComposeException("Unable to create log capture directory " + config.getDirectory() + ".", ex);
+        }
+
+        LogFileWriter writer = new LogFileWriter(config);
+        JohannExecutors.daemonThreadFactory(THREAD_NAME).newThread(writer::run).start();
+        return writer;
+    }
+
+    void write(String fileName, String line) {
+        if (closed) {
+            droppedLines.incrementAndGet();
+            return;
+        }
+
+        Entry entry = new Entry(fileName, line);
+        if (config.getOverflowPolicy() == LogOverflowPolicy.BLOCK) {
+            try {
+                queue.put(entry);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                droppedLines.incrementAndGet();
+            }
+        } else if (!queue.offer(entry)) {
+            droppedLines.incrementAndGet();
+        }
+    }
+
+    long droppedLines() {
+        return droppedLines.get();
+    }
+
+    CompletableFuture<Void> finished() {
+        return finished;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(END);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            boolean end = false;
+            while (!end) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                end = writeBatch(batch);
+                flushAll();
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeAll();
+            if (droppedLines.get() > 0) {
+                log.warn("Dropped {} log lines while capturing logs to {}", droppedLines.get(), config.getDirectory());
+            }
+            finished.complete(null);
+        }
+    }
+
+    private boolean writeBatch(List<Entry> batch) {
+        for (Entry entry : batch) {
+            if (entry == END) {
+                return true;
+            }
+            append(entry.fileName, (entry.line + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        return false;
+    }
+
+    private void append(String fileName, byte[] bytes) {
+        RotatingLogFile file = file(fileName);
+        if (file == null) {
+            return;
+        }
+
+        ByteBuffer buffer = buffers.computeIfAbsent(fileName, name -> ByteBuffer.allocate(BUFFER_SIZE));
+        if (bytes.length > buffer.remaining() || buffer.position() + bytes.length > file.remainingCapacity()) {
+            flush(fileName, buffer);
+        }
+        if (bytes.length > buffer.remaining()) {
+            writeToFile(fileName, ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private void flushAll() {
+        buffers.forEach(this::flush);
+    }
+
+    private void flush(String fileName, ByteBuffer buffer) {
+        if (buffer.position() > 0) {
+            buffer.flip();
+            writeToFile(fileName, buffer);
+            buffer.clear();
+        }
+    }
+
+    private void writeToFile(String fileName, ByteBuffer bytes) {
+        try {
+            files.get(fileName).write(bytes);
+        } catch (IOException ex) {
+            log.warn("Unable to write captured logs to " + fileName, ex);
+        }
+    }
+
+    private RotatingLogFile file(String fileName) {
+        RotatingLogFile file = files.get(fileName);
+        if (file == null) {
+            try {
+                file = new RotatingLogFile(config.getDirectory().resolve(fileName), config.getMaxFileSize(), config.getMaxRotatedFiles(),
+                        config.isGzip());
+                files.put(fileName, file);
+            } catch (IOException ex) {
+                log.warn("Unable to open log file " + fileName, ex);
+            }
+        }
+        return file;
+    }
+
+    private void closeAll() {
+        for (Map.Entry<String, RotatingLogFile> file : files.entrySet()) {
+            try {
+                file.getValue().close();
+            } catch (IOException ex) {
+                log.warn("Unable to close log file " + file.getKey(), ex);
+            }
+        }
+        files.clear();
+    }
+
+    private static final class Entry {
+
+        private final String fileName;
+        private final String line;
+
+        private Entry(String fileName, String line) {
+            this.fileName = fileName;
+            this.line = line;
+        }
+
+    }
+
+}
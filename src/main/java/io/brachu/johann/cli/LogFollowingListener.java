@@ -0,0 +1,44 @@
+package io.brachu.johann.cli;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import io.brachu.johann.LogLine;
+import io.brachu.johann.executor.LogListener;
+
+final class LogFollowingListener implements LogListener {
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private final LogLineParser parser;
+    private final Consumer<LogLine> listener;
+
+    LogFollowingListener(PrintStream out, PrintStream err, LogLineParser parser, Consumer<LogLine> listener) {
+        this.out = out;
+        this.err = err;
+        this.parser = parser;
+        this.listener = listener;
+    }
+
+    static LogFollowingListener silent(LogLineParser parser, Consumer<LogLine> listener) {
+        return new LogFollowingListener(null, null, parser, listener);
+    }
+
+    @Override
+    public void onLine(String line) {
+        if (out != null) {
+            out.println(line);
+        }
+        int separatorIndex = parser.separatorIndex(line);
+        listener.accept(new LogLine(parser.serviceName(line, separatorIndex), parser.message(line, separatorIndex), Instant.now()));
+    }
+
+    @Override
+    public void onErrorLine(String line) {
+        if (err != null) {
+            err.println(line);
+        }
+    }
+
+}
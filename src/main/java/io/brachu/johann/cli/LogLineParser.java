@@ -0,0 +1,78 @@
+package io.brachu.johann.cli;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+final class LogLineParser {
+
+    private static final char SEPARATOR = '|';
+
+    private final String projectName;
+
+    LogLineParser(String projectName) {
+        this.projectName = projectName.toLowerCase();
+    }
+
+    int separatorIndex(String line) {
+        return line.indexOf(SEPARATOR);
+    }
+
+    String serviceName(String line, int separatorIndex) {
+        if (separatorIndex < 0) {
+            return "";
+        }
+
+        int start = 0;
+        int end = separatorIndex;
+        while (end > start && line.charAt(end - 1) == ' ') {
+            --end;
+        }
+
+        int replicaStart = end;
+        while (replicaStart > start && Character.isDigit(line.charAt(replicaStart - 1))) {
+            --replicaStart;
+        }
+        if (replicaStart < end && replicaStart > start + 1 && isNameSeparator(line.charAt(replicaStart - 1))) {
+            end = replicaStart - 1;
+        }
+
+        if (line.startsWith(projectName, start) && end > projectName.length() + 1 && isNameSeparator(line.charAt(projectName.length()))) {
+            start = projectName.length() + 1;
+        }
+
+        return line.substring(start, end);
+    }
+
+    String message(String line, int separatorIndex) {
+        if (separatorIndex < 0) {
+            return line;
+        }
+        int start = separatorIndex + 1;
+        if (start < line.length() && line.charAt(start) == ' ') {
+            ++start;
+        }
+        return line.substring(start);
+    }
+
+    Instant timestamp(String message) {
+        int end = message.indexOf(' ');
+        if (end <= 0 || !Character.isDigit(message.charAt(0))) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(message.substring(0, end)).toInstant();
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    String withoutTimestamp(String message) {
+        return message.substring(message.indexOf(' ') + 1);
+    }
+
+    private static boolean isNameSeparator(char character) {
+        return character == '-' || character == '_';
+    }
+
+}
@@ -0,0 +1,64 @@
+package io.brachu.johann.cli;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.brachu.johann.executor.LogListener;
+
+final class LogListenerSink implements ProcessOutputSink {
+
+    private static final int ERROR_BUFFER_SIZE = 100;
+
+    private final LogListener listener;
+    private final RecentLines<String> recentErrorLines;
+
+    private final AtomicLong outputBytes;
+
+    private CompletableFuture<Void> transferred;
+
+    private LogListenerSink(LogListener listener) {
+        this.listener = listener;
+        recentErrorLines = new RecentLines<>(ERROR_BUFFER_SIZE);
+        outputBytes = new AtomicLong();
+    }
+
+    static LogListenerSink create(Process process, ProcessOutputTransfer transfer, LogListener listener) {
+        LogListenerSink sink = new LogListenerSink(listener);
+        sink.transferred = transfer.follow(process, sink);
+        return sink;
+    }
+
+    @Override
+    public void takeLine(String line) {
+        outputBytes.addAndGet(line.length() + 1);
+        listener.onLine(line);
+    }
+
+    @Override
+    public void takeErrorLine(String line) {
+        outputBytes.addAndGet(line.length() + 1);
+        recentErrorLines.add(line);
+        listener.onErrorLine(line);
+    }
+
+    @Override
+    public String standardOutput() {
+        return "";
+    }
+
+    @Override
+    public String errorOutput() {
+        return String.join(System.lineSeparator(), recentErrorLines.snapshot());
+    }
+
+    @Override
+    public long outputBytes() {
+        return outputBytes.get();
+    }
+
+    @Override
+    public CompletableFuture<Void> transferred() {
+        return transferred;
+    }
+
+}
@@ -0,0 +1,72 @@
+package io.brachu.johann.cli;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import io.brachu.johann.LogLine;
+import io.brachu.johann.LogSubscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class LogStore implements Consumer<LogLine> {
+
+    private static final Logger log = LoggerFactory.getLogger(LogStore.class);
+
+    private final int bufferSize;
+    private final Map<String, RecentLines<LogLine>> recentLines;
+    private final Map<String, Set<Consumer<LogLine>>> subscribers;
+
+    LogStore(int bufferSize) {
+        this.bufferSize = bufferSize;
+        recentLines = new ConcurrentHashMap<>();
+        subscribers = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void accept(LogLine line) {
+        recentLines.computeIfAbsent(line.getServiceName(), service -> new RecentLines<>(bufferSize)).add(line);
+
+        Set<Consumer<LogLine>> serviceSubscribers = subscribers.get(line.getServiceName());
+        if (serviceSubscribers != null) {
+            for (Consumer<LogLine> subscriber : serviceSubscribers) {
+                notify(subscriber, line);
+            }
+        }
+    }
+
+    List<LogLine> recent(String serviceName) {
+        RecentLines<LogLine> lines = recentLines.get(serviceName);
+        return lines != null ? lines.snapshot() : List.of();
+    }
+
+    Set<String> subscribedServices() {
+        return subscribers.entrySet().stream().filter(entry -> !entry.getValue().isEmpty()).map(Map.Entry::getKey).collect(Collectors.toSet());
+    }
+
+    void clear() {
+        recentLines.clear();
+    }
+
+    void clear(String serviceName) {
+        recentLines.remove(serviceName);
+    }
+
+    LogSubscription subscribe(String serviceName, Consumer<LogLine> subscriber) {
+        Consumer<LogLine> registration = subscriber::accept;
+        subscribers.computeIfAbsent(serviceName, service -> ConcurrentHashMap.newKeySet()).add(registration);
+        return () -> subscribers.get(serviceName).remove(registration);
+    }
+
+    private void notify(Consumer<LogLine> subscriber, LogLine line) {
+        try {
+            subscriber.accept(line);
+        } catch (RuntimeException ex) {
+            log.warn("Log subscriber of " + line.getServiceName() + " service threw an exception", ex);
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package io.brachu.johann.cli;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.brachu.johann.WaitPolicy;
+
+final class PollingBackoff {
+
+    private final double multiplier;
+    private final double jitter;
+    private final long maxIntervalNanos;
+    private long intervalNanos;
+
+    PollingBackoff(WaitPolicy policy) {
+        multiplier = policy.getMultiplier();
+        jitter = policy.getJitter();
+        maxIntervalNanos = policy.getMaxInterval().toNanos();
+        intervalNanos = policy.getInitialInterval().toNanos();
+    }
+
+    long nextDelayNanos() {
+        long delay = intervalNanos;
+        intervalNanos = (long) Math.min(intervalNanos * multiplier, maxIntervalNanos);
+        if (jitter > 0.0) {
+            delay = (long) (delay * ThreadLocalRandom.current().nextDouble(1.0 - jitter, 1.0 + jitter));
+        }
+        return Math.max(delay, 1);
+    }
+
+}
@@ -1,6 +1,8 @@
 package io.brachu.johann.cli;
 
 import java.io.PrintStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 class PrintStreamProcessOutputSink implements ProcessOutputSink {
 
@@ -10,27 +12,33 @@ class PrintStreamProcessOutputSink implements ProcessOutputSink {
     private final StringBuffer sunkLines;
     private final StringBuffer sunkErrorLines;
 
+    private final AtomicLong outputBytes;
+
+    private CompletableFuture<Void> transferred;
+
     PrintStreamProcessOutputSink(PrintStream out, PrintStream err) {
         this.out = out;
         this.err = err;
         this.sunkLines = new StringBuffer();
         this.sunkErrorLines = new StringBuffer();
+        this.outputBytes = new AtomicLong();
+        this.transferred = CompletableFuture.completedFuture(null);
     }
 
-    static PrintStreamProcessOutputSink create(Process process, PrintStream out, PrintStream err) {
-        PrintStreamProcessOutputSink sink = new PrintStreamProcessOutputSink(out, err);
-        ProcessOutputTransfer.start(process, sink);
-        return sink;
+    void transferFrom(Process process, ProcessOutputTransfer transfer) {
+        transferred = transfer.start(process, this);
     }
 
     @Override
     public void takeLine(String line) {
+        outputBytes.addAndGet(line.length() + 1);
         out.println(line);
         sunkLines.append(line).append(System.lineSeparator());
     }
 
     @Override
     public void takeErrorLine(String line) {
+        outputBytes.addAndGet(line.length() + 1);
         err.println(line);
         sunkErrorLines.append(line).append(System.lineSeparator());
     }
@@ -45,4 +53,14 @@ class PrintStreamProcessOutputSink implements ProcessOutputSink {
         return sunkErrorLines.toString();
     }
 
+    @Override
+    public long outputBytes() {
+        return outputBytes.get();
+    }
+
+    @Override
+    public CompletableFuture<Void> transferred() {
+        return transferred;
+    }
+
 }
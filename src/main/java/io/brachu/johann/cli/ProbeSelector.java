@@ -0,0 +1,347 @@
+package io.brachu.johann.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.brachu.johann.ContainerPort;
+import io.brachu.johann.ProbeType;
+import io.brachu.johann.ReadinessProbe;
+import io.brachu.johann.WaitPolicy;
+import io.brachu.johann.exception.DockerComposeException;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class ProbeSelector implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProbeSelector.class);
+
+    private static final String THREAD_NAME = "johann-probe-selector";
+    private static final String PREDICATE_THREAD_NAME = "johann-probe-predicate";
+    private static final int MAX_PREDICATE_THREADS = 4;
+    private static final int RESPONSE_BUFFER_SIZE = 1024;
+
+    private final Selector selector;
+    private final Queue<Runnable> tasks;
+    private final PriorityQueue<ScheduledTask> scheduled;
+    private final Set<Attempt> attempts;
+    private final ExecutorService predicateExecutor;
+    private final Thread thread;
+
+    private volatile boolean closed;
+
+    ProbeSelector() {
+        try {
+            selector = Selector.open();
+        } catch (IOException ex) {
+            throw new DockerComposeException("Unable to open selector for readiness probes.", ex);
+        }
+        tasks = new ConcurrentLinkedQueue<>();
+        scheduled = new PriorityQueue<>(Comparator.comparingLong(ScheduledTask::dueNanos));
+        attempts = ConcurrentHashMap.newKeySet();
+        predicateExecutor = JohannExecutors.newBoundedExecutor(PREDICATE_THREAD_NAME, MAX_PREDICATE_THREADS);
+        thread = JohannExecutors.daemonThreadFactory(THREAD_NAME).newThread(this::run);
+        thread.start();
+    }
+
+    CompletableFuture<Void> probe(ReadinessProbe probe, ContainerPort port, WaitPolicy policy) {
+        Validate.validState(!closed, "Readiness probes have already been closed");
+        Attempt attempt = new Attempt(probe, port, new PollingBackoff(policy));
+        attempts.add(attempt);
+        attempt.result.whenComplete((result, ex) -> {
+            attempts.remove(attempt);
+            execute(attempt::closeChannel);
+        });
+        execute(attempt::start);
+        return attempt.result;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        predicateExecutor.shutdownNow();
+    }
+
+    private void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    private void schedule(long delayNanos, Runnable task) {
+        scheduled.add(new ScheduledTask(System.nanoTime() + delayNanos, task));
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select(selectTimeoutMillis());
+                runTasks();
+                runScheduledTasks();
+                handleSelectedKeys();
+            }
+        } catch (IOException | ClosedSelectorException ex) {
+            log.warn("Readiness probe selector failed", ex);
+        } finally {
+            shutdown();
+        }
+    }
+
+    private long selectTimeoutMillis() {
+        ScheduledTask next = scheduled.peek();
+        if (next == null) {
+            return 0;
+        }
+        long remaining = next.dueNanos() - System.nanoTime();
+        return Math.max(TimeUnit.NANOSECONDS.toMillis(remaining + TimeUnit.MILLISECONDS.toNanos(1) - 1), 1);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void runScheduledTasks() {
+        long now = System.nanoTime();
+        while (!scheduled.isEmpty() && scheduled.peek().dueNanos() - now <= 0) {
+            scheduled.poll().task().run();
+        }
+    }
+
+    private void handleSelectedKeys() {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            ((Attempt) key.attachment()).handle(key);
+        }
+    }
+
+    private void shutdown() {
+        DockerComposeException failure = new DockerComposeException("Readiness probes have been closed.");
+        attempts.forEach(attempt -> attempt.result.completeExceptionally(failure));
+        for (SelectionKey key : selector.keys()) {
+            ((Attempt) key.attachment()).closeChannel();
+        }
+        try {
+            selector.close();
+        } catch (IOException ex) {
+            log.debug("Unable to close readiness probe selector", ex);
+        }
+    }
+
+    private static String hostOf(ContainerPort port) {
+        URI host = port.getHost();
+        return host != null && host.getHost() != null ? host.getHost() : "localhost";
+    }
+
+    private static final class ScheduledTask {
+
+        private final long dueNanos;
+        private final Runnable task;
+
+        private ScheduledTask(long dueNanos, Runnable task) {
+            this.dueNanos = dueNanos;
+            this.task = task;
+        }
+
+        private long dueNanos() {
+            return dueNanos;
+        }
+
+        private Runnable task() {
+            return task;
+        }
+
+    }
+
+    private final class Attempt {
+
+        private final ReadinessProbe probe;
+        private final ContainerPort port;
+        private final String host;
+        private final InetSocketAddress address;
+        private final PollingBackoff backoff;
+        private final CompletableFuture<Void> result;
+
+        private SocketChannel channel;
+        private ByteBuffer request;
+        private ByteBuffer response;
+        private int generation;
+
+        private Attempt(ReadinessProbe probe, ContainerPort port, PollingBackoff backoff) {
+            this.probe = probe;
+            this.port = port;
+            this.backoff = backoff;
+            host = hostOf(port);
+            address = new InetSocketAddress(host, port.getPort());
+            result = new CompletableFuture<>();
+        }
+
+        private void start() {
+            if (result.isDone()) {
+                return;
+            }
+            if (probe.getType() == ProbeType.CUSTOM) {
+                testPredicate();
+                return;
+            }
+
+            int current = ++generation;
+            try {
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                if (channel.connect(address)) {
+                    connected();
+                } else {
+                    channel.register(selector, SelectionKey.OP_CONNECT, this);
+                }
+                schedule(probe.getAttemptTimeout().toNanos(), () -> timeOut(current));
+            } catch (IOException ex) {
+                retry(ex.toString());
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            try {
+                if (!key.isValid()) {
+                    return;
+                }
+                if (key.isConnectable()) {
+                    channel.finishConnect();
+                    connected();
+                } else if (key.isWritable()) {
+                    write();
+                } else if (key.isReadable()) {
+                    read();
+                }
+            } catch (IOException ex) {
+                retry(ex.toString());
+            }
+        }
+
+        private void connected() throws IOException {
+            if (probe.getType() == ProbeType.TCP) {
+                closeChannel();
+                result.complete(null);
+                return;
+            }
+
+            String httpRequest = "GET " + probe.getPath() + " HTTP/1.1\r\n"
+                    + "Host: " + host + ":" + port.getPort() + "\r\n"
+                    + "Connection: close\r\n\r\n";
+            request = ByteBuffer.wrap(httpRequest.getBytes(StandardCharsets.US_ASCII));
+            response = ByteBuffer.allocate(RESPONSE_BUFFER_SIZE);
+            channel.register(selector, SelectionKey.OP_WRITE, this);
+        }
+
+        private void write() throws IOException {
+            channel.write(request);
+            if (!request.hasRemaining()) {
+                channel.register(selector, SelectionKey.OP_READ, this);
+            }
+        }
+
+        private void read() throws IOException {
+            int read = channel.read(response);
+            int status = parseStatus();
+            if (status >= 0) {
+                closeChannel();
+                if (probe.isExpectedStatus(status)) {
+                    result.complete(null);
+                } else {
+                    retry("unexpected HTTP status " + status);
+                }
+            } else if (read < 0 || !response.hasRemaining()) {
+                retry("connection closed before HTTP status line was received");
+            }
+        }
+
+        private int parseStatus() {
+            byte[] bytes = response.array();
+            for (int i = 1; i < response.position(); ++i) {
+                if (bytes[i - 1] == '\r' && bytes[i] == '\n') {
+                    String[] statusLine = new String(bytes, 0, i - 1, StandardCharsets.US_ASCII).split(" ");
+                    try {
+                        return statusLine.length > 1 ? Integer.parseInt(statusLine[1]) : 0;
+                    } catch (NumberFormatException ex) {
+                        return 0;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private void testPredicate() {
+            try {
+                predicateExecutor.execute(() -> {
+                    boolean ready;
+                    try {
+                        ready = probe.test(port);
+                    } catch (RuntimeException ex) {
+                        log.trace("{} failed", probe, ex);
+                        ready = false;
+                    }
+                    boolean passed = ready;
+                    execute(() -> {
+                        if (passed) {
+                            result.complete(null);
+                        } else {
+                            retry("predicate not satisfied");
+                        }
+                    });
+                });
+            } catch (RejectedExecutionException ex) {
+                log.debug("Readiness probes have been closed, dropping {}", probe, ex);
+            }
+        }
+
+        private void timeOut(int expectedGeneration) {
+            if (generation == expectedGeneration && channel != null) {
+                retry("attempt timed out after " + probe.getAttemptTimeout().toMillis() + " ms");
+            }
+        }
+
+        private void retry(String reason) {
+            closeChannel();
+            if (!result.isDone()) {
+                log.trace("{} of {} failed: {}", probe, host, reason);
+                schedule(backoff.nextDelayNanos(), this::start);
+            }
+        }
+
+        private void closeChannel() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    log.trace("Unable to close channel of {}", probe, ex);
+                }
+                channel = null;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package io.brachu.johann.cli;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.brachu.johann.executor.LogStream;
+
+final class ProcessLogStream implements LogStream {
+
+    private final Process process;
+    private final CompletableFuture<Void> transferred;
+
+    ProcessLogStream(Process process, CompletableFuture<Void> transferred) {
+        this.process = process;
+        this.transferred = transferred;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    @Override
+    public CompletableFuture<Void> finished() {
+        return transferred;
+    }
+
+    @Override
+    public void close() {
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+    }
+
+}
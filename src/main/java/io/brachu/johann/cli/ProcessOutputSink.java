@@ -1,6 +1,7 @@
 package io.brachu.johann.cli;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 interface ProcessOutputSink {
 
@@ -12,4 +13,8 @@ interface ProcessOutputSink {
 
     String errorOutput() throws IOException;
 
+    long outputBytes();
+
+    CompletableFuture<Void> transferred();
+
 }
@@ -3,6 +3,6 @@ package io.brachu.johann.cli;
 @FunctionalInterface
 interface ProcessOutputSinkFactory {
 
-    ProcessOutputSink create(Process process);
+    ProcessOutputSink create(Process process, ProcessOutputTransfer transfer);
 
 }
@@ -1,26 +1,161 @@
 package io.brachu.johann.cli;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import io.brachu.johann.exception.DockerComposeException;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-final class ProcessOutputTransfer {
+final class ProcessOutputTransfer implements Closeable {
 
     public static final String TRANSFER_THREAD_NAME = "johann-process-output-transfer";
+    public static final String FOLLOWER_THREAD_NAME = TRANSFER_THREAD_NAME + "-follower";
 
-    private ProcessOutputTransfer() {
+    private static final Logger log = LoggerFactory.getLogger(ProcessOutputTransfer.class);
+
+    private static final int SHARED_MAX_THREADS = 256;
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 30;
+    private static final long THREAD_WAIT_TIMEOUT_SECONDS = 30;
+
+    private static ProcessOutputTransfer shared;
+    private static int sharedReferences;
+
+    private final int maxThreads;
+    private final ExecutorService executor;
+    private final ExecutorService followerExecutor;
+    private final Semaphore threads;
+    private final AtomicInteger activeFollowers;
+
+    ProcessOutputTransfer(int maxThreads) {
+        Validate.isTrue(maxThreads > 1, "maxThreads <= 1");
+        this.maxThreads = maxThreads;
+        ExecutorService virtualExecutor = JohannExecutors.newVirtualThreadExecutor();
+        executor = virtualExecutor != null ? virtualExecutor : newPlatformExecutor(maxThreads);
+        ExecutorService virtualFollowerExecutor = JohannExecutors.newVirtualThreadExecutor();
+        followerExecutor = virtualFollowerExecutor != null ? virtualFollowerExecutor
+                : Executors.newCachedThreadPool(JohannExecutors.daemonThreadFactory(FOLLOWER_THREAD_NAME));
+        threads = new Semaphore(maxThreads);
+        activeFollowers = new AtomicInteger();
+    }
+
+    static synchronized ProcessOutputTransfer retainShared() {
+        if (shared == null) {
+            shared = new ProcessOutputTransfer(SHARED_MAX_THREADS);
+        }
+        ++sharedReferences;
+        return shared;
+    }
+
+    static synchronized void releaseShared(ProcessOutputTransfer transfer) {
+        Validate.isTrue(transfer == shared, "Given output transfer is not the shared one");
+        if (--sharedReferences == 0) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    CompletableFuture<Void> start(Process process, ProcessOutputSink sink) {
+        return start(createTransfer(process.getInputStream(), sink::takeLine), createTransfer(process.getErrorStream(), sink::takeErrorLine));
+    }
+
+    CompletableFuture<Void> start(Runnable standardOutputTransfer, Runnable errorOutputTransfer) {
+        acquireThreads();
+        CompletableFuture<Void> standardOutput;
+        try {
+            standardOutput = submit(executor, standardOutputTransfer, threads::release);
+        } catch (RuntimeException ex) {
+            threads.release();
+            throw ex;
+        }
+        return CompletableFuture.allOf(standardOutput, submit(executor, errorOutputTransfer, threads::release));
+    }
+
+    CompletableFuture<Void> follow(Process process, ProcessOutputSink sink) {
+        return follow(createTransfer(process.getInputStream(), sink::takeLine), createTransfer(process.getErrorStream(), sink::takeErrorLine));
+    }
+
+    // followed logs keep their threads for as long as the followed cluster runs, so they are kept out of the budget of short-lived commands
+    CompletableFuture<Void> follow(Runnable standardOutputTransfer, Runnable errorOutputTransfer) {
+        activeFollowers.addAndGet(2);
+        CompletableFuture<Void> standardOutput;
+        try {
+            standardOutput = submit(followerExecutor, standardOutputTransfer, activeFollowers::decrementAndGet);
+        } catch (RuntimeException ex) {
+            activeFollowers.decrementAndGet();
+            throw ex;
+        }
+        return CompletableFuture.allOf(standardOutput, submit(followerExecutor, errorOutputTransfer, activeFollowers::decrementAndGet));
+    }
+
+    int activeTransfers() {
+        return maxThreads - threads.availablePermits() + activeFollowers.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        followerExecutor.shutdownNow();
+    }
+
+    private void acquireThreads() {
+        try {
+            // both outputs of a process are acquired at once, so that two processes never end up holding one thread each while waiting for another
+            if (!threads.tryAcquire(2, THREAD_WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new DockerComposeException("Unable to transfer output of docker-compose process. All " + maxThreads
+                        + " process output transfer threads have been busy for " + THREAD_WAIT_TIMEOUT_SECONDS + " seconds.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while waiting for a process output transfer thread.", ex);
+        }
+    }
+
+    private CompletableFuture<Void> submit(ExecutorService transferExecutor, Runnable transfer, Runnable onFinish) {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        Runnable counted = () -> {
+            log.trace("Started process output transfer, {} active", activeTransfers());
+            try {
+                transfer.run();
+                completion.complete(null);
+            } catch (RuntimeException ex) {
+                completion.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                onFinish.run();
+            }
+        };
+
+        try {
+            transferExecutor.execute(counted);
+        } catch (RejectedExecutionException ex) {
+            onFinish.run();
+            throw new DockerComposeException("Unable to transfer output of docker-compose process. Output transfer pool has already been closed.");
+        }
+        return completion;
     }
 
-    static void start(Process process, ProcessOutputSink sink) {
-        Thread standardOutputTransfer = new Thread(createTransfer(process.getInputStream(), sink::takeLine), TRANSFER_THREAD_NAME);
-        Thread errorOutputTransfer = new Thread(createTransfer(process.getErrorStream(), sink::takeErrorLine), TRANSFER_THREAD_NAME);
-        standardOutputTransfer.start();
-        errorOutputTransfer.start();
+    private static ExecutorService newPlatformExecutor(int maxThreads) {
+        // the semaphore never lets more transfers in than there are threads, so a queued transfer only waits for a thread which has just finished
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), JohannExecutors.daemonThreadFactory(TRANSFER_THREAD_NAME));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     private static Runnable createTransfer(InputStream input, Consumer<String> lineConsumer) {
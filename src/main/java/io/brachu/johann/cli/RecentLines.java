@@ -0,0 +1,35 @@
+package io.brachu.johann.cli;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class RecentLines<T> {
+
+    private final Object[] lines;
+    private int next;
+    private int size;
+
+    RecentLines(int capacity) {
+        lines = new Object[capacity];
+    }
+
+    synchronized void add(T line) {
+        if (lines.length == 0) {
+            return;
+        }
+        lines[next] = line;
+        next = (next + 1) % lines.length;
+        size = Math.min(size + 1, lines.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized List<T> snapshot() {
+        List<T> snapshot = new ArrayList<>(size);
+        int first = (next - size + lines.length) % Math.max(lines.length, 1);
+        for (int i = 0; i < size; ++i) {
+            snapshot.add((T) lines[(first + i) % lines.length]);
+        }
+        return snapshot;
+    }
+
+}
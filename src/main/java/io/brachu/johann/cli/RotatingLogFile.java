@@ -0,0 +1,88 @@
+package io.brachu.johann.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+final class RotatingLogFile implements Closeable {
+
+    private final Path path;
+    private final long maxSize;
+    private final int maxRotatedFiles;
+    private final boolean gzip;
+
+    private FileChannel channel;
+    private long size;
+
+    RotatingLogFile(Path path, long maxSize, int maxRotatedFiles, boolean gzip) throws IOException {
+        this.path = path;
+        this.maxSize = maxSize;
+        this.maxRotatedFiles = maxRotatedFiles;
+        this.gzip = gzip;
+        open();
+    }
+
+    void write(ByteBuffer buffer) throws IOException {
+        if (size > 0 && size + buffer.remaining() > maxSize) {
+            rotate();
+        }
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer);
+        }
+    }
+
+    long remainingCapacity() {
+        return maxSize - size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        if (maxRotatedFiles == 0) {
+            Files.delete(path);
+        } else {
+            Files.deleteIfExists(rotatedPath(maxRotatedFiles));
+            for (int i = maxRotatedFiles - 1; i >= 1; --i) {
+                Path rotated = rotatedPath(i);
+                if (Files.exists(rotated)) {
+                    Files.move(rotated, rotatedPath(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (gzip) {
+                compress(path, rotatedPath(1));
+                Files.delete(path);
+            } else {
+                Files.move(path, rotatedPath(1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        open();
+    }
+
+    private Path rotatedPath(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index + (gzip ? ".gz" : ""));
+    }
+
+    private static void compress(Path source, Path target) throws IOException {
+        try (InputStream in = Files.newInputStream(source); OutputStream out = new GZIPOutputStream(Files.newOutputStream(target))) {
+            in.transferTo(out);
+        }
+    }
+
+}
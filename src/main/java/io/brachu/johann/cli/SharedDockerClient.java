@@ -0,0 +1,58 @@
+package io.brachu.johann.cli;
+
+import java.io.IOException;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.core.DockerClientConfig;
+import io.brachu.johann.DockerApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class SharedDockerClient {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedDockerClient.class);
+
+    private final DockerClientConfig config;
+    private final DockerApiConfig apiConfig;
+
+    private int references;
+    private DockerClient client;
+    private boolean closed;
+
+    SharedDockerClient(DockerClientConfig config, DockerApiConfig apiConfig) {
+        this.config = config;
+        this.apiConfig = apiConfig;
+    }
+
+    void retain() {
+        ++references;
+    }
+
+    boolean release() {
+        return --references == 0;
+    }
+
+    synchronized DockerClient get() {
+        if (client == null) {
+            if (closed) {
+                throw new IllegalStateException("Docker client has already been closed");
+            }
+            log.debug("Creating docker client for {}", config.getDockerHost());
+            client = DockerClientRegistry.create(config, apiConfig);
+        }
+        return client;
+    }
+
+    synchronized void close() {
+        closed = true;
+        if (client != null) {
+            try {
+                client.close();
+            } catch (IOException ex) {
+                log.debug("Unable to close docker client", ex);
+            }
+            client = null;
+        }
+    }
+
+}
@@ -0,0 +1,259 @@
+package io.brachu.johann.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+final class StreamingProcessOutputSink implements ProcessOutputSink {
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 10;
+
+    private final OutputDrain standardOutput;
+    private final OutputDrain errorOutput;
+    private final CompletableFuture<Void> transferred;
+
+    private StreamingProcessOutputSink(OutputDrain standardOutput, OutputDrain errorOutput, CompletableFuture<Void> transferred) {
+        this.standardOutput = standardOutput;
+        this.errorOutput = errorOutput;
+        this.transferred = transferred;
+    }
+
+    static StreamingProcessOutputSink create(Process process, ProcessOutputTransfer transfer) {
+        return start(transfer, new BufferingDrain(process.getInputStream()), new BufferingDrain(process.getErrorStream()));
+    }
+
+    static ProcessOutputSinkFactory lineParsing(Consumer<String> lineParser) {
+        return (process, transfer) -> start(transfer, new LineParsingDrain(process.getInputStream(), lineParser),
+                new BufferingDrain(process.getErrorStream()));
+    }
+
+    private static StreamingProcessOutputSink start(ProcessOutputTransfer transfer, OutputDrain standardOutput, OutputDrain errorOutput) {
+        return new StreamingProcessOutputSink(standardOutput, errorOutput, transfer.start(standardOutput, errorOutput));
+    }
+
+    @Override
+    public void takeLine(String line) {
+        // output is drained directly from process streams
+    }
+
+    @Override
+    public void takeErrorLine(String line) {
+        // output is drained directly from process streams
+    }
+
+    @Override
+    public String standardOutput() throws IOException {
+        return standardOutput.await();
+    }
+
+    @Override
+    public String errorOutput() throws IOException {
+        return errorOutput.await();
+    }
+
+    @Override
+    public long outputBytes() {
+        return standardOutput.bytes() + errorOutput.bytes();
+    }
+
+    @Override
+    public CompletableFuture<Void> transferred() {
+        return transferred;
+    }
+
+    private abstract static class OutputDrain implements Runnable {
+
+        private final InputStream input;
+        private final CountDownLatch drained;
+        private volatile IOException failure;
+        private volatile long bytes;
+
+        OutputDrain(InputStream input) {
+            this.input = input;
+            drained = new CountDownLatch(1);
+        }
+
+        @Override
+        public void run() {
+            try (input) {
+                int read;
+                while ((read = read(input)) != -1) {
+                    bytes += read;
+                }
+                finish();
+            } catch (IOException ex) {
+                failure = ex;
+            } catch (RuntimeException ex) {
+                failure = new IOException("Unable to process output of docker-compose process.", ex);
+            } finally {
+                releaseChunks();
+                drained.countDown();
+            }
+        }
+
+        String await() throws IOException {
+            try {
+                if (!drained.await(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IOException("Timed out while draining output of docker-compose process.");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while draining output of docker-compose process.");
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+            return content();
+        }
+
+        long bytes() {
+            return bytes;
+        }
+
+        abstract int read(InputStream input) throws IOException;
+
+        abstract void finish();
+
+        abstract void releaseChunks();
+
+        abstract String content();
+
+    }
+
+    private static final class BufferingDrain extends OutputDrain {
+
+        private final List<byte[]> chunks;
+        private byte[] chunk;
+        private int chunkLength;
+        private String content;
+
+        BufferingDrain(InputStream input) {
+            super(input);
+            chunks = new ArrayList<>();
+        }
+
+        @Override
+        int read(InputStream input) throws IOException {
+            // short reads fill the current chunk further, so a chunk is only taken from the pool once the previous one is full
+            if (chunk == null || chunkLength == chunk.length) {
+                chunk = ByteChunkPool.SHARED.acquire();
+                chunkLength = 0;
+                chunks.add(chunk);
+            }
+            int read = input.read(chunk, chunkLength, chunk.length - chunkLength);
+            if (read > 0) {
+                chunkLength += read;
+            }
+            return read;
+        }
+
+        @Override
+        void finish() {
+            int size = chunks.stream().limit(chunks.size() - 1).mapToInt(full -> full.length).sum() + chunkLength;
+            byte[] bytes = new byte[size];
+            int offset = 0;
+            for (byte[] full : chunks) {
+                int length = Math.min(full.length, size - offset);
+                System.arraycopy(full, 0, bytes, offset, length);
+                offset += length;
+            }
+            content = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        void releaseChunks() {
+            chunks.forEach(ByteChunkPool.SHARED::release);
+            chunks.clear();
+            chunk = null;
+        }
+
+        @Override
+        String content() {
+            return content;
+        }
+
+    }
+
+    private static final class LineParsingDrain extends OutputDrain {
+
+        private final Consumer<String> lineParser;
+        private byte[] chunk;
+        private byte[] line;
+        private int lineLength;
+
+        LineParsingDrain(InputStream input, Consumer<String> lineParser) {
+            super(input);
+            this.lineParser = lineParser;
+            line = new byte[256];
+        }
+
+        @Override
+        int read(InputStream input) throws IOException {
+            if (chunk == null) {
+                chunk = ByteChunkPool.SHARED.acquire();
+            }
+            int read = input.read(chunk);
+            if (read > 0) {
+                parse(read);
+            }
+            return read;
+        }
+
+        @Override
+        void finish() {
+            if (lineLength > 0) {
+                emitLine();
+            }
+        }
+
+        @Override
+        void releaseChunks() {
+            if (chunk != null) {
+                ByteChunkPool.SHARED.release(chunk);
+                chunk = null;
+            }
+        }
+
+        @Override
+        String content() {
+            return "";
+        }
+
+        private void parse(int read) {
+            int start = 0;
+            for (int i = 0; i < read; ++i) {
+                if (chunk[i] == '\n') {
+                    append(chunk, start, i - start);
+                    emitLine();
+                    start = i + 1;
+                }
+            }
+            append(chunk, start, read - start);
+        }
+
+        private void append(byte[] bytes, int offset, int length) {
+            if (lineLength + length > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+            }
+            System.arraycopy(bytes, offset, line, lineLength, length);
+            lineLength += length;
+        }
+
+        private void emitLine() {
+            int length = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+            lineParser.accept(new String(line, 0, length, StandardCharsets.UTF_8));
+            lineLength = 0;
+        }
+
+    }
+
+}
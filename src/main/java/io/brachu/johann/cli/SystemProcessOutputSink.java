@@ -6,9 +6,9 @@ final class SystemProcessOutputSink extends PrintStreamProcessOutputSink {
         super(System.out, System.err);
     }
 
-    static SystemProcessOutputSink create(Process process) {
+    static SystemProcessOutputSink create(Process process, ProcessOutputTransfer transfer) {
         SystemProcessOutputSink sink = new SystemProcessOutputSink();
-        ProcessOutputTransfer.start(process, sink);
+        sink.transferFrom(process, transfer);
         return sink;
     }
 
@@ -0,0 +1,86 @@
+package io.brachu.johann.executor;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.ComposeModel;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.ContainerPort;
+import io.brachu.johann.DownConfig;
+import io.brachu.johann.ImagePullListener;
+import io.brachu.johann.LogsConfig;
+import io.brachu.johann.Protocol;
+import io.brachu.johann.ServiceEndpoints;
+import io.brachu.johann.UpConfig;
+
+public interface ComposeExecutor extends Closeable {
+
+    String getProjectName();
+
+    void up(UpConfig config);
+
+    void down(DownConfig config);
+
+    void pull();
+
+    boolean imagePresent(String image);
+
+    long pullImage(String image, ImagePullListener listener);
+
+    void kill();
+
+    ContainerPort port(String serviceName, Protocol protocol, int privatePort);
+
+    List<ContainerId> ps();
+
+    List<ContainerId> ps(String serviceName);
+
+    void startAll();
+
+    void start(String serviceName);
+
+    void start(String... serviceNames);
+
+    void stopAll();
+
+    void stop(String serviceName);
+
+    void stop(String... serviceNames);
+
+    LogStream followLogs(LogsConfig config, LogListener listener);
+
+    List<String> services();
+
+    ComposeModel model();
+
+    boolean supportsModel();
+
+    boolean supportsStatus();
+
+    boolean supportsWait();
+
+    ClusterStatus status();
+
+    ServiceEndpoints endpoints(ContainerId containerId);
+
+    boolean healthyOrRunning(List<ContainerId> containerIds);
+
+    CompletableFuture<Void> ready(List<ContainerId> containerIds);
+
+    CompletableFuture<Void> upAsync(UpConfig config);
+
+    CompletableFuture<Void> downAsync(DownConfig config);
+
+    CompletableFuture<Void> pullAsync();
+
+    CompletableFuture<Void> stopAllAsync();
+
+    CompletableFuture<Void> stopAsync(String... serviceNames);
+
+    @Override
+    default void close() {
+    }
+
+}
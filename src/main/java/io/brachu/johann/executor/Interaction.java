@@ -0,0 +1,154 @@
+package io.brachu.johann.executor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.brachu.johann.LogsConfig;
+import io.brachu.johann.exception.ComposeFileNotFoundException;
+import io.brachu.johann.exception.DockerClientException;
+import io.brachu.johann.exception.DockerComposeException;
+import io.brachu.johann.exception.JohannTimeoutException;
+
+final class Interaction {
+
+    static final String PROJECT_NAME = "projectName";
+    static final String FOLLOW_LOGS = "followLogs";
+    static final String LOG_LINE = "logLine";
+    static final String ERROR_LINE = "errorLine";
+    static final String LOG_END = "logEnd";
+
+    private static final String CANCELLED = CancellationException.class.getName();
+    private static final Set<String> TIME_OPTIONS = Set.of("--since", "--until");
+    private static final String ANY_TIME = "*";
+
+    private final String method;
+    private final List<String> args;
+    private final JsonNode result;
+    private final String errorType;
+    private final String error;
+    private final JsonNode errorDetails;
+
+    private Interaction(String method, List<String> args, JsonNode result, String errorType, String error, JsonNode errorDetails) {
+        this.method = method;
+        this.args = List.copyOf(args);
+        this.result = result;
+        this.errorType = errorType;
+        this.error = error;
+        this.errorDetails = errorDetails;
+    }
+
+    static Interaction success(String method, List<String> args, JsonNode result) {
+        return new Interaction(method, args, result != null ? result : NullNode.getInstance(), null, null, NullNode.getInstance());
+    }
+
+    static Interaction failure(String method, List<String> args, Throwable ex) {
+        ObjectNode details = JsonNodeFactory.instance.objectNode();
+        if (ex instanceof JohannTimeoutException) {
+            details.put("time", ((JohannTimeoutException) ex).getTime());
+            details.put("unit", String.valueOf(((JohannTimeoutException) ex).getUnit()));
+        }
+        return new Interaction(method, args, NullNode.getInstance(), ex.getClass().getName(), String.valueOf(ex.getMessage()), details);
+    }
+
+    static List<String> args(String... args) {
+        return Arrays.asList(args);
+    }
+
+    static Interaction fromJson(JsonNode node) {
+        List<String> args = new ArrayList<>();
+        node.path("args").forEach(arg -> args.add(arg.asText()));
+        return new Interaction(
+                node.path("method").asText(),
+                args,
+                node.path("result"),
+                node.hasNonNull("errorType") ? node.get("errorType").asText() : null,
+                node.hasNonNull("error") ? node.get("error").asText() : null,
+                node.path("errorDetails"));
+    }
+
+    ObjectNode toJson() {
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        node.put("method", method);
+        args.forEach(node.putArray("args")::add);
+        if (errorType != null) {
+            node.put("errorType", errorType);
+            node.put("error", error);
+            if (errorDetails.size() > 0) {
+                node.set("errorDetails", errorDetails);
+            }
+        } else {
+            node.set("result", result);
+        }
+        return node;
+    }
+
+    // points in time chosen by ClusterLogs differ between runs, so only their presence takes part in matching
+    static List<String> followLogsArgs(LogsConfig config) {
+        List<String> args = new ArrayList<>(Arrays.asList(config.toCmd()));
+        for (int i = 0; i < args.size() - 1; ++i) {
+            if (TIME_OPTIONS.contains(args.get(i))) {
+                args.set(++i, ANY_TIME);
+            }
+        }
+        return args;
+    }
+
+    static List<String> key(String method, List<String> args) {
+        List<String> key = new ArrayList<>(args.size() + 1);
+        key.add(method);
+        key.addAll(args);
+        return key;
+    }
+
+    List<String> key() {
+        return key(method, args);
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    List<String> getArgs() {
+        return args;
+    }
+
+    JsonNode getResult() {
+        return result;
+    }
+
+    boolean isFailure() {
+        return errorType != null;
+    }
+
+    boolean isCancelled() {
+        return CANCELLED.equals(errorType);
+    }
+
+    RuntimeException toException() {
+        if (DockerClientException.class.getName().equals(errorType)) {
+            return new DockerClientException(error, null);
+        } else if (JohannTimeoutException.class.getName().equals(errorType)) {
+            TimeUnit unit = errorDetails.hasNonNull("unit") ? TimeUnit.valueOf(errorDetails.get("unit").asText()) : TimeUnit.MILLISECONDS;
+            return new JohannTimeoutException(error, errorDetails.path("time").asLong(), unit, null);
+        } else if (ComposeFileNotFoundException.class.getName().equals(errorType)) {
+            return new ComposeFileNotFoundException(error);
+        } else if (IllegalArgumentException.class.getName().equals(errorType)) {
+            return new IllegalArgumentException(error);
+        } else if (IllegalStateException.class.getName().equals(errorType)) {
+            return new IllegalStateException(error);
+        } else if (isCancelled()) {
+            return new CancellationException(error);
+        } else {
+            return new DockerComposeException(error);
+        }
+    }
+
+}
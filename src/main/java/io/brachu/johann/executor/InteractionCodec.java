@@ -0,0 +1,221 @@
+package io.brachu.johann.executor;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.ComposeModel;
+import io.brachu.johann.ComposePort;
+import io.brachu.johann.ComposeService;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.ContainerPort;
+import io.brachu.johann.ContainerStatus;
+import io.brachu.johann.ImagePullProgress;
+import io.brachu.johann.PortBinding;
+import io.brachu.johann.Protocol;
+import io.brachu.johann.ServiceEndpoints;
+
+final class InteractionCodec {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private InteractionCodec() {
+    }
+
+    static JsonNode encodeBoolean(boolean value) {
+        return BooleanNode.valueOf(value);
+    }
+
+    static JsonNode encodePull(long bytes, List<ImagePullProgress> progress) {
+        ObjectNode node = NODES.objectNode();
+        node.put("bytes", bytes);
+        ArrayNode progressNode = node.putArray("progress");
+        for (ImagePullProgress event : progress) {
+            ObjectNode eventNode = progressNode.addObject();
+            eventNode.put("status", event.getStatus());
+            eventNode.put("currentBytes", event.getCurrentBytes());
+            eventNode.put("totalBytes", event.getTotalBytes());
+        }
+        return node;
+    }
+
+    static long decodePulledBytes(JsonNode node) {
+        return node.isNumber() ? node.asLong() : node.path("bytes").asLong();
+    }
+
+    static List<ImagePullProgress> decodePullProgress(String image, JsonNode node) {
+        List<ImagePullProgress> progress = new ArrayList<>();
+        node.path("progress").forEach(event -> progress.add(new ImagePullProgress(image, event.path("status").asText(),
+                event.path("currentBytes").asLong(), event.path("totalBytes").asLong())));
+        return progress;
+    }
+
+    static JsonNode encodeStrings(List<String> values) {
+        ArrayNode node = NODES.arrayNode();
+        values.forEach(node::add);
+        return node;
+    }
+
+    static List<String> decodeStrings(JsonNode node) {
+        List<String> values = new ArrayList<>();
+        node.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+
+    static JsonNode encodeIds(List<ContainerId> ids) {
+        ArrayNode node = NODES.arrayNode();
+        ids.forEach(id -> node.add(id.toString()));
+        return node;
+    }
+
+    static List<ContainerId> decodeIds(JsonNode node) {
+        List<ContainerId> ids = new ArrayList<>();
+        node.forEach(id -> ids.add(new ContainerId(id.asText())));
+        return ids;
+    }
+
+    static JsonNode encodePort(ContainerPort port) {
+        ObjectNode node = NODES.objectNode();
+        node.put("host", port.getHost() != null ? port.getHost().toString() : null);
+        node.put("port", port.getPort());
+        return node;
+    }
+
+    static ContainerPort decodePort(JsonNode node) {
+        URI host = node.hasNonNull("host") ? URI.create(node.get("host").asText()) : null;
+        return new ContainerPort(host, new PortBinding(":" + node.path("port").asInt()));
+    }
+
+    static JsonNode encodeStatus(ClusterStatus status) {
+        ArrayNode node = NODES.arrayNode();
+        for (ContainerStatus container : status.getContainers()) {
+            ObjectNode containerNode = node.addObject();
+            containerNode.put("id", container.getContainerId().toString());
+            containerNode.put("name", container.getName());
+            containerNode.put("service", container.getServiceName());
+            containerNode.put("state", container.getState());
+            containerNode.put("health", container.getHealth());
+            containerNode.put("exitCode", container.getExitCode());
+            containerNode.set("ports", encodePorts(container.getPorts()));
+            containerNode.set("labels", encodeMap(container.getLabels()));
+        }
+        return node;
+    }
+
+    static ClusterStatus decodeStatus(JsonNode node) {
+        List<ContainerStatus> containers = new ArrayList<>();
+        for (JsonNode containerNode : node) {
+            containers.add(new ContainerStatus(
+                    new ContainerId(containerNode.path("id").asText()),
+                    containerNode.path("name").asText(),
+                    text(containerNode, "service"),
+                    text(containerNode, "state"),
+                    text(containerNode, "health"),
+                    containerNode.path("exitCode").asInt(),
+                    decodePorts(containerNode.path("ports")),
+                    decodeMap(containerNode.path("labels"))));
+        }
+        return new ClusterStatus(containers);
+    }
+
+    static JsonNode encodeEndpoints(ServiceEndpoints endpoints) {
+        ObjectNode node = NODES.objectNode();
+        node.put("service", endpoints.getServiceName());
+        node.put("id", endpoints.getContainerId().toString());
+        node.set("ports", encodePorts(endpoints.getPorts()));
+        node.set("ips", encodeMap(endpoints.getIps()));
+        return node;
+    }
+
+    static ServiceEndpoints decodeEndpoints(JsonNode node) {
+        return new ServiceEndpoints(
+                text(node, "service"),
+                new ContainerId(node.path("id").asText()),
+                decodePorts(node.path("ports")),
+                decodeMap(node.path("ips")));
+    }
+
+    static JsonNode encodeModel(ComposeModel model) {
+        ObjectNode node = NODES.objectNode();
+        ArrayNode services = node.putArray("services");
+        for (ComposeService service : model.getServices()) {
+            ObjectNode serviceNode = services.addObject();
+            serviceNode.put("name", service.getName());
+            serviceNode.put("image", service.getImage());
+            serviceNode.put("buildable", service.isBuildable());
+            ArrayNode ports = serviceNode.putArray("ports");
+            for (ComposePort port : service.getPorts()) {
+                ObjectNode portNode = ports.addObject();
+                portNode.put("target", port.getTarget());
+                portNode.put("published", port.getPublished());
+                portNode.put("protocol", port.getProtocol().name());
+            }
+            serviceNode.put("healthcheck", service.hasHealthcheck());
+            serviceNode.set("dependsOn", encodeMap(service.getDependsOn()));
+            serviceNode.set("networks", encodeStrings(service.getNetworks()));
+            serviceNode.put("replicas", service.getReplicas());
+        }
+        node.set("networks", encodeMap(model.getNetworks()));
+        node.set("volumes", encodeMap(model.getVolumes()));
+        return node;
+    }
+
+    static ComposeModel decodeModel(String projectName, JsonNode node) {
+        List<ComposeService> services = new ArrayList<>();
+        for (JsonNode serviceNode : node.path("services")) {
+            List<ComposePort> ports = new ArrayList<>();
+            for (JsonNode portNode : serviceNode.path("ports")) {
+                Protocol protocol = Protocol.valueOf(portNode.path("protocol").asText());
+                ports.add(new ComposePort(portNode.path("target").asInt(), portNode.path("published").asInt(), protocol));
+            }
+            services.add(new ComposeService(
+                    serviceNode.path("name").asText(),
+                    text(serviceNode, "image"),
+                    serviceNode.path("buildable").asBoolean(),
+                    ports,
+                    serviceNode.path("healthcheck").asBoolean(),
+                    decodeMap(serviceNode.path("dependsOn")),
+                    decodeStrings(serviceNode.path("networks")),
+                    serviceNode.path("replicas").asInt(1)));
+        }
+        return new ComposeModel(projectName, services, decodeMap(node.path("networks")), decodeMap(node.path("volumes")));
+    }
+
+    private static JsonNode encodePorts(Map<String, ContainerPort> ports) {
+        ObjectNode node = NODES.objectNode();
+        ports.forEach((key, port) -> node.set(key, encodePort(port)));
+        return node;
+    }
+
+    private static Map<String, ContainerPort> decodePorts(JsonNode node) {
+        Map<String, ContainerPort> ports = new HashMap<>();
+        node.fields().forEachRemaining(entry -> ports.put(entry.getKey(), decodePort(entry.getValue())));
+        return ports;
+    }
+
+    private static JsonNode encodeMap(Map<String, String> map) {
+        ObjectNode node = NODES.objectNode();
+        map.forEach(node::put);
+        return node;
+    }
+
+    private static Map<String, String> decodeMap(JsonNode node) {
+        Map<String, String> map = new LinkedHashMap<>();
+        node.fields().forEachRemaining(entry -> map.put(entry.getKey(), entry.getValue().asText()));
+        return map;
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+}
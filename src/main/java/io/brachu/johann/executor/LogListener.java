@@ -0,0 +1,9 @@
+package io.brachu.johann.executor;
+
+public interface LogListener {
+
+    void onLine(String line);
+
+    void onErrorLine(String line);
+
+}
@@ -0,0 +1,15 @@
+package io.brachu.johann.executor;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+
+public interface LogStream extends Closeable {
+
+    boolean isAlive();
+
+    CompletableFuture<Void> finished();
+
+    @Override
+    void close();
+
+}
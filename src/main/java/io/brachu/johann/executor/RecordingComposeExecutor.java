@@ -0,0 +1,322 @@
+package io.brachu.johann.executor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.ComposeModel;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.ContainerPort;
+import io.brachu.johann.DownConfig;
+import io.brachu.johann.ImagePullListener;
+import io.brachu.johann.ImagePullProgress;
+import io.brachu.johann.LogsConfig;
+import io.brachu.johann.Protocol;
+import io.brachu.johann.ServiceEndpoints;
+import io.brachu.johann.UpConfig;
+import io.brachu.johann.exception.DockerComposeException;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public final class RecordingComposeExecutor implements ComposeExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordingComposeExecutor.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ComposeExecutor delegate;
+    private final Path file;
+    private final BufferedWriter writer;
+    private final AtomicInteger streamCounter;
+
+    private boolean closed;
+
+    public RecordingComposeExecutor(ComposeExecutor delegate, Path file) {
+        Validate.notNull(delegate, "delegate == null");
+        Validate.notNull(file, "file == null");
+        this.delegate = delegate;
+        this.file = file;
+        streamCounter = new AtomicInteger();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new DockerComposeException("Unable to open recording file " + file + ".", ex);
+        }
+        write(Interaction.success(Interaction.PROJECT_NAME, List.of(), TextNode.valueOf(delegate.getProjectName())));
+    }
+
+    @Override
+    public String getProjectName() {
+        return delegate.getProjectName();
+    }
+
+    @Override
+    public void up(UpConfig config) {
+        record("up", Arrays.asList(config.toCmd()), () -> delegate.up(config));
+    }
+
+    @Override
+    public void down(DownConfig config) {
+        record("down", Arrays.asList(config.toCmd()), () -> delegate.down(config));
+    }
+
+    @Override
+    public void pull() {
+        record("pull", List.of(), delegate::pull);
+    }
+
+    @Override
+    public boolean imagePresent(String image) {
+        return record("imagePresent", List.of(image), () -> delegate.imagePresent(image), InteractionCodec::encodeBoolean);
+    }
+
+    @Override
+    public long pullImage(String image, ImagePullListener listener) {
+        List<ImagePullProgress> progress = new CopyOnWriteArrayList<>();
+        return record("pullImage", List.of(image), () -> delegate.pullImage(image, event -> {
+            progress.add(event);
+            listener.onProgress(event);
+        }), bytes -> InteractionCodec.encodePull(bytes, progress));
+    }
+
+    @Override
+    public void kill() {
+        record("kill", List.of(), delegate::kill);
+    }
+
+    @Override
+    public ContainerPort port(String serviceName, Protocol protocol, int privatePort) {
+        return record("port", Interaction.args(serviceName, protocol.toString(), String.valueOf(privatePort)),
+                () -> delegate.port(serviceName, protocol, privatePort), InteractionCodec::encodePort);
+    }
+
+    @Override
+    public List<ContainerId> ps() {
+        return record("ps", List.of(), delegate::ps, InteractionCodec::encodeIds);
+    }
+
+    @Override
+    public List<ContainerId> ps(String serviceName) {
+        return record("ps", Interaction.args(serviceName), () -> delegate.ps(serviceName), InteractionCodec::encodeIds);
+    }
+
+    @Override
+    public void startAll() {
+        record("startAll", List.of(), delegate::startAll);
+    }
+
+    @Override
+    public void start(String serviceName) {
+        record("start", Interaction.args(serviceName), () -> delegate.start(serviceName));
+    }
+
+    @Override
+    public void start(String... serviceNames) {
+        record("start", Arrays.asList(serviceNames), () -> delegate.start(serviceNames));
+    }
+
+    @Override
+    public void stopAll() {
+        record("stopAll", List.of(), delegate::stopAll);
+    }
+
+    @Override
+    public void stop(String serviceName) {
+        record("stop", Interaction.args(serviceName), () -> delegate.stop(serviceName));
+    }
+
+    @Override
+    public void stop(String... serviceNames) {
+        record("stop", Arrays.asList(serviceNames), () -> delegate.stop(serviceNames));
+    }
+
+    @Override
+    public LogStream followLogs(LogsConfig config, LogListener listener) {
+        String streamId = String.valueOf(streamCounter.incrementAndGet());
+        LogStream stream = record(Interaction.FOLLOW_LOGS, Interaction.followLogsArgs(config), () -> delegate.followLogs(config, new LogListener() {
+
+            @Override
+            public void onLine(String line) {
+                write(Interaction.success(Interaction.LOG_LINE, Interaction.args(streamId), TextNode.valueOf(line)));
+                listener.onLine(line);
+            }
+
+            @Override
+            public void onErrorLine(String line) {
+                write(Interaction.success(Interaction.ERROR_LINE, Interaction.args(streamId), TextNode.valueOf(line)));
+                listener.onErrorLine(line);
+            }
+
+        }), ignored -> IntNode.valueOf(Integer.parseInt(streamId)));
+        stream.finished().whenComplete((result, ex) -> write(Interaction.success(Interaction.LOG_END, Interaction.args(streamId), null)));
+        return stream;
+    }
+
+    @Override
+    public List<String> services() {
+        return record("services", List.of(), delegate::services, InteractionCodec::encodeStrings);
+    }
+
+    @Override
+    public ComposeModel model() {
+        return record("model", List.of(), delegate::model, InteractionCodec::encodeModel);
+    }
+
+    @Override
+    public boolean supportsModel() {
+        return record("supportsModel", List.of(), delegate::supportsModel, InteractionCodec::encodeBoolean);
+    }
+
+    @Override
+    public boolean supportsStatus() {
+        return record("supportsStatus", List.of(), delegate::supportsStatus, InteractionCodec::encodeBoolean);
+    }
+
+    @Override
+    public boolean supportsWait() {
+        return record("supportsWait", List.of(), delegate::supportsWait, InteractionCodec::encodeBoolean);
+    }
+
+    @Override
+    public ClusterStatus status() {
+        return record("status", List.of(), delegate::status, InteractionCodec::encodeStatus);
+    }
+
+    @Override
+    public ServiceEndpoints endpoints(ContainerId containerId) {
+        return record("endpoints", Interaction.args(containerId.toString()), () -> delegate.endpoints(containerId), InteractionCodec::encodeEndpoints);
+    }
+
+    @Override
+    public boolean healthyOrRunning(List<ContainerId> containerIds) {
+        List<String> args = containerIds.stream().map(ContainerId::toString).collect(Collectors.toList());
+        return record("healthyOrRunning", args, () -> delegate.healthyOrRunning(containerIds), InteractionCodec::encodeBoolean);
+    }
+
+    @Override
+    public CompletableFuture<Void> ready(List<ContainerId> containerIds) {
+        List<String> args = containerIds.stream().map(ContainerId::toString).collect(Collectors.toList());
+        return recordAsync("ready", args, delegate.ready(containerIds));
+    }
+
+    @Override
+    public CompletableFuture<Void> upAsync(UpConfig config) {
+        return recordAsync("up", Arrays.asList(config.toCmd()), delegate.upAsync(config));
+    }
+
+    @Override
+    public CompletableFuture<Void> downAsync(DownConfig config) {
+        return recordAsync("down", Arrays.asList(config.toCmd()), delegate.downAsync(config));
+    }
+
+    @Override
+    public CompletableFuture<Void> pullAsync() {
+        return recordAsync("pull", List.of(), delegate.pullAsync());
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAllAsync() {
+        return recordAsync("stopAll", List.of(), delegate.stopAllAsync());
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAsync(String... serviceNames) {
+        return recordAsync("stop", Arrays.asList(serviceNames), delegate.stopAsync(serviceNames));
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+        synchronized (writer) {
+            closed = true;
+            try {
+                writer.close();
+            } catch (IOException ex) {
+                log.warn("Unable to close recording file " + file, ex);
+            }
+        }
+    }
+
+    private void record(String method, List<String> args, Runnable call) {
+        record(method, args, () -> {
+            call.run();
+            return null;
+        }, ignored -> null);
+    }
+
+    private <T> T record(String method, List<String> args, Supplier<T> call, Function<T, JsonNode> encoder) {
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException ex) {
+            write(Interaction.failure(method, args, ex));
+            throw ex;
+        }
+        write(Interaction.success(method, args, encoder.apply(result)));
+        return result;
+    }
+
+    private CompletableFuture<Void> recordAsync(String method, List<String> args, CompletableFuture<Void> future) {
+        future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                write(Interaction.success(method, args, null));
+            } else {
+                write(Interaction.failure(method, args, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex));
+            }
+        });
+        return future;
+    }
+
+    private void write(Interaction interaction) {
+        String line;
+        try {
+            line = MAPPER.writeValueAsString(interaction.toJson());
+        } catch (JsonProcessingException ex) {
+            log.warn("Unable to serialize recorded interaction " + interaction.getMethod(), ex);
+            return;
+        }
+
+        synchronized (writer) {
+            if (closed) {
+                return;
+            }
+            boolean logEvent = isLogEvent(interaction);
+            try {
+                writer.write(line);
+                writer.newLine();
+                if (!logEvent) {
+                    writer.flush();
+                }
+            } catch (IOException ex) {
+                log.warn("Unable to write recorded interaction to " + file, ex);
+            }
+        }
+    }
+
+    private static boolean isLogEvent(Interaction interaction) {
+        String method = interaction.getMethod();
+        return Interaction.LOG_LINE.equals(method) || Interaction.ERROR_LINE.equals(method);
+    }
+
+}
@@ -0,0 +1,314 @@
+package io.brachu.johann.executor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.ComposeModel;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.ContainerPort;
+import io.brachu.johann.DownConfig;
+import io.brachu.johann.ImagePullListener;
+import io.brachu.johann.LogsConfig;
+import io.brachu.johann.Protocol;
+import io.brachu.johann.ServiceEndpoints;
+import io.brachu.johann.UpConfig;
+import io.brachu.johann.exception.DockerComposeException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+public final class ReplayingComposeExecutor implements ComposeExecutor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final String projectName;
+    private final Map<List<String>, Deque<Interaction>> interactions;
+    private final Map<String, List<Interaction>> logLines;
+    private final Set<String> endedStreams;
+
+    public ReplayingComposeExecutor(Path file) {
+        Validate.notNull(file, "file == null");
+        this.file = file;
+        interactions = new HashMap<>();
+        logLines = new HashMap<>();
+        endedStreams = new HashSet<>();
+
+        String recordedProjectName = null;
+        for (Interaction interaction : read(file)) {
+            String method = interaction.getMethod();
+            if (Interaction.PROJECT_NAME.equals(method)) {
+                recordedProjectName = interaction.getResult().asText();
+            } else if (Interaction.LOG_LINE.equals(method) || Interaction.ERROR_LINE.equals(method)) {
+                logLines.computeIfAbsent(interaction.getArgs().get(0), id -> new ArrayList<>()).add(interaction);
+            } else if (Interaction.LOG_END.equals(method)) {
+                endedStreams.add(interaction.getArgs().get(0));
+            } else {
+                interactions.computeIfAbsent(interaction.key(), key -> new ArrayDeque<>()).add(interaction);
+            }
+        }
+        Validate.isTrue(recordedProjectName != null, "File %s is not a recording of compose interactions", file);
+        projectName = recordedProjectName;
+    }
+
+    @Override
+    public String getProjectName() {
+        return projectName;
+    }
+
+    @Override
+    public void up(UpConfig config) {
+        replay("up", Arrays.asList(config.toCmd()));
+    }
+
+    @Override
+    public void down(DownConfig config) {
+        replay("down", Arrays.asList(config.toCmd()));
+    }
+
+    @Override
+    public void pull() {
+        replay("pull", List.of());
+    }
+
+    @Override
+    public boolean imagePresent(String image) {
+        return replay("imagePresent", List.of(image), JsonNode::asBoolean);
+    }
+
+    @Override
+    public long pullImage(String image, ImagePullListener listener) {
+        JsonNode result = replay("pullImage", List.of(image), Function.identity());
+        InteractionCodec.decodePullProgress(image, result).forEach(listener::onProgress);
+        return InteractionCodec.decodePulledBytes(result);
+    }
+
+    @Override
+    public void kill() {
+        replay("kill", List.of());
+    }
+
+    @Override
+    public ContainerPort port(String serviceName, Protocol protocol, int privatePort) {
+        return replay("port", Interaction.args(serviceName, protocol.toString(), String.valueOf(privatePort)), InteractionCodec::decodePort);
+    }
+
+    @Override
+    public List<ContainerId> ps() {
+        return replay("ps", List.of(), InteractionCodec::decodeIds);
+    }
+
+    @Override
+    public List<ContainerId> ps(String serviceName) {
+        return replay("ps", Interaction.args(serviceName), InteractionCodec::decodeIds);
+    }
+
+    @Override
+    public void startAll() {
+        replay("startAll", List.of());
+    }
+
+    @Override
+    public void start(String serviceName) {
+        replay("start", Interaction.args(serviceName));
+    }
+
+    @Override
+    public void start(String... serviceNames) {
+        replay("start", Arrays.asList(serviceNames));
+    }
+
+    @Override
+    public void stopAll() {
+        replay("stopAll", List.of());
+    }
+
+    @Override
+    public void stop(String serviceName) {
+        replay("stop", Interaction.args(serviceName));
+    }
+
+    @Override
+    public void stop(String... serviceNames) {
+        replay("stop", Arrays.asList(serviceNames));
+    }
+
+    @Override
+    public LogStream followLogs(LogsConfig config, LogListener listener) {
+        String streamId = replay(Interaction.FOLLOW_LOGS, Interaction.followLogsArgs(config), JsonNode::asText);
+        for (Interaction line : logLines.getOrDefault(streamId, List.of())) {
+            if (Interaction.LOG_LINE.equals(line.getMethod())) {
+                listener.onLine(line.getResult().asText());
+            } else {
+                listener.onErrorLine(line.getResult().asText());
+            }
+        }
+
+        ReplayedLogStream stream = new ReplayedLogStream();
+        if (endedStreams.contains(streamId)) {
+            stream.close();
+        }
+        return stream;
+    }
+
+    @Override
+    public List<String> services() {
+        return replay("services", List.of(), InteractionCodec::decodeStrings);
+    }
+
+    @Override
+    public ComposeModel model() {
+        return replay("model", List.of(), node -> InteractionCodec.decodeModel(projectName, node));
+    }
+
+    @Override
+    public boolean supportsModel() {
+        return replay("supportsModel", List.of(), JsonNode::asBoolean);
+    }
+
+    @Override
+    public boolean supportsStatus() {
+        return replay("supportsStatus", List.of(), JsonNode::asBoolean);
+    }
+
+    @Override
+    public boolean supportsWait() {
+        return replay("supportsWait", List.of(), JsonNode::asBoolean);
+    }
+
+    @Override
+    public ClusterStatus status() {
+        return replay("status", List.of(), InteractionCodec::decodeStatus);
+    }
+
+    @Override
+    public ServiceEndpoints endpoints(ContainerId containerId) {
+        return replay("endpoints", Interaction.args(containerId.toString()), InteractionCodec::decodeEndpoints);
+    }
+
+    @Override
+    public boolean healthyOrRunning(List<ContainerId> containerIds) {
+        List<String> args = containerIds.stream().map(ContainerId::toString).collect(Collectors.toList());
+        return replay("healthyOrRunning", args, JsonNode::asBoolean);
+    }
+
+    @Override
+    public CompletableFuture<Void> ready(List<ContainerId> containerIds) {
+        return replayAsync("ready", containerIds.stream().map(ContainerId::toString).collect(Collectors.toList()));
+    }
+
+    @Override
+    public CompletableFuture<Void> upAsync(UpConfig config) {
+        return replayAsync("up", Arrays.asList(config.toCmd()));
+    }
+
+    @Override
+    public CompletableFuture<Void> downAsync(DownConfig config) {
+        return replayAsync("down", Arrays.asList(config.toCmd()));
+    }
+
+    @Override
+    public CompletableFuture<Void> pullAsync() {
+        return replayAsync("pull", List.of());
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAllAsync() {
+        return replayAsync("stopAll", List.of());
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAsync(String... serviceNames) {
+        return replayAsync("stop", Arrays.asList(serviceNames));
+    }
+
+    private void replay(String method, List<String> args) {
+        replay(method, args, result -> null);
+    }
+
+    private <T> T replay(String method, List<String> args, Function<JsonNode, T> decoder) {
+        Interaction interaction = next(method, args);
+        if (interaction.isFailure()) {
+            throw interaction.toException();
+        }
+        return decoder.apply(interaction.getResult());
+    }
+
+    private CompletableFuture<Void> replayAsync(String method, List<String> args) {
+        Interaction interaction;
+        try {
+            interaction = next(method, args);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        if (interaction.isCancelled()) {
+            return new CompletableFuture<>();
+        } else if (interaction.isFailure()) {
+            return CompletableFuture.failedFuture(interaction.toException());
+        } else {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private synchronized Interaction next(String method, List<String> args) {
+        List<String> key = Interaction.key(method, args);
+        Deque<Interaction> recorded = interactions.get(key);
+        if (recorded == null) {
+            throw new DockerComposeException("No interaction '" + String.join(" ", key) + "' has been recorded in " + file + ".");
+        }
+        return recorded.size() > 1 ? recorded.poll() : recorded.peek();
+    }
+
+    private static List<Interaction> read(Path file) {
+        try {
+            List<Interaction> interactions = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (StringUtils.isNotBlank(line)) {
+                    interactions.add(Interaction.fromJson(MAPPER.readTree(line)));
+                }
+            }
+            return interactions;
+        } catch (IOException ex) {
+            throw new DockerComposeException("Unable to read recorded compose interactions from " + file + ".", ex);
+        }
+    }
+
+    private static final class ReplayedLogStream implements LogStream {
+
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+        @Override
+        public boolean isAlive() {
+            return !finished.isDone();
+        }
+
+        @Override
+        public CompletableFuture<Void> finished() {
+            return finished;
+        }
+
+        @Override
+        public void close() {
+            finished.complete(null);
+        }
+
+    }
+
+}
@@ -0,0 +1,643 @@
+package io.brachu.johann.executor;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.ComposeModel;
+import io.brachu.johann.ComposePort;
+import io.brachu.johann.ComposeService;
+import io.brachu.johann.ContainerId;
+import io.brachu.johann.ContainerPort;
+import io.brachu.johann.ContainerStatus;
+import io.brachu.johann.DownConfig;
+import io.brachu.johann.ImagePullListener;
+import io.brachu.johann.ImagePullProgress;
+import io.brachu.johann.LogsConfig;
+import io.brachu.johann.PortBinding;
+import io.brachu.johann.Protocol;
+import io.brachu.johann.ServiceEndpoints;
+import io.brachu.johann.UpConfig;
+import io.brachu.johann.exception.DockerComposeException;
+import org.apache.commons.lang3.Validate;
+
+public final class SimulatedComposeExecutor implements ComposeExecutor {
+
+    private static final URI DOCKER_HOST = URI.create("tcp://localhost:2375");
+    private static final String PROJECT_LABEL = "com.docker.compose.project";
+    private static final String SERVICE_LABEL = "com.docker.compose.service";
+    private static final int FIRST_HOST_PORT = 32768;
+    private static final int KILLED_EXIT_CODE = 137;
+    private static final String DEFAULT_NETWORK = "default";
+    private static final long SIMULATED_IMAGE_SIZE = 1024 * 1024;
+
+    private final String projectName;
+    private final Map<String, Service> services;
+    private final Set<String> localImages;
+    private final List<Container> containers;
+    private final List<LogEntry> logs;
+    private final Set<SimulatedLogStream> streams;
+    private final Map<CompletableFuture<Void>, List<String>> readinessWaiters;
+    private final List<String> commands;
+
+    private int nextHostPort;
+    private int nextIp;
+
+    private SimulatedComposeExecutor(String projectName, Map<String, Service> services, Set<String> localImages) {
+        this.projectName = projectName;
+        this.services = Collections.unmodifiableMap(new LinkedHashMap<>(services));
+        this.localImages = new HashSet<>(localImages);
+        containers = new ArrayList<>();
+        logs = new ArrayList<>();
+        streams = ConcurrentHashMap.newKeySet();
+        readinessWaiters = new LinkedHashMap<>();
+        commands = new ArrayList<>();
+        nextHostPort = FIRST_HOST_PORT;
+        nextIp = 2;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public synchronized void health(String serviceName, String health) {
+        Validate.notNull(health, "health == null");
+        for (Container container : containers(serviceName)) {
+            if (container.isRunning()) {
+                container.health = health;
+            }
+        }
+        evaluateReadiness();
+    }
+
+    public synchronized void exit(String serviceName, int exitCode) {
+        for (Container container : containers(serviceName)) {
+            if (container.isRunning()) {
+                container.exit(exitCode);
+            }
+        }
+        evaluateReadiness();
+    }
+
+    public synchronized void log(String serviceName, String message) {
+        Validate.isTrue(isUp(), "Cluster is not up");
+        List<Container> serviceContainers = containers(serviceName);
+        LogEntry entry = new LogEntry(serviceName, serviceContainers.get(0).name, message);
+        logs.add(entry);
+        streams.forEach(stream -> stream.accept(entry));
+    }
+
+    public synchronized List<String> commands() {
+        return List.copyOf(commands);
+    }
+
+    @Override
+    public String getProjectName() {
+        return projectName;
+    }
+
+    @Override
+    public synchronized void up(UpConfig config) {
+        command("up", config.toCmd());
+        if (containers.isEmpty()) {
+            services.values().forEach(service -> create(service, config.getScale().getOrDefault(service.name, service.replicas)));
+        } else {
+            containers.stream().filter(container -> !container.isRunning()).forEach(this::startContainer);
+        }
+        if (config.isWait()) {
+            awaitHealthy();
+        }
+        evaluateReadiness();
+    }
+
+    @Override
+    public synchronized void down(DownConfig config) {
+        command("down", config.toCmd());
+        containers.clear();
+        logs.clear();
+        streams.forEach(SimulatedLogStream::close);
+        evaluateReadiness();
+    }
+
+    @Override
+    public synchronized void pull() {
+        command("pull");
+    }
+
+    @Override
+    public synchronized boolean imagePresent(String image) {
+        return localImages.contains(image);
+    }
+
+    @Override
+    public synchronized long pullImage(String image, ImagePullListener listener) {
+        command("pull", image);
+        listener.onProgress(new ImagePullProgress(image, "Downloading", 0, SIMULATED_IMAGE_SIZE));
+        localImages.add(image);
+        listener.onProgress(new ImagePullProgress(image, "Download complete", SIMULATED_IMAGE_SIZE, SIMULATED_IMAGE_SIZE));
+        return SIMULATED_IMAGE_SIZE;
+    }
+
+    @Override
+    public synchronized void kill() {
+        command("kill");
+        containers.stream().filter(Container::isRunning).forEach(container -> container.exit(KILLED_EXIT_CODE));
+        evaluateReadiness();
+    }
+
+    @Override
+    public synchronized ContainerPort port(String serviceName, Protocol protocol, int privatePort) {
+        command("port", "--protocol", protocol.toString(), serviceName, String.valueOf(privatePort));
+        List<Container> serviceContainers = containers(serviceName);
+        String key = ServiceEndpoints.portKey(protocol, privatePort);
+        ContainerPort port = serviceContainers.isEmpty() ? null : serviceContainers.get(0).publishedPorts().get(key);
+        if (port != null) {
+            return port;
+        } else {
+            throw new DockerComposeException("No host port is bound to '" + serviceName + "' container's " + privatePort + " " + protocol + " port.");
+        }
+    }
+
+    @Override
+    public synchronized List<ContainerId> ps() {
+        return containers.stream().map(container -> container.id).collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized List<ContainerId> ps(String serviceName) {
+        return containers(serviceName).stream().map(container -> container.id).collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized void startAll() {
+        command("start");
+        containers.stream().filter(container -> !container.isRunning()).forEach(this::startContainer);
+        evaluateReadiness();
+    }
+
+    @Override
+    public synchronized void start(String serviceName) {
+        start(new String[] { serviceName });
+    }
+
+    @Override
+    public synchronized void start(String... serviceNames) {
+        command("start", serviceNames);
+        for (String serviceName : serviceNames) {
+            containers(serviceName).stream().filter(container -> !container.isRunning()).forEach(this::startContainer);
+        }
+        evaluateReadiness();
+    }
+
+    @Override
+    public synchronized void stopAll() {
+        command("stop");
+        containers.stream().filter(Container::isRunning).forEach(container -> container.exit(0));
+        evaluateReadiness();
+    }
+
+    @Override
+    public synchronized void stop(String serviceName) {
+        stop(new String[] { serviceName });
+    }
+
+    @Override
+    public synchronized void stop(String... serviceNames) {
+        command("stop", serviceNames);
+        for (String serviceName : serviceNames) {
+            containers(serviceName).stream().filter(Container::isRunning).forEach(container -> container.exit(0));
+        }
+        evaluateReadiness();
+    }
+
+    @Override
+    public synchronized LogStream followLogs(LogsConfig config, LogListener listener) {
+        config.getServices().forEach(this::service);
+        SimulatedLogStream stream = new SimulatedLogStream(config.getServices(), config.isTimestamps(), listener);
+
+        Instant since = instant(config.getSince());
+        Instant until = instant(config.getUntil());
+        List<LogEntry> followed = logs.stream()
+                .filter(stream::follows)
+                .filter(entry -> since == null || !entry.loggedAt.isBefore(since))
+                .filter(entry -> until == null || !entry.loggedAt.isAfter(until))
+                .collect(Collectors.toList());
+        Map<String, List<LogEntry>> history = new HashMap<>();
+        followed.forEach(entry -> history.computeIfAbsent(entry.serviceName, name -> new ArrayList<>()).add(entry));
+        followed.stream().filter(entry -> {
+            List<LogEntry> serviceHistory = history.get(entry.serviceName);
+            return serviceHistory != null && (config.getTail() < 0 || serviceHistory.indexOf(entry) >= serviceHistory.size() - config.getTail());
+        }).forEach(stream::accept);
+
+        if (isUp() && until == null) {
+            streams.add(stream);
+            stream.finished.whenComplete((result, ex) -> streams.remove(stream));
+        } else {
+            stream.close();
+        }
+        return stream;
+    }
+
+    private static Instant instant(String time) {
+        try {
+            return time != null ? Instant.parse(time) : null;
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public List<String> services() {
+        return List.copyOf(services.keySet());
+    }
+
+    @Override
+    public ComposeModel model() {
+        List<ComposeService> model = services.values().stream().map(Service::toModel).collect(Collectors.toList());
+        return new ComposeModel(projectName, model, Map.of(DEFAULT_NETWORK, networkName()), Map.of());
+    }
+
+    @Override
+    public boolean supportsModel() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsStatus() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsWait() {
+        return true;
+    }
+
+    @Override
+    public synchronized ClusterStatus status() {
+        return new ClusterStatus(containers.stream().map(Container::toStatus).collect(Collectors.toList()));
+    }
+
+    @Override
+    public synchronized ServiceEndpoints endpoints(ContainerId containerId) {
+        Container container = containers.stream()
+                .filter(candidate -> candidate.id.toString().equals(containerId.toString()))
+                .findFirst()
+                .orElseThrow(() -> new DockerComposeException("No such container: " + containerId));
+        return new ServiceEndpoints(container.serviceName, container.id, container.publishedPorts(), container.ips);
+    }
+
+    @Override
+    public synchronized boolean healthyOrRunning(List<ContainerId> containerIds) {
+        Set<String> ids = containerIds.stream().map(ContainerId::toString).collect(Collectors.toSet());
+        return containers.stream().filter(container -> ids.contains(container.id.toString())).allMatch(container -> container.toStatus().isHealthyOrRunning());
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> ready(List<ContainerId> containerIds) {
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        readinessWaiters.put(ready, containerIds.stream().map(ContainerId::toString).collect(Collectors.toList()));
+        ready.whenComplete((result, ex) -> removeWaiter(ready));
+        evaluateReadiness();
+        return ready;
+    }
+
+    @Override
+    public CompletableFuture<Void> upAsync(UpConfig config) {
+        return async(() -> up(config));
+    }
+
+    @Override
+    public CompletableFuture<Void> downAsync(DownConfig config) {
+        return async(() -> down(config));
+    }
+
+    @Override
+    public CompletableFuture<Void> pullAsync() {
+        return async(this::pull);
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAllAsync() {
+        return async(this::stopAll);
+    }
+
+    @Override
+    public CompletableFuture<Void> stopAsync(String... serviceNames) {
+        return async(() -> stop(serviceNames));
+    }
+
+    @Override
+    public void close() {
+        streams.forEach(SimulatedLogStream::close);
+    }
+
+    private boolean isUp() {
+        return !containers.isEmpty();
+    }
+
+    private Service service(String serviceName) {
+        Service service = services.get(serviceName);
+        if (service == null) {
+            throw new DockerComposeException("no such service: " + serviceName);
+        }
+        return service;
+    }
+
+    private List<Container> containers(String serviceName) {
+        service(serviceName);
+        return containers.stream().filter(container -> container.serviceName.equals(serviceName)).collect(Collectors.toList());
+    }
+
+    private void create(Service service, int replicas) {
+        for (int replica = 1; replica <= replicas; ++replica) {
+            Map<String, String> ports = new LinkedHashMap<>();
+            service.ports.forEach(port -> ports.put(port, String.valueOf(nextHostPort++)));
+            Map<String, String> ips = Map.of(networkName(), "172.28.0." + nextIp++);
+            Container container = new Container(service, projectName.toLowerCase() + "-" + service.name + "-" + replica, ports, ips);
+            containers.add(container);
+            startContainer(container);
+        }
+    }
+
+    private String networkName() {
+        return projectName.toLowerCase() + "_" + DEFAULT_NETWORK;
+    }
+
+    private void awaitHealthy() {
+        for (Container container : containers) {
+            if ("unhealthy".equals(container.health)) {
+                throw new DockerComposeException("container " + container.name + " is unhealthy");
+            }
+            if ("starting".equals(container.health)) {
+                container.health = "healthy";
+            }
+        }
+    }
+
+    private void startContainer(Container container) {
+        container.state = "running";
+        container.health = services.get(container.serviceName).initialHealth;
+        container.exitCode = 0;
+    }
+
+    private void command(String command, String... args) {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(command);
+        cmd.addAll(Arrays.asList(args));
+        commands.add(String.join(" ", cmd));
+    }
+
+    private void evaluateReadiness() {
+        Map<String, Container> byId = new HashMap<>();
+        containers.forEach(container -> byId.put(container.id.toString(), container));
+
+        for (Map.Entry<CompletableFuture<Void>, List<String>> waiter : new ArrayList<>(readinessWaiters.entrySet())) {
+            String deadContainer = null;
+            boolean allReady = true;
+            for (String id : waiter.getValue()) {
+                Container container = byId.get(id);
+                if (container == null || container.isDead()) {
+                    deadContainer = id;
+                    break;
+                }
+                allReady &= container.toStatus().isHealthyOrRunning();
+            }
+
+            if (deadContainer != null) {
+                waiter.getKey().completeExceptionally(new DockerComposeException("Container with id " + deadContainer
+                        + " died while waiting for it to be healthy."));
+            } else if (allReady) {
+                waiter.getKey().complete(null);
+            }
+        }
+    }
+
+    private synchronized void removeWaiter(CompletableFuture<Void> ready) {
+        readinessWaiters.remove(ready);
+    }
+
+    private static String imageOf(String serviceName) {
+        return "simulated/" + serviceName;
+    }
+
+    private static CompletableFuture<Void> async(Runnable command) {
+        try {
+            command.run();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Service> services;
+        private final Set<String> localImages;
+
+        private Builder() {
+            services = new LinkedHashMap<>();
+            localImages = new HashSet<>();
+        }
+
+        public Builder service(String serviceName, int... privatePorts) {
+            Validate.notBlank(serviceName, "serviceName is null or blank");
+            Validate.isTrue(!services.containsKey(serviceName), "Duplicate service name: " + serviceName);
+            List<String> ports = Arrays.stream(privatePorts).mapToObj(port -> ServiceEndpoints.portKey(Protocol.TCP, port)).collect(Collectors.toList());
+            services.put(serviceName, new Service(serviceName, ports, "", 1));
+            return this;
+        }
+
+        public Builder udpPorts(String serviceName, int... privatePorts) {
+            Service service = existing(serviceName);
+            List<String> ports = new ArrayList<>(service.ports);
+            Arrays.stream(privatePorts).forEach(port -> ports.add(ServiceEndpoints.portKey(Protocol.UDP, port)));
+            services.put(serviceName, new Service(serviceName, ports, service.initialHealth, service.replicas));
+            return this;
+        }
+
+        public Builder healthCheck(String serviceName, String initialHealth) {
+            Validate.notBlank(initialHealth, "initialHealth is null or blank");
+            Service service = existing(serviceName);
+            services.put(serviceName, new Service(serviceName, service.ports, initialHealth, service.replicas));
+            return this;
+        }
+
+        public Builder replicas(String serviceName, int replicas) {
+            Validate.isTrue(replicas > 0, "Number of replicas must be positive");
+            Service service = existing(serviceName);
+            services.put(serviceName, new Service(serviceName, service.ports, service.initialHealth, replicas));
+            return this;
+        }
+
+        public Builder localImage(String serviceName) {
+            existing(serviceName);
+            localImages.add(imageOf(serviceName));
+            return this;
+        }
+
+        public SimulatedComposeExecutor build(String projectName) {
+            Validate.notBlank(projectName, "projectName is null or blank");
+            Validate.isTrue(!services.isEmpty(), "Simulated cluster must have at least one service");
+            return new SimulatedComposeExecutor(projectName, services, localImages);
+        }
+
+        private Service existing(String serviceName) {
+            Service service = services.get(serviceName);
+            Validate.isTrue(service != null, "Service " + serviceName + " has not been defined");
+            return service;
+        }
+
+    }
+
+    private static final class Service {
+
+        private final String name;
+        private final List<String> ports;
+        private final String initialHealth;
+        private final int replicas;
+
+        private Service(String name, List<String> ports, String initialHealth, int replicas) {
+            this.name = name;
+            this.ports = List.copyOf(ports);
+            this.initialHealth = initialHealth;
+            this.replicas = replicas;
+        }
+
+        private ComposeService toModel() {
+            List<ComposePort> modelPorts = ports.stream().map(Service::toModelPort).collect(Collectors.toList());
+            return new ComposeService(name, imageOf(name), false, modelPorts, !initialHealth.isEmpty(), Map.of(), List.of(DEFAULT_NETWORK), replicas);
+        }
+
+        private static ComposePort toModelPort(String portKey) {
+            String[] parts = portKey.split("/");
+            return new ComposePort(Integer.parseInt(parts[0]), 0, Protocol.UDP.toString().equals(parts[1]) ? Protocol.UDP : Protocol.TCP);
+        }
+
+    }
+
+    private final class Container {
+
+        private final ContainerId id;
+        private final String name;
+        private final String serviceName;
+        private final Map<String, String> hostPorts;
+        private final Map<String, String> ips;
+
+        private String state;
+        private String health;
+        private int exitCode;
+
+        private Container(Service service, String name, Map<String, String> hostPorts, Map<String, String> ips) {
+            id = new ContainerId(UUID.randomUUID().toString().replace("-", "") + UUID.randomUUID().toString().replace("-", ""));
+            this.name = name;
+            serviceName = service.name;
+            this.hostPorts = Map.copyOf(hostPorts);
+            this.ips = ips;
+        }
+
+        private boolean isRunning() {
+            return "running".equals(state);
+        }
+
+        private boolean isDead() {
+            return "exited".equals(state);
+        }
+
+        private void exit(int code) {
+            state = "exited";
+            health = "";
+            exitCode = code;
+        }
+
+        private Map<String, ContainerPort> publishedPorts() {
+            if (!isRunning()) {
+                return Map.of();
+            }
+            Map<String, ContainerPort> ports = new HashMap<>();
+            hostPorts.forEach((key, hostPort) -> ports.put(key, new ContainerPort(DOCKER_HOST, new PortBinding("0.0.0.0:" + hostPort))));
+            return ports;
+        }
+
+        private ContainerStatus toStatus() {
+            return new ContainerStatus(id, name, serviceName, state, health, exitCode, publishedPorts(),
+                    Map.of(PROJECT_LABEL, projectName.toLowerCase(), SERVICE_LABEL, serviceName));
+        }
+
+    }
+
+    private static final class LogEntry {
+
+        private final String serviceName;
+        private final String containerName;
+        private final String message;
+        private final Instant loggedAt;
+
+        private LogEntry(String serviceName, String containerName, String message) {
+            this.serviceName = serviceName;
+            this.containerName = containerName;
+            this.message = message;
+            loggedAt = Instant.now();
+        }
+
+        private String line(boolean timestamps) {
+            return containerName + "  | " + (timestamps ? loggedAt + " " : "") + message;
+        }
+
+    }
+
+    private static final class SimulatedLogStream implements LogStream {
+
+        private final List<String> services;
+        private final boolean timestamps;
+        private final LogListener listener;
+        private final CompletableFuture<Void> finished;
+
+        private SimulatedLogStream(List<String> services, boolean timestamps, LogListener listener) {
+            this.services = services;
+            this.timestamps = timestamps;
+            this.listener = listener;
+            finished = new CompletableFuture<>();
+        }
+
+        private boolean follows(LogEntry entry) {
+            return services.isEmpty() || services.contains(entry.serviceName);
+        }
+
+        private void accept(LogEntry entry) {
+            if (!finished.isDone() && follows(entry)) {
+                listener.onLine(entry.line(timestamps));
+            }
+        }
+
+        @Override
+        public boolean isAlive() {
+            return !finished.isDone();
+        }
+
+        @Override
+        public CompletableFuture<Void> finished() {
+            return finished;
+        }
+
+        @Override
+        public void close() {
+            finished.complete(null);
+        }
+
+    }
+
+}
@@ -0,0 +1,214 @@
+package io.brachu.johann.fleet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import io.brachu.johann.DockerCompose;
+import io.brachu.johann.DownConfig;
+import io.brachu.johann.UpConfig;
+import io.brachu.johann.WaitPolicy;
+import io.brachu.johann.exception.DockerComposeException;
+import io.brachu.johann.internal.DaemonThreadFactory;
+import io.brachu.johann.project.ProjectNameProvider;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public final class ComposeFleet implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ComposeFleet.class);
+
+    private static final String THREAD_NAME = "johann-fleet";
+
+    private final Map<String, DockerCompose> members;
+    private final Semaphore commandPermits;
+    private final ExecutorService executor;
+
+    private ComposeFleet(Builder builder) {
+        members = createMembers(builder);
+        commandPermits = new Semaphore(builder.concurrency);
+
+        executor = Executors.newFixedThreadPool(members.size(), new DaemonThreadFactory(THREAD_NAME));
+    }
+
+    public static Builder builder(Function<String, DockerCompose> factory) {
+        return new Builder(factory);
+    }
+
+    public FleetResult up() {
+        return up(UpConfig.defaults());
+    }
+
+    public FleetResult up(UpConfig config) {
+        return forEachMember(member -> command(() -> member.up(config)));
+    }
+
+    public FleetResult down() {
+        return down(DownConfig.defaults());
+    }
+
+    public FleetResult down(DownConfig config) {
+        return forEachMember(member -> command(() -> member.down(config)));
+    }
+
+    public FleetResult waitForAll(long time, TimeUnit unit) {
+        return waitForAll(WaitPolicy.within(time, unit));
+    }
+
+    public FleetResult waitForAll(WaitPolicy policy) {
+        long deadline = System.nanoTime() + policy.getTimeoutNanos();
+        return forEachMember(member -> {
+            long remaining = Math.max(deadline - System.nanoTime(), 1);
+            member.waitForCluster(policy.withTimeout(remaining, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public List<DockerCompose> members() {
+        return List.copyOf(members.values());
+    }
+
+    public DockerCompose member(String projectName) {
+        DockerCompose member = members.get(projectName);
+        Validate.isTrue(member != null, "Project " + projectName + " is not a member of this fleet");
+        return member;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        IOException failure = null;
+        for (DockerCompose member : members.values()) {
+            try {
+                member.close();
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static Map<String, DockerCompose> createMembers(Builder builder) {
+        Set<String> projectNames = new HashSet<>();
+        for (String projectName : builder.projectNames) {
+            Validate.isTrue(projectNames.add(projectName), "Duplicate project name: " + projectName);
+        }
+
+        Map<String, DockerCompose> members = new LinkedHashMap<>();
+        try {
+            for (String projectName : builder.projectNames) {
+                members.put(projectName, builder.factory.apply(projectName));
+            }
+        } catch (RuntimeException ex) {
+            for (DockerCompose member : members.values()) {
+                try {
+                    member.close();
+                } catch (IOException | RuntimeException closeEx) {
+                    ex.addSuppressed(closeEx);
+                }
+            }
+            throw ex;
+        }
+        return members;
+    }
+
+    private void command(Runnable command) {
+        try {
+            commandPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while waiting for a free slot to execute command.", ex);
+        }
+
+        try {
+            command.run();
+        } finally {
+            commandPermits.release();
+        }
+    }
+
+    private FleetResult forEachMember(Consumer<DockerCompose> action) {
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        members.forEach((projectName, member) -> futures.put(projectName, executor.submit(() -> action.accept(member))));
+
+        List<String> succeeded = new ArrayList<>();
+        Map<String, RuntimeException> failures = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get();
+                succeeded.add(entry.getKey());
+            } catch (ExecutionException ex) {
+                log.warn("Command failed for project " + entry.getKey(), ex.getCause());
+                failures.put(entry.getKey(), toRuntimeException(ex.getCause()));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(future -> future.cancel(true));
+                throw new DockerComposeException("Interrupted while executing command on fleet members.", ex);
+            }
+        }
+        return new FleetResult(succeeded, failures);
+    }
+
+    private static RuntimeException toRuntimeException(Throwable throwable) {
+        return throwable instanceof RuntimeException ? (RuntimeException) throwable : new DockerComposeException(throwable.getMessage(), throwable);
+    }
+
+    public static final class Builder {
+
+        private static final int DEFAULT_CONCURRENCY = 4;
+
+        private final Function<String, DockerCompose> factory;
+        private final List<String> projectNames;
+        private int concurrency;
+
+        private Builder(Function<String, DockerCompose> factory) {
+            Validate.notNull(factory, "factory == null");
+            this.factory = factory;
+            projectNames = new ArrayList<>();
+            concurrency = DEFAULT_CONCURRENCY;
+        }
+
+        public Builder projectNames(String... projectNames) {
+            this.projectNames.addAll(Arrays.asList(projectNames));
+            return this;
+        }
+
+        public Builder projectNames(int count, IntFunction<ProjectNameProvider> providerFactory) {
+            Validate.isTrue(count > 0, "count must be positive");
+            for (int i = 0; i < count; ++i) {
+                projectNames.add(providerFactory.apply(i).provide());
+            }
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            Validate.isTrue(concurrency > 0, "Concurrency must be positive");
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public ComposeFleet build() {
+            Validate.isTrue(!projectNames.isEmpty(), "Fleet must have at least one member");
+            return new ComposeFleet(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package io.brachu.johann.fleet;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.brachu.johann.exception.DockerComposeException;
+
+public final class FleetResult {
+
+    private final List<String> succeeded;
+    private final Map<String, RuntimeException> failures;
+
+    FleetResult(List<String> succeeded, Map<String, RuntimeException> failures) {
+        this.succeeded = List.copyOf(succeeded);
+        this.failures = Map.copyOf(failures);
+    }
+
+    public List<String> getSucceeded() {
+        return succeeded;
+    }
+
+    public Map<String, RuntimeException> getFailures() {
+        return failures;
+    }
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    public void throwIfFailed() {
+        if (!failures.isEmpty()) {
+            String projects = failures.keySet().stream().sorted().collect(Collectors.joining(", "));
+            DockerComposeException ex = new DockerComposeException("Command failed for following projects: " + projects + ".");
+            failures.values().forEach(ex::addSuppressed);
+            throw ex;
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package io.brachu.johann.internal;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class DaemonThreadFactory implements ThreadFactory {
+
+    private final String threadName;
+    private final AtomicInteger counter;
+
+    public DaemonThreadFactory(String threadName) {
+        this.threadName = threadName;
+        counter = new AtomicInteger();
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, threadName + "-" + counter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+}
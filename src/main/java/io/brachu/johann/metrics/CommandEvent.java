@@ -0,0 +1,52 @@
+package io.brachu.johann.metrics;
+
+import java.time.Duration;
+
+public final class CommandEvent {
+
+    public static final int NO_EXIT_CODE = -1;
+
+    private final String projectName;
+    private final String command;
+    private final Duration duration;
+    private final int exitCode;
+    private final long outputBytes;
+
+    public CommandEvent(String projectName, String command, Duration duration, int exitCode, long outputBytes) {
+        this.projectName = projectName;
+        this.command = command;
+        this.duration = duration;
+        this.exitCode = exitCode;
+        this.outputBytes = outputBytes;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+
+    public boolean isSuccess() {
+        return exitCode == 0;
+    }
+
+    @Override
+    public String toString() {
+        return command + " (" + projectName + "): " + duration.toMillis() + " ms, exit code " + exitCode + ", " + outputBytes + " bytes of output";
+    }
+
+}
@@ -0,0 +1,115 @@
+package io.brachu.johann.metrics;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class HistogramMetrics implements JohannMetrics {
+
+    private final ConcurrentMap<String, LatencyHistogram> commands;
+    private final ConcurrentMap<String, LatencyHistogram> apiCalls;
+    private final LatencyHistogram waits;
+    private final LatencyHistogram inspects;
+    private final AtomicLong failedCommands;
+    private final AtomicLong outputBytes;
+    private final AtomicInteger peakOutputTransfers;
+
+    public HistogramMetrics() {
+        commands = new ConcurrentHashMap<>();
+        apiCalls = new ConcurrentHashMap<>();
+        waits = new LatencyHistogram();
+        inspects = new LatencyHistogram();
+        failedCommands = new AtomicLong();
+        outputBytes = new AtomicLong();
+        peakOutputTransfers = new AtomicInteger();
+    }
+
+    @Override
+    public void commandExecuted(CommandEvent event) {
+        commands.computeIfAbsent(event.getCommand(), command -> new LatencyHistogram()).record(event.getDuration());
+        outputBytes.addAndGet(event.getOutputBytes());
+        if (!event.isSuccess()) {
+            failedCommands.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void apiCallExecuted(CommandEvent event) {
+        apiCalls.computeIfAbsent(event.getCommand(), call -> new LatencyHistogram()).record(event.getDuration());
+        if (!event.isSuccess()) {
+            failedCommands.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void waitCompleted(String subject, Duration duration, boolean ready) {
+        waits.record(duration);
+    }
+
+    @Override
+    public void containerInspected(Duration duration) {
+        inspects.record(duration);
+    }
+
+    @Override
+    public void outputTransferStarted(int activeTransfers) {
+        peakOutputTransfers.accumulateAndGet(activeTransfers, Math::max);
+    }
+
+    public LatencyHistogram command(String command) {
+        return commands.computeIfAbsent(command, name -> new LatencyHistogram());
+    }
+
+    public Map<String, LatencyHistogram> commands() {
+        return Collections.unmodifiableMap(commands);
+    }
+
+    public LatencyHistogram apiCall(String call) {
+        return apiCalls.computeIfAbsent(call, name -> new LatencyHistogram());
+    }
+
+    public Map<String, LatencyHistogram> apiCalls() {
+        return Collections.unmodifiableMap(apiCalls);
+    }
+
+    public LatencyHistogram waits() {
+        return waits;
+    }
+
+    public LatencyHistogram inspects() {
+        return inspects;
+    }
+
+    public long forks() {
+        return commands.values().stream().mapToLong(LatencyHistogram::count).sum();
+    }
+
+    public long failedCommands() {
+        return failedCommands.get();
+    }
+
+    public long outputBytes() {
+        return outputBytes.get();
+    }
+
+    public int peakOutputTransfers() {
+        return peakOutputTransfers.get();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        commands.forEach((command, histogram) -> report.append(command).append(": ").append(histogram).append(System.lineSeparator()));
+        apiCalls.forEach((call, histogram) -> report.append("api ").append(call).append(": ").append(histogram).append(System.lineSeparator()));
+        report.append("waits: ").append(waits).append(System.lineSeparator());
+        report.append("inspects: ").append(inspects).append(System.lineSeparator());
+        report.append("forks: ").append(forks()).append(", failed: ").append(failedCommands()).append(", output: ").append(outputBytes())
+                .append(" bytes, peak output transfers: ").append(peakOutputTransfers());
+        return report.toString();
+    }
+
+}
@@ -0,0 +1,25 @@
+package io.brachu.johann.metrics;
+
+import java.time.Duration;
+
+public interface JohannMetrics {
+
+    JohannMetrics NOOP = new JohannMetrics() {
+    };
+
+    default void commandExecuted(CommandEvent event) {
+    }
+
+    default void apiCallExecuted(CommandEvent event) {
+    }
+
+    default void waitCompleted(String subject, Duration duration, boolean ready) {
+    }
+
+    default void containerInspected(Duration duration) {
+    }
+
+    default void outputTransferStarted(int activeTransfers) {
+    }
+
+}
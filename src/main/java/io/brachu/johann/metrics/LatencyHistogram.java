@@ -0,0 +1,89 @@
+package io.brachu.johann.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.lang3.Validate;
+
+public final class LatencyHistogram {
+
+    // values are recorded in microseconds into 128 linear sub-buckets (SUB_BUCKET_BITS = 7) per bucket; buckets after the first one overlap their
+    // predecessor in the lower half, so every power of two range gets 64 distinct sub-buckets, which keeps relative error below 1.6%
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = Long.SIZE - SUB_BUCKET_BITS + 1;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount;
+    private final AtomicLong maxValue;
+
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKET_COUNT * SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT);
+        totalCount = new AtomicLong();
+        maxValue = new AtomicLong();
+    }
+
+    public void record(Duration duration) {
+        long micros = Math.max(TimeUnit.NANOSECONDS.toMicros(duration.toNanos()), 0);
+        counts.incrementAndGet(index(micros));
+        totalCount.incrementAndGet();
+        maxValue.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() {
+        return totalCount.get();
+    }
+
+    public Duration max() {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(maxValue.get()));
+    }
+
+    public Duration percentile(double percentile) {
+        Validate.inclusiveBetween(0.0, 100.0, percentile, "Percentile must be between 0 and 100");
+        long total = totalCount.get();
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); ++i) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                long micros = Math.min(highestEquivalentValue(i), maxValue.get());
+                return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+            }
+        }
+        return max();
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); ++i) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        maxValue.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d p50=%dms p90=%dms p99=%dms max=%dms", count(), percentile(50).toMillis(), percentile(90).toMillis(),
+                percentile(99).toMillis(), max().toMillis());
+    }
+
+    private static int index(long value) {
+        int bucket = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        int subBucket = (int) (value >>> bucket);
+        return bucket * SUB_BUCKET_HALF_COUNT + subBucket;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        int bucket = Math.max(0, index / SUB_BUCKET_HALF_COUNT - 1);
+        long subBucket = index - (long) bucket * SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << bucket) - 1;
+    }
+
+}
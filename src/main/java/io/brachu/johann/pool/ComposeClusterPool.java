@@ -0,0 +1,287 @@
+package io.brachu.johann.pool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.brachu.johann.ClusterStatus;
+import io.brachu.johann.DockerCompose;
+import io.brachu.johann.DownConfig;
+import io.brachu.johann.WaitPolicy;
+import io.brachu.johann.exception.DockerComposeException;
+import io.brachu.johann.exception.JohannTimeoutException;
+import io.brachu.johann.internal.DaemonThreadFactory;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public final class ComposeClusterPool implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ComposeClusterPool.class);
+
+    private static final String THREAD_NAME = "johann-cluster-pool";
+    private static final int MAX_START_ATTEMPTS = 3;
+    private static final long TERMINATION_TIMEOUT_SECONDS = 60;
+
+    private final WaitPolicy waitPolicy;
+    private final Consumer<DockerCompose> resetHook;
+
+    private final ExecutorService executor;
+    private final List<DockerCompose> members;
+    private final BlockingQueue<DockerCompose> ready;
+    private final Set<DockerCompose> leased;
+    private final AtomicInteger aliveMembers;
+
+    private volatile RuntimeException lastFailure;
+    private volatile boolean closed;
+
+    private ComposeClusterPool(Builder builder) {
+        waitPolicy = builder.waitPolicy;
+        resetHook = builder.resetHook;
+
+        members = createMembers(builder);
+        ready = new LinkedBlockingQueue<>();
+        leased = ConcurrentHashMap.newKeySet();
+        aliveMembers = new AtomicInteger(builder.size);
+
+        executor = Executors.newFixedThreadPool(builder.size, new DaemonThreadFactory(THREAD_NAME));
+        for (DockerCompose member : members) {
+            executor.execute(() -> start(member, 1));
+        }
+    }
+
+    public static Builder builder(Function<String, DockerCompose> factory) {
+        return new Builder(factory);
+    }
+
+    public DockerCompose lease() {
+        return lease(waitPolicy.getTime(), waitPolicy.getUnit());
+    }
+
+    public DockerCompose lease(long time, TimeUnit unit) {
+        Validate.validState(!closed, "Cluster pool has already been closed");
+        long deadline = System.nanoTime() + unit.toNanos(time);
+
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (aliveMembers.get() == 0) {
+                    throw new DockerComposeException("None of the clusters in the pool could be started.", lastFailure);
+                }
+                DockerCompose member = ready.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100)), TimeUnit.NANOSECONDS);
+                if (member != null && isHealthy(member)) {
+                    leased.add(member);
+                    return member;
+                } else if (member != null) {
+                    log.warn("Cluster {} is no longer healthy, recycling it", member.getProjectName());
+                    submit(() -> recycle(member));
+                } else if (remaining <= 0) {
+                    throw new JohannTimeoutException("Timed out while waiting for a cluster to be available in the pool.", time, unit, lastFailure);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DockerComposeException("Interrupted while waiting for a cluster to be available in the pool.", ex);
+        }
+    }
+
+    public void release(DockerCompose member) {
+        Validate.isTrue(leased.remove(member), "Given cluster has not been leased from this pool");
+        if (resetHook != null) {
+            submit(() -> reset(member));
+        } else {
+            submit(() -> recycle(member));
+        }
+    }
+
+    public int available() {
+        return ready.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        executor.shutdownNow();
+        awaitExecutorTermination();
+
+        Exception failure = null;
+        for (DockerCompose member : members) {
+            try {
+                member.down(DownConfig.defaults().withForce());
+            } catch (RuntimeException ex) {
+                log.warn("Unable to shut down cluster " + member.getProjectName(), ex);
+            }
+            try {
+                member.close();
+            } catch (IOException | RuntimeException ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    private void awaitExecutorTermination() {
+        try {
+            if (!executor.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Cluster pool tasks did not finish within {} seconds, shutting down clusters anyway", TERMINATION_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for cluster pool tasks to finish, shutting down clusters anyway");
+        }
+    }
+
+    private static List<DockerCompose> createMembers(Builder builder) {
+        List<DockerCompose> members = new ArrayList<>();
+        try {
+            for (int i = 1; i <= builder.size; ++i) {
+                members.add(builder.factory.apply(builder.projectNamePrefix + "-" + i));
+            }
+        } catch (RuntimeException ex) {
+            for (DockerCompose member : members) {
+                try {
+                    member.close();
+                } catch (IOException | RuntimeException closeEx) {
+                    ex.addSuppressed(closeEx);
+                }
+            }
+            throw ex;
+        }
+        return members;
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            log.debug("Cluster pool has been closed, dropping task", ex);
+        }
+    }
+
+    private void start(DockerCompose member, int attempt) {
+        try {
+            member.up();
+            member.waitForCluster(waitPolicy);
+            ready.offer(member);
+            log.debug("Cluster {} is ready", member.getProjectName());
+        } catch (RuntimeException ex) {
+            lastFailure = ex;
+            if (closed) {
+                return;
+            }
+            if (attempt < MAX_START_ATTEMPTS) {
+                log.warn("Unable to start cluster " + member.getProjectName() + ", retrying", ex);
+                start(member, attempt + 1);
+            } else {
+                log.error("Unable to start cluster " + member.getProjectName() + ", removing it from the pool", ex);
+                aliveMembers.decrementAndGet();
+            }
+        }
+    }
+
+    private void reset(DockerCompose member) {
+        try {
+            resetHook.accept(member);
+            member.refresh();
+            member.waitForCluster(waitPolicy);
+            ready.offer(member);
+        } catch (RuntimeException ex) {
+            log.warn("Unable to reset cluster " + member.getProjectName() + ", recycling it", ex);
+            recycle(member);
+        }
+    }
+
+    private void recycle(DockerCompose member) {
+        try {
+            member.down(DownConfig.defaults().withForce());
+        } catch (RuntimeException ex) {
+            log.warn("Unable to shut down cluster " + member.getProjectName() + " before recycling it", ex);
+        }
+        start(member, 1);
+    }
+
+    private boolean isHealthy(DockerCompose member) {
+        try {
+            member.refresh();
+            ClusterStatus status = member.status();
+            return status.isUp() && status.isHealthyOrRunning();
+        } catch (RuntimeException ex) {
+            log.debug("Unable to verify health of cluster " + member.getProjectName(), ex);
+            return false;
+        }
+    }
+
+    public static final class Builder {
+
+        private static final int DEFAULT_SIZE = 2;
+        private static final long DEFAULT_WAIT_MINUTES = 2;
+
+        private final Function<String, DockerCompose> factory;
+        private int size;
+        private String projectNamePrefix;
+        private WaitPolicy waitPolicy;
+        private Consumer<DockerCompose> resetHook;
+
+        private Builder(Function<String, DockerCompose> factory) {
+            Validate.notNull(factory, "factory == null");
+            this.factory = factory;
+            size = DEFAULT_SIZE;
+            projectNamePrefix = "johann-pool";
+            waitPolicy = WaitPolicy.within(DEFAULT_WAIT_MINUTES, TimeUnit.MINUTES);
+        }
+
+        public Builder size(int size) {
+            Validate.isTrue(size > 0, "Pool size must be positive");
+            this.size = size;
+            return this;
+        }
+
+        public Builder projectNamePrefix(String projectNamePrefix) {
+            Validate.notBlank(projectNamePrefix, "projectNamePrefix is null or blank");
+            this.projectNamePrefix = projectNamePrefix;
+            return this;
+        }
+
+        public Builder waitForCluster(long time, TimeUnit unit) {
+            return waitForCluster(WaitPolicy.within(time, unit));
+        }
+
+        public Builder waitForCluster(WaitPolicy waitPolicy) {
+            Validate.notNull(waitPolicy, "waitPolicy == null");
+            this.waitPolicy = waitPolicy;
+            return this;
+        }
+
+        public Builder resetWith(Consumer<DockerCompose> resetHook) {
+            Validate.notNull(resetHook, "resetHook == null");
+            this.resetHook = resetHook;
+            return this;
+        }
+
+        public ComposeClusterPool build() {
+            return new ComposeClusterPool(this);
+        }
+
+    }
+
+}
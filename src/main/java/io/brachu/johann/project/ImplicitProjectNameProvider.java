@@ -6,17 +6,21 @@ public class ImplicitProjectNameProvider implements ProjectNameProvider {
 
     private final MavenPluginProjectNameProvider mavenPlugin;
     private final EnvironmentVariableProjectNameProvider environmentVariable;
-    private final RandomProjectNameProvider random;
+    private final ProjectNameProvider fallback;
 
     public ImplicitProjectNameProvider() {
+        this(new RandomProjectNameProvider());
+    }
+
+    public ImplicitProjectNameProvider(ProjectNameProvider fallback) {
         mavenPlugin = new MavenPluginProjectNameProvider();
         environmentVariable = new EnvironmentVariableProjectNameProvider();
-        random = new RandomProjectNameProvider();
+        this.fallback = fallback;
     }
 
     @Override
     public String provide() {
-        return ObjectUtils.firstNonNull(mavenPlugin.provide(), environmentVariable.provide(), random.provide());
+        return ObjectUtils.firstNonNull(mavenPlugin.provide(), environmentVariable.provide(), fallback.provide());
     }
 
 }
@@ -1,11 +1,33 @@
 package io.brachu.johann
 
 import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
 import java.util.concurrent.TimeUnit
-
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicInteger
+
+import com.sun.net.httpserver.HttpServer
+import io.brachu.johann.cli.ByteChunkPool
+import io.brachu.johann.cli.DockerClientRegistry
+import io.brachu.johann.cli.ProcessOutputTransfer
+import io.brachu.johann.cli.StreamingProcessOutputSink
+import io.brachu.johann.exception.DockerClientException
 import io.brachu.johann.exception.DockerComposeException
 import io.brachu.johann.exception.JohannTimeoutException
+import io.brachu.johann.executor.ComposeExecutor
+import io.brachu.johann.executor.RecordingComposeExecutor
+import io.brachu.johann.executor.ReplayingComposeExecutor
+import io.brachu.johann.executor.SimulatedComposeExecutor
+import io.brachu.johann.fleet.ComposeFleet
+import io.brachu.johann.metrics.HistogramMetrics
+import io.brachu.johann.pool.ComposeClusterPool
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
 
 class JohannAcceptanceSpec extends Specification {
 
@@ -14,6 +36,8 @@ class JohannAcceptanceSpec extends Specification {
             .env('EXTERNAL_MANAGEMENT_PORT', '1337')
             .build()
 
+    def conditions = new PollingConditions(timeout: 30)
+
     def cleanup() {
         dockerCompose.close()
     }
@@ -145,6 +169,32 @@ class JohannAcceptanceSpec extends Specification {
         dockerCompose.down()
     }
 
+    def "metrics should record latency of executed commands and waits"() {
+        given:
+        def metrics = new HistogramMetrics()
+        dockerCompose = DockerCompose.builder()
+                .classpath()
+                .env('EXTERNAL_MANAGEMENT_PORT', '1337')
+                .metrics(metrics)
+                .build()
+
+        when:
+        dockerCompose.up()
+        dockerCompose.waitForCluster(1, TimeUnit.MINUTES)
+        dockerCompose.port('rabbitmq', 5672)
+
+        then:
+        metrics.command('up').count() == 1
+        metrics.command('ps').count() > 0
+        metrics.command('up').percentile(50) > Duration.ZERO
+        metrics.waits().count() == 1
+        metrics.inspects().count() > 0
+        metrics.forks() >= 3
+
+        cleanup:
+        dockerCompose.down()
+    }
+
     def "should return meaningful error message when a private port is not bound to any of the host's ports"() {
         when:
         dockerCompose.up()
@@ -365,6 +415,81 @@ class JohannAcceptanceSpec extends Specification {
         dockerCompose.down()
     }
 
+    def "log follower should keep recent lines of selected services and stop on close"() {
+        given:
+        def out = new PrintStream(OutputStream.nullOutputStream())
+        dockerCompose.up()
+        dockerCompose.waitForCluster(1, TimeUnit.MINUTES)
+
+        when:
+        def follower = dockerCompose.followLogs(LogsConfig.defaults().withServices('postgresql').withTail(5).withBufferSize(3), out, out)
+
+        then:
+        conditions.eventually {
+            assert follower.recentLines('postgresql').size() == 3
+        }
+        follower.running
+        follower.recentLines('rabbitmq').empty
+
+        when:
+        follower.close()
+
+        then:
+        conditions.eventually {
+            assert !follower.running
+        }
+
+        cleanup:
+        dockerCompose.down()
+    }
+
+    def "captured logs should be written to a file per service"() {
+        given:
+        def directory = Files.createTempDirectory('johann-logs')
+        dockerCompose.up()
+        dockerCompose.waitForCluster(1, TimeUnit.MINUTES)
+
+        when:
+        def follower = dockerCompose.captureLogs(LogCaptureConfig.toDirectory(directory).withMaxFileSize(1024).withGzip(true))
+        conditions.eventually {
+            assert Files.exists(directory.resolve('postgresql.log.1.gz'))
+        }
+        follower.close()
+
+        then:
+        Files.readString(directory.resolve('postgresql.log')).contains('database system is ready to accept connections')
+        Files.exists(directory.resolve('rabbitmq.log'))
+        Files.size(directory.resolve('postgresql.log')) <= 1024
+        Files.exists(directory.resolve('postgresql.log.1.gz'))
+
+        cleanup:
+        dockerCompose.down()
+    }
+
+    def "cluster logs should be searchable per service"() {
+        given:
+        def received = []
+        dockerCompose.up()
+        dockerCompose.logs().subscribe('postgresql', { received << it })
+
+        when:
+        def line = dockerCompose.logs().await('postgresql', ~/ready to accept connections/, 1, TimeUnit.MINUTES)
+
+        and:
+        dockerCompose.logs().await('rabbitmq', ~/./, 1, TimeUnit.MINUTES)
+
+        then:
+        line.serviceName == 'postgresql'
+        !dockerCompose.logs().grep('postgresql', ~/ready to accept connections/).empty
+        !dockerCompose.logs().recent('rabbitmq').empty
+        dockerCompose.logs().grep('rabbitmq', ~/ready to accept connections/).empty
+        !received.empty
+        received.every { it.serviceName == 'postgresql' }
+
+        cleanup:
+        dockerCompose.down()
+    }
+
     def "should build an image if build is forced"() {
         given:
         dockerCompose = DockerCompose.builder()
@@ -386,4 +511,1099 @@ class JohannAcceptanceSpec extends Specification {
         dockerCompose.down()
     }
 
+    def "cached cluster state should be invalidated by mutating commands"() {
+        given:
+        dockerCompose = DockerCompose.builder()
+                .classpath()
+                .env('EXTERNAL_MANAGEMENT_PORT', '1337')
+                .clusterStateTtl(1, TimeUnit.HOURS)
+                .build()
+
+        when:
+        dockerCompose.up()
+        dockerCompose.waitForCluster(1, TimeUnit.MINUTES)
+
+        then:
+        dockerCompose.isUp()
+
+        when:
+        dockerCompose.down()
+
+        then:
+        !dockerCompose.isUp()
+    }
+
+    def "should resolve all endpoints of a service at once"() {
+        given:
+        dockerCompose.up()
+        dockerCompose.waitForCluster(1, TimeUnit.MINUTES)
+
+        when:
+        def endpoints = dockerCompose.endpoints('rabbitmq')
+
+        then:
+        endpoints.ports.keySet() == ['5672/tcp', '15672/tcp'] as Set
+        endpoints.port(15672).port == 1337
+        endpoints.port(5672).port == dockerCompose.port('rabbitmq', 5672).port
+        endpoints.ip(dockerCompose.projectName.toLowerCase() + '_default') == dockerCompose.containerIp('rabbitmq')
+
+        and:
+        dockerCompose.endpoints().keySet() == ['rabbitmq', 'postgresql'] as Set
+
+        cleanup:
+        dockerCompose.down()
+    }
+
+    def "should complete service readiness future once service is healthy"() {
+        given:
+        dockerCompose.up()
+
+        when:
+        dockerCompose.serviceReady('postgresql').get(1, TimeUnit.MINUTES)
+
+        then:
+        noExceptionThrown()
+
+        cleanup:
+        dockerCompose.down()
+    }
+
+    def "engine API backend should stop and start services without docker-compose CLI"() {
+        given:
+        dockerCompose = DockerCompose.builder()
+                .classpath()
+                .env('EXTERNAL_MANAGEMENT_PORT', '1337')
+                .backend(ComposeBackend.ENGINE_API)
+                .build()
+
+        and:
+        dockerCompose.up()
+        dockerCompose.waitForCluster(1, TimeUnit.MINUTES)
+
+        expect:
+        dockerCompose.ps().size() == 2
+        dockerCompose.ps('rabbitmq').size() == 1
+
+        when:
+        dockerCompose.stop('rabbitmq')
+        dockerCompose.port('rabbitmq', 5672)
+
+        then:
+        thrown DockerComposeException
+
+        when:
+        dockerCompose.start('rabbitmq')
+        dockerCompose.waitForService('rabbitmq', 1, TimeUnit.MINUTES)
+
+        then:
+        dockerCompose.port('rabbitmq', 15672).port == 1337
+
+        when:
+        dockerCompose.stopAll()
+
+        then:
+        !dockerCompose.status().healthyOrRunning
+
+        when:
+        dockerCompose.startAll()
+        dockerCompose.waitForCluster(1, TimeUnit.MINUTES)
+
+        then:
+        dockerCompose.port('rabbitmq', 15672).port == 1337
+
+        cleanup:
+        dockerCompose.down()
+    }
+
+    def "status should describe every service of the cluster"() {
+        given:
+        dockerCompose.up()
+        dockerCompose.waitForCluster(1, TimeUnit.MINUTES)
+
+        when:
+        def status = dockerCompose.status()
+
+        then:
+        status.up
+        status.healthyOrRunning
+        status.services.keySet() == ['rabbitmq', 'postgresql'] as Set
+        status.service('rabbitmq').containerIds == dockerCompose.ps('rabbitmq')
+        status.service('rabbitmq').port(15672).port == 1337
+
+        cleanup:
+        dockerCompose.down()
+    }
+
+    def "async view should start and shut down cluster without blocking"() {
+        given:
+        def async = dockerCompose.async()
+
+        when:
+        async.pull().get(5, TimeUnit.MINUTES)
+        async.up().get(5, TimeUnit.MINUTES)
+        dockerCompose.waitForCluster(1, TimeUnit.MINUTES)
+
+        then:
+        dockerCompose.up
+
+        when:
+        async.down().get(5, TimeUnit.MINUTES)
+
+        then:
+        !dockerCompose.up
+    }
+
+    def "reuse mode should adopt running cluster with the same fingerprint"() {
+        given:
+        def first = reusableCompose()
+        def second = reusableCompose()
+
+        and:
+        first.up()
+        first.waitForCluster(1, TimeUnit.MINUTES)
+        def ids = first.ps()
+
+        when:
+        first.down()
+        second.up()
+
+        then:
+        second.projectName == first.projectName
+        second.ps() == ids
+
+        cleanup:
+        second.down(DownConfig.defaults().withForce())
+        first.close()
+        second.close()
+    }
+
+    def "cluster pool should lease healthy clusters and recycle released ones"() {
+        given:
+        def pool = ComposeClusterPool.builder({ projectName ->
+            DockerCompose.builder()
+                    .classpath()
+                    .projectName(projectName)
+                    .env('EXTERNAL_MANAGEMENT_PORT', '0')
+                    .build()
+        }).size(2).build()
+
+        when:
+        def first = pool.lease(5, TimeUnit.MINUTES)
+        def second = pool.lease(5, TimeUnit.MINUTES)
+
+        then:
+        first.projectName != second.projectName
+        first.status().healthyOrRunning
+        second.status().healthyOrRunning
+
+        when:
+        pool.release(first)
+
+        then:
+        pool.lease(5, TimeUnit.MINUTES).projectName == first.projectName
+
+        cleanup:
+        pool.close()
+    }
+
+    def "cluster pool should close created clusters when creating another one fails"() {
+        given:
+        def closed = []
+        def factory = { String projectName ->
+            if (projectName.endsWith('-3')) {
+                throw new DockerComposeException('Unable to create ' + projectName)
+            }
+            [close: { closed << projectName }, getProjectName: { projectName }] as DockerCompose
+        }
+
+        when:
+        ComposeClusterPool.builder(factory).size(3).build()
+
+        then:
+        def ex = thrown(DockerComposeException)
+        ex.message == 'Unable to create johann-pool-3'
+        closed == ['johann-pool-1', 'johann-pool-2']
+    }
+
+    def "cluster pool should close every cluster even if closing one of them fails"() {
+        given:
+        def closed = []
+        def factory = { String projectName ->
+            [
+                    up            : {},
+                    waitForCluster: { WaitPolicy policy -> },
+                    down          : { DownConfig config -> },
+                    close         : {
+                        closed << projectName
+                        throw new IOException('Unable to close ' + projectName)
+                    },
+                    getProjectName: { projectName }
+            ] as DockerCompose
+        }
+        def pool = ComposeClusterPool.builder(factory).size(3).build()
+
+        when:
+        pool.close()
+
+        then:
+        def ex = thrown(IOException)
+        ex.message == 'Unable to close johann-pool-1'
+        ex.suppressed*.message == ['Unable to close johann-pool-2', 'Unable to close johann-pool-3']
+        closed == ['johann-pool-1', 'johann-pool-2', 'johann-pool-3']
+    }
+
+    def "fleet should bring all members up and down concurrently"() {
+        given:
+        def fleet = ComposeFleet.builder({ projectName ->
+            DockerCompose.builder()
+                    .classpath()
+                    .projectName(projectName)
+                    .env('EXTERNAL_MANAGEMENT_PORT', '0')
+                    .build()
+        }).projectNames('fleet-a', 'fleet-b', 'fleet-c').concurrency(2).build()
+
+        when:
+        def up = fleet.up()
+        def ready = fleet.waitForAll(2, TimeUnit.MINUTES)
+
+        then:
+        up.success
+        ready.success
+        fleet.members().every { it.up }
+
+        when:
+        def down = fleet.down()
+
+        then:
+        down.succeeded == ['fleet-a', 'fleet-b', 'fleet-c']
+        fleet.members().every { !it.up }
+
+        cleanup:
+        fleet.close()
+    }
+
+    def "fleet should close created members when creating another one fails"() {
+        given:
+        def closed = []
+        def factory = { String projectName ->
+            if (projectName == 'fleet-c') {
+                throw new DockerComposeException('Unable to create ' + projectName)
+            }
+            [close: { closed << projectName }, getProjectName: { projectName }] as DockerCompose
+        }
+
+        when:
+        ComposeFleet.builder(factory).projectNames('fleet-a', 'fleet-b', 'fleet-c').build()
+
+        then:
+        def ex = thrown(DockerComposeException)
+        ex.message == 'Unable to create fleet-c'
+        closed == ['fleet-a', 'fleet-b']
+
+        when:
+        ComposeFleet.builder(factory).projectNames('fleet-a', 'fleet-b', 'fleet-a').build()
+
+        then:
+        thrown(IllegalArgumentException)
+        closed == ['fleet-a', 'fleet-b']
+    }
+
+    def "simulated executor should back the whole API without docker and replay recorded session"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('postgresql', 5432)
+                .healthCheck('postgresql', 'starting')
+                .service('rabbitmq', 5672, 15672)
+                .build('simulated')
+        def recording = Files.createTempFile('johann-session', '.jsonl')
+        def simulated = DockerCompose.builder()
+                .classpath()
+                .record(recording)
+                .executor({ projectName -> simulator })
+                .build()
+
+        when:
+        simulated.up()
+        def ready = simulated.serviceReady('postgresql')
+
+        then:
+        simulated.up
+        simulated.ps().size() == 2
+        !ready.done
+
+        when:
+        simulator.health('postgresql', 'healthy')
+        simulator.log('rabbitmq', 'Server startup complete')
+        simulated.waitForCluster(1, TimeUnit.SECONDS)
+        def amqpPort = simulated.port('rabbitmq', 5672).port
+
+        then:
+        ready.done
+        amqpPort != simulated.port('rabbitmq', 15672).port
+        simulated.containerIp('postgresql') ==~ /172\.28\.0\.\d+/
+        simulated.logs().await('rabbitmq', ~/startup complete/, 1, TimeUnit.SECONDS).message == 'Server startup complete'
+
+        when:
+        simulated.down()
+        simulated.close()
+        def replayed = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> new ReplayingComposeExecutor(recording) })
+                .build()
+        replayed.up()
+        replayed.waitForCluster(1, TimeUnit.SECONDS)
+
+        then:
+        replayed.projectName == 'simulated'
+        replayed.port('rabbitmq', 5672).port == amqpPort
+        replayed.ps().size() == 2
+        simulator.commands() == ['up', 'down -v']
+
+        cleanup:
+        replayed?.close()
+        Files.deleteIfExists(recording)
+    }
+
+    def "recorded session should replay repeated results, error types and pull progress"() {
+        given:
+        def results = [[new ContainerId('a')], [new ContainerId('a')], [new ContainerId('b')]].iterator()
+        def recording = Files.createTempFile('johann-session', '.jsonl')
+        def recorder = new RecordingComposeExecutor([
+                getProjectName: { 'recorded' },
+                ps: { -> results.next() },
+                up: { UpConfig config -> throw new JohannTimeoutException('Timed out while waiting for cluster to be up.', 3, TimeUnit.SECONDS, null) },
+                pullImage: { String image, ImagePullListener listener ->
+                    listener.onProgress(new ImagePullProgress(image, 'Downloading', 0, 2048))
+                    listener.onProgress(new ImagePullProgress(image, 'Download complete', 2048, 2048))
+                    2048L
+                },
+                close: {}] as ComposeExecutor, recording)
+        def recordedProgress = []
+
+        when:
+        3.times { recorder.ps() }
+        recorder.pullImage('simulated/app', { recordedProgress << it.status } as ImagePullListener)
+        recorder.up(UpConfig.defaults())
+
+        then:
+        thrown(JohannTimeoutException)
+        recordedProgress == ['Downloading', 'Download complete']
+
+        when:
+        recorder.close()
+        def replayer = new ReplayingComposeExecutor(recording)
+        def replayedProgress = []
+        def replayedIds = (1..4).collect { replayer.ps()*.toString() }
+        def bytes = replayer.pullImage('simulated/app', { replayedProgress << it } as ImagePullListener)
+        replayer.up(UpConfig.defaults())
+
+        then:
+        def ex = thrown(JohannTimeoutException)
+        ex.message == 'Timed out while waiting for cluster to be up.'
+        ex.time == 3
+        ex.unit == TimeUnit.SECONDS
+        replayedIds == [['a'], ['a'], ['b'], ['b']]
+        bytes == 2048
+        replayedProgress*.status == ['Downloading', 'Download complete']
+        replayedProgress*.currentBytes == [0, 2048]
+        replayedProgress.every { it.image == 'simulated/app' && it.totalBytes == 2048 }
+
+        cleanup:
+        Files.deleteIfExists(recording)
+    }
+
+    def "wait policy should detect fast services within tens of milliseconds and honour sub-second timeouts"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('postgresql', 5432)
+                .healthCheck('postgresql', 'starting')
+                .build('wait-policy')
+        def executor = new PollCountingComposeExecutor(new EventlessComposeExecutor(simulator))
+        def compose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> executor })
+                .build()
+        compose.up()
+
+        when:
+        compose.waitForService('postgresql', 200, TimeUnit.MILLISECONDS)
+
+        then:
+        def ex = thrown(JohannTimeoutException)
+        ex.time == 200
+        ex.unit == TimeUnit.MILLISECONDS
+
+        when:
+        executor.polls.set(0)
+        executor.onPoll = { polls -> if (polls == 4) simulator.health('postgresql', 'healthy') }
+        def start = System.nanoTime()
+        compose.waitForService('postgresql', WaitPolicy.within(Duration.ofSeconds(5)).withJitter(0))
+        def elapsed = Duration.ofNanos(System.nanoTime() - start)
+
+        then:
+        executor.polls.get() == 4
+        elapsed < Duration.ofSeconds(2)
+
+        cleanup:
+        compose?.close()
+    }
+
+    def "readiness probes should hold waiting until service ports accept connections"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('web', 8080)
+                .build('probed')
+        def compose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> simulator })
+                .probe(ReadinessProbe.tcp('web', 8080))
+                .probe(ReadinessProbe.http('web', 8080, '/health'))
+                .probe(ReadinessProbe.custom('web', 8080, { port -> new Socket(port.host.host, port.port).withCloseable { true } }))
+                .build()
+        def server = null
+        compose.up()
+
+        when:
+        compose.waitForService('web', 300, TimeUnit.MILLISECONDS)
+
+        then:
+        def ex = thrown(JohannTimeoutException)
+        ex.message.contains('TCP probe of web:8080')
+        ex.message.contains('HTTP probe of web:8080/health')
+
+        when:
+        server = HttpServer.create(new InetSocketAddress('localhost', compose.port('web', 8080).port), 0)
+        server.createContext('/health', { exchange ->
+            exchange.sendResponseHeaders(204, -1)
+            exchange.close()
+        })
+        server.start()
+        compose.waitForCluster(WaitPolicy.within(Duration.ofSeconds(2)))
+
+        then:
+        noExceptionThrown()
+
+        cleanup:
+        server?.stop(0)
+        compose?.close()
+    }
+
+    def "log probe and waitForLog should complete on the first matching line of a service"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('broker', 5672)
+                .service('app', 8080)
+                .build('logged')
+        def compose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> simulator })
+                .probe(ReadinessProbe.log('broker', ~/Server startup complete/))
+                .build()
+        compose.up()
+
+        when:
+        compose.waitForService('broker', 200, TimeUnit.MILLISECONDS)
+
+        then:
+        def ex = thrown(JohannTimeoutException)
+        ex.message.contains("LOG probe of broker matching 'Server startup complete'")
+
+        when:
+        Thread.start {
+            Thread.sleep(50)
+            simulator.log('app', 'Server startup complete')
+            simulator.log('broker', 'Server startup complete')
+        }
+        compose.waitForCluster(1, TimeUnit.SECONDS)
+        simulator.log('app', 'Started Application in 1.2 seconds')
+        def started = compose.waitForLog('app', ~/Started \w+/, 1, TimeUnit.SECONDS)
+
+        then:
+        started.serviceName == 'app'
+        started.message == 'Started Application in 1.2 seconds'
+        compose.waitForLog('broker', ~/startup/, 100, TimeUnit.MILLISECONDS).message == 'Server startup complete'
+
+        when:
+        compose.stop('broker')
+        compose.start('broker')
+        compose.waitForLog('broker', ~/startup/, 100, TimeUnit.MILLISECONDS)
+
+        then:
+        thrown(JohannTimeoutException)
+        compose.logs().recent('broker').empty
+        compose.logs().recent('app')*.message == ['Server startup complete', 'Started Application in 1.2 seconds']
+
+        when:
+        simulator.log('broker', 'Server startup complete')
+
+        then:
+        compose.waitForLog('broker', ~/startup/, 1, TimeUnit.SECONDS).message == 'Server startup complete'
+
+        when:
+        compose.stopAll()
+        compose.startAll()
+
+        then:
+        compose.logs().recent('broker').empty
+        compose.logs().recent('app').empty
+
+        cleanup:
+        compose?.close()
+    }
+
+    def "cluster logs should return lines printed before the first call exactly once"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('app', 8080)
+                .build('history')
+        def compose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> simulator })
+                .build()
+        compose.up()
+        simulator.log('app', 'Starting Application')
+        simulator.log('app', 'Started Application in 1.2 seconds')
+
+        expect:
+        compose.logs().grep('app', ~/Started/)*.message == ['Started Application in 1.2 seconds']
+
+        when:
+        simulator.log('app', 'Stopping Application')
+
+        then:
+        compose.logs().recent('app')*.message == ['Starting Application', 'Started Application in 1.2 seconds', 'Stopping Application']
+
+        cleanup:
+        compose?.close()
+    }
+
+    def "process output transfer should bound command transfers and keep log followers out of the budget"() {
+        given:
+        def transfer = new ProcessOutputTransfer(4)
+        def release = new CountDownLatch(1)
+        def blocking = { release.await() } as Runnable
+
+        when:
+        def commands = (1..2).collect { transfer.start(blocking, blocking) }
+        def followers = (1..10).collect { transfer.follow(blocking, blocking) }
+        def waiting = CompletableFuture.supplyAsync { transfer.start({} as Runnable, {} as Runnable) }
+        waiting.get(100, TimeUnit.MILLISECONDS)
+
+        then:
+        thrown(TimeoutException)
+        transfer.activeTransfers() == 24
+
+        when:
+        release.countDown()
+        waiting.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS)
+        (commands + followers)*.get(5, TimeUnit.SECONDS)
+        transfer.close()
+        transfer.start({} as Runnable, {} as Runnable)
+
+        then:
+        thrown(DockerComposeException)
+    }
+
+    def "shared process output transfer should be released by every closed instance exactly once"() {
+        given:
+        def references = ProcessOutputTransfer.sharedReferences
+
+        when:
+        def compose = DockerCompose.builder().classpath().build()
+
+        then:
+        ProcessOutputTransfer.sharedReferences == references + 1
+
+        when:
+        compose.close()
+        compose.close()
+
+        then:
+        ProcessOutputTransfer.sharedReferences == references
+    }
+
+    def "streaming process output sink should fill pooled chunks and return them when draining fails"() {
+        given:
+        def transfer = new ProcessOutputTransfer(4)
+        def mebibyte = 1024 * 1024
+        def executable = Files.createTempFile('johann-fake-output', '.sh')
+        Files.writeString(executable, '#!/bin/sh\n'
+                + "head -c ${mebibyte} /dev/zero | tr '\\000' 'o'\n"
+                + "head -c ${mebibyte} /dev/zero | tr '\\000' 'e' >&2\n")
+        executable.toFile().setExecutable(true)
+
+        when:
+        def process = new ProcessBuilder(executable.toString()).start()
+        def sink = StreamingProcessOutputSink.create(process, transfer)
+        def standardOutput = sink.standardOutput()
+        def errorOutput = sink.errorOutput()
+
+        then:
+        standardOutput == 'o' * mebibyte
+        errorOutput == 'e' * mebibyte
+        sink.outputBytes() == 2 * mebibyte
+
+        when:
+        def pooledChunks = ByteChunkPool.SHARED.pooledChunks.get()
+        def failing = new InputStream() {
+
+            int remaining = 20 * 1024
+
+            @Override
+            int read() {
+                throw new UnsupportedOperationException()
+            }
+
+            @Override
+            int read(byte[] bytes, int offset, int length) {
+                if (remaining == 0) {
+                    throw new IOException('broken pipe')
+                }
+                def read = Math.min(Math.min(length, 1000), remaining)
+                remaining -= read
+                return read
+            }
+
+        }
+        def failingSink = StreamingProcessOutputSink.create([getInputStream: { failing }, getErrorStream: { new ByteArrayInputStream(new byte[0]) }] as Process,
+                transfer)
+        failingSink.standardOutput()
+
+        then:
+        def ex = thrown(IOException)
+        ex.message == 'broken pipe'
+        ByteChunkPool.SHARED.pooledChunks.get() == pooledChunks
+
+        cleanup:
+        transfer?.close()
+        Files.deleteIfExists(executable)
+    }
+
+    def "docker client should be created lazily and shared between instances with the same docker api config"() {
+        given:
+        def registry = DockerClientRegistry.shared()
+        def config = DockerApiConfig.defaults().withMaxConnections(16).withResponseTimeout(Duration.ofSeconds(30))
+        def clients = registry.size()
+
+        when:
+        def composes = (1..3).collect {
+            DockerCompose.builder()
+                    .classpath()
+                    .projectName("shared-client-$it")
+                    .dockerApi(config)
+                    .build()
+        }
+
+        then:
+        registry.size() == clients + 1
+
+        when:
+        composes*.close()
+
+        then:
+        registry.size() == clients
+    }
+
+    def "service validation should retry a failed model read and skip only models docker-compose cannot describe"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('app', 8080)
+                .build('flaky-model')
+        def flaky = new FlakyModelComposeExecutor(simulator, true)
+        def compose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> flaky })
+                .build()
+        compose.up()
+
+        when:
+        flaky.failures.set(1)
+        compose.stop('app')
+
+        then:
+        def ex = thrown(DockerComposeException)
+        ex.message == 'Unable to read compose model.'
+
+        when:
+        compose.stop('ap')
+
+        then:
+        def unknown = thrown(DockerComposeException)
+        unknown.message.contains("No such service: 'ap'")
+
+        when:
+        def legacy = new FlakyModelComposeExecutor(SimulatedComposeExecutor.builder().service('app', 8080).build('legacy-model'), false)
+        def legacyCompose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> legacy })
+                .build()
+        legacyCompose.up()
+        legacyCompose.stop('app')
+        legacyCompose.start('app')
+
+        then:
+        legacy.modelCalls.get() == 0
+
+        cleanup:
+        compose?.close()
+        legacyCompose?.close()
+    }
+
+    def "compose model should describe services once and reject unknown services without querying the cluster"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('postgresql', 5432)
+                .healthCheck('postgresql', 'healthy')
+                .service('rabbitmq', 5672)
+                .udpPorts('rabbitmq', 4369)
+                .replicas('rabbitmq', 2)
+                .build('Modelled')
+        def modelCalls = new AtomicInteger()
+        def compose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> new ModelCountingComposeExecutor(simulator, modelCalls) })
+                .build()
+
+        when:
+        def model = compose.model()
+
+        then:
+        model.serviceNames() == ['postgresql', 'rabbitmq']
+        model.service('postgresql').hasHealthcheck()
+        !model.service('rabbitmq').hasHealthcheck()
+        model.service('rabbitmq').replicas == 2
+        model.service('rabbitmq').publishes(Protocol.UDP, 4369)
+        model.defaultNetworkName() == 'modelled_default'
+
+        when:
+        compose.up()
+        compose.port('postgresq', 5432)
+
+        then:
+        def ex = thrown(DockerComposeException)
+        ex.message.contains("'postgresq'")
+        ex.message.contains('[postgresql, rabbitmq]')
+
+        when:
+        compose.port('rabbitmq', 5433)
+
+        then:
+        def unbound = thrown(DockerComposeException)
+        unbound.message == "No host port is bound to 'rabbitmq' container's 5433 tcp port."
+
+        when:
+        compose.waitForService('rabit', 1, TimeUnit.SECONDS)
+
+        then:
+        thrown(DockerComposeException)
+        simulator.commands() == ['up']
+
+        when:
+        compose.waitForCluster(1, TimeUnit.SECONDS)
+
+        then:
+        compose.containerIp('postgresql') ==~ /172\.28\.0\.\d+/
+        compose.model().is(model)
+        modelCalls.get() == 1
+
+        cleanup:
+        compose?.close()
+    }
+
+    def "up with native wait should pass fast-path options and let waitForCluster skip polling"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('postgresql', 5432)
+                .healthCheck('postgresql', 'starting')
+                .service('worker')
+                .build('native-wait')
+        def compose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> new EventlessComposeExecutor(simulator) })
+                .build()
+        def config = UpConfig.defaults()
+                .withNoBuild(true)
+                .withNoRecreate(true)
+                .withQuietPull(true)
+                .withPullPolicy(PullPolicy.NEVER)
+                .withWaitTimeoutSeconds(30)
+                .withScale('worker', 3)
+
+        when:
+        compose.up(config)
+        simulator.health('postgresql', 'starting')
+        compose.waitForCluster(100, TimeUnit.MILLISECONDS)
+
+        then:
+        simulator.commands() == ['up --no-build --no-recreate --quiet-pull --pull never --wait --wait-timeout 30 --scale worker=3']
+        compose.ps('worker').size() == 3
+
+        when:
+        compose.stop('worker')
+        compose.start('worker')
+        compose.waitForCluster(100, TimeUnit.MILLISECONDS)
+
+        then:
+        thrown(JohannTimeoutException)
+
+        when:
+        compose.async().down().get(1, TimeUnit.SECONDS)
+        compose.async().up(UpConfig.defaults().withWait(true)).get(1, TimeUnit.SECONDS)
+        simulator.health('postgresql', 'starting')
+        compose.waitForCluster(100, TimeUnit.MILLISECONDS)
+
+        then:
+        simulator.commands().last() == 'up --wait'
+
+        when:
+        UpConfig.defaults().withForceBuild(true).withNoBuild(true)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        cleanup:
+        compose?.close()
+    }
+
+    def "prefetch should pull only missing images concurrently and report progress"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('postgresql', 5432)
+                .service('rabbitmq', 5672)
+                .service('redis', 6379)
+                .localImage('postgresql')
+                .build('prefetch')
+        def compose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> simulator })
+                .build()
+        def progress = new CopyOnWriteArrayList<ImagePullProgress>()
+        def config = PrefetchConfig.defaults()
+                .withParallelism(2)
+                .withListener({ update -> progress << update } as ImagePullListener)
+
+        when:
+        def result = compose.async().prefetch(config).get(5, TimeUnit.SECONDS)
+
+        then:
+        result.present == ['simulated/postgresql']
+        result.pulled.keySet() == ['simulated/rabbitmq', 'simulated/redis'] as Set
+        result.pulledBytes == 2 * 1024 * 1024
+        simulator.commands() as Set == ['pull simulated/rabbitmq', 'pull simulated/redis'] as Set
+        progress*.image as Set == ['simulated/rabbitmq', 'simulated/redis'] as Set
+        progress.findAll { it.status == 'Download complete' }.every { it.currentBytes == it.totalBytes }
+
+        when:
+        def again = compose.prefetch()
+
+        then:
+        again.present.size() == 3
+        again.pulled.isEmpty()
+        simulator.commands().size() == 2
+
+        cleanup:
+        compose?.close()
+    }
+
+    def "prefetch should fail fast and interrupt remaining pulls when one of them fails"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('postgresql', 5432)
+                .service('rabbitmq', 5672)
+                .service('redis', 6379)
+                .build('prefetch-failure')
+        def executor = new FailingPullComposeExecutor(simulator, 'simulated/rabbitmq')
+        def compose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> executor })
+                .build()
+
+        when:
+        compose.async().prefetch(PrefetchConfig.defaults().withParallelism(2)).get(5, TimeUnit.SECONDS)
+
+        then:
+        def ex = thrown(ExecutionException)
+        ex.cause.message == 'Unable to pull image simulated/rabbitmq.'
+        executor.interrupted.await(5, TimeUnit.SECONDS)
+
+        cleanup:
+        compose?.close()
+    }
+
+    def "async up in reuse mode should propagate cancellation and async stop should validate services"() {
+        given:
+        def simulator = SimulatedComposeExecutor.builder()
+                .service('app', 8080)
+                .build('async-reuse')
+        def executor = new HangingUpComposeExecutor(simulator)
+        def compose = DockerCompose.builder()
+                .classpath()
+                .executor({ projectName -> executor })
+                .reuse()
+                .build()
+
+        when:
+        def up = compose.async().up()
+        def execution = executor.upStarted.get(5, TimeUnit.SECONDS)
+        up.cancel(true)
+
+        then:
+        execution.cancelled
+
+        when:
+        compose.async().stop('missing')
+
+        then:
+        def ex = thrown(DockerComposeException)
+        ex.message.startsWith("No such service: 'missing'")
+        !simulator.commands().any { it.startsWith('stop') }
+
+        cleanup:
+        compose?.close()
+    }
+
+    private static DockerCompose reusableCompose() {
+        DockerCompose.builder()
+                .classpath()
+                .env('EXTERNAL_MANAGEMENT_PORT', '1337')
+                .reuse()
+                .build()
+    }
+
+    private static class EventlessComposeExecutor implements ComposeExecutor {
+
+        @Delegate
+        private final ComposeExecutor delegate
+
+        EventlessComposeExecutor(ComposeExecutor delegate) {
+            this.delegate = delegate
+        }
+
+        @Override
+        CompletableFuture<Void> ready(List<ContainerId> containerIds) {
+            CompletableFuture.failedFuture(new DockerClientException('Docker events are unavailable', null))
+        }
+
+    }
+
+    private static class FailingPullComposeExecutor implements ComposeExecutor {
+
+        @Delegate
+        private final ComposeExecutor delegate
+        private final String failingImage
+        private final CountDownLatch interrupted
+
+        FailingPullComposeExecutor(ComposeExecutor delegate, String failingImage) {
+            this.delegate = delegate
+            this.failingImage = failingImage
+            interrupted = new CountDownLatch(1)
+        }
+
+        @Override
+        long pullImage(String image, ImagePullListener listener) {
+            if (image == failingImage) {
+                throw new DockerComposeException("Unable to pull image ${image}.")
+            }
+            try {
+                Thread.sleep(60_000)
+            } catch (InterruptedException ex) {
+                interrupted.countDown()
+                throw new DockerComposeException("Interrupted while pulling image ${image}.", ex)
+            }
+            0
+        }
+
+    }
+
+    private static class PollCountingComposeExecutor implements ComposeExecutor {
+
+        @Delegate
+        private final ComposeExecutor delegate
+        private final AtomicInteger polls
+        private volatile Closure onPoll
+
+        PollCountingComposeExecutor(ComposeExecutor delegate) {
+            this.delegate = delegate
+            polls = new AtomicInteger()
+            onPoll = {}
+        }
+
+        @Override
+        ClusterStatus status() {
+            onPoll(polls.incrementAndGet())
+            delegate.status()
+        }
+
+    }
+
+    private static class HangingUpComposeExecutor implements ComposeExecutor {
+
+        @Delegate
+        private final ComposeExecutor delegate
+        private final CompletableFuture<CompletableFuture<Void>> upStarted
+
+        HangingUpComposeExecutor(ComposeExecutor delegate) {
+            this.delegate = delegate
+            upStarted = new CompletableFuture<>()
+        }
+
+        @Override
+        CompletableFuture<Void> upAsync(UpConfig config) {
+            def execution = new CompletableFuture<Void>()
+            upStarted.complete(execution)
+            execution
+        }
+
+    }
+
+    private static class FlakyModelComposeExecutor implements ComposeExecutor {
+
+        @Delegate
+        private final ComposeExecutor delegate
+        private final boolean modelSupported
+        private final AtomicInteger failures
+        private final AtomicInteger modelCalls
+
+        FlakyModelComposeExecutor(ComposeExecutor delegate, boolean modelSupported) {
+            this.delegate = delegate
+            this.modelSupported = modelSupported
+            failures = new AtomicInteger()
+            modelCalls = new AtomicInteger()
+        }
+
+        @Override
+        ComposeModel model() {
+            modelCalls.incrementAndGet()
+            if (failures.getAndUpdate { it > 0 ? it - 1 : 0 } > 0) {
+                throw new DockerComposeException('Unable to read compose model.')
+            }
+            delegate.model()
+        }
+
+        @Override
+        boolean supportsModel() {
+            modelSupported
+        }
+
+    }
+
+    private static class ModelCountingComposeExecutor implements ComposeExecutor {
+
+        @Delegate
+        private final ComposeExecutor delegate
+        private final AtomicInteger modelCalls
+
+        ModelCountingComposeExecutor(ComposeExecutor delegate, AtomicInteger modelCalls) {
+            this.delegate = delegate
+            this.modelCalls = modelCalls
+        }
+
+        @Override
+        ComposeModel model() {
+            modelCalls.incrementAndGet()
+            delegate.model()
+        }
+
+    }
+
 }